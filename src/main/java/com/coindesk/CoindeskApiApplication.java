@@ -1,11 +1,15 @@
 package com.coindesk;
 
+import com.coindesk.util.HttpClientUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
 @SpringBootApplication
+@EnableScheduling
 public class CoindeskApiApplication {
 
     public static void main(String[] args) {
@@ -13,7 +17,10 @@ public class CoindeskApiApplication {
     }
     
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(
+            @Value("${coindesk.http.max-connections:20}") int maxConnections,
+            @Value("${coindesk.http.connect-timeout-ms:3000}") int connectTimeoutMs,
+            @Value("${coindesk.http.read-timeout-ms:5000}") int readTimeoutMs) {
+        return new RestTemplate(HttpClientUtils.pooledRequestFactory(maxConnections, connectTimeoutMs, readTimeoutMs));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,205 @@
+package com.coindesk.cache;
+
+import com.coindesk.dto.CurrencyCacheStatsResponse;
+import com.coindesk.entity.CurrencyEntity;
+import com.coindesk.repository.CurrencyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 幣別字典快取 (依代碼索引)
+ *
+ * 未命中時才查詢資料庫，不存在的代碼也會快取；容量以 LRU 淘汰，並有存活時間。
+ * 幣別異動時由寫入端呼叫 invalidate 精準失效；失效會遞增版本號，
+ * 失效前開始的查詢結果不會寫回快取，避免舊資料覆蓋新資料。
+ *
+ * 回傳的實體為與持久化內容脫離的副本，呼叫端不可修改
+ */
+@Component
+public class CurrencyDictionary {
+
+    private final CurrencyRepository currencyRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Object lock = new Object();
+    // 依存取順序排列，超過容量時移除最久未使用的一筆
+    private final LinkedHashMap<String, Entry> entries;
+    // 以下欄位皆由 lock 保護
+    private long version;
+    private long hits;
+    private long misses;
+    private long loads;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    @Autowired
+    public CurrencyDictionary(
+            CurrencyRepository currencyRepository,
+            @Value("${coindesk.currency-cache.max-size:1000}") int maxSize,
+            @Value("${coindesk.currency-cache.ttl-ms:600000}") long ttlMs) {
+        this.currencyRepository = currencyRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > CurrencyDictionary.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param code 幣別代碼
+     * @return 幣別，不存在時為 empty
+     */
+    public Optional<CurrencyEntity> get(String code) {
+        return Optional.ofNullable(getAll(Collections.singleton(code)).get(code));
+    }
+
+    /**
+     * 取得多個幣別，未命中的代碼以單次查詢載入
+     * @param codes 幣別代碼
+     * @return 存在的幣別，依代碼索引
+     */
+    public Map<String, CurrencyEntity> getAll(Collection<String> codes) {
+        Map<String, CurrencyEntity> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        long loadVersion;
+        synchronized (lock) {
+            long now = System.nanoTime();
+            for (String code : new LinkedHashSet<>(codes)) {
+                Entry entry = entries.get(code);
+                if (entry != null && entry.expiresAtNanos - now > 0) {
+                    hits++;
+                    if (entry.value != null) {
+                        result.put(code, entry.value);
+                    }
+                    continue;
+                }
+                if (entry != null) {
+                    entries.remove(code);
+                    expirations++;
+                }
+                misses++;
+                missing.add(code);
+            }
+            loadVersion = version;
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<String, CurrencyEntity> loaded = new HashMap<>();
+        for (CurrencyEntity entity : currencyRepository.findAllById(missing)) {
+            loaded.put(entity.getCode(), copyOf(entity));
+        }
+        synchronized (lock) {
+            loads++;
+            // 查詢期間有幣別失效時不寫回，下次再重新載入
+            boolean cacheable = version == loadVersion;
+            long expiresAtNanos = System.nanoTime() + ttlNanos;
+            for (String code : missing) {
+                CurrencyEntity value = loaded.get(code);
+                if (cacheable) {
+                    entries.put(code, new Entry(value, expiresAtNanos));
+                }
+                if (value != null) {
+                    result.put(code, value);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 幣別新增、修改或刪除後使其失效
+     */
+    public void invalidate(String code) {
+        invalidate(Collections.singleton(code));
+    }
+
+    /**
+     * 幣別新增、修改或刪除後使其失效
+     */
+    public void invalidate(Collection<String> codes) {
+        synchronized (lock) {
+            version++;
+            for (String code : codes) {
+                if (entries.remove(code) != null) {
+                    invalidations++;
+                }
+            }
+        }
+    }
+
+    /**
+     * 清除全部快取 (大量異動時使用)
+     */
+    public void invalidateAll() {
+        synchronized (lock) {
+            version++;
+            invalidations += entries.size();
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return 字典版本，任何幣別失效時遞增
+     */
+    public long getVersion() {
+        synchronized (lock) {
+            return version;
+        }
+    }
+
+    public CurrencyCacheStatsResponse getStats() {
+        synchronized (lock) {
+            // 順便清除已過期的項目，使 size 反映實際可用的快取
+            long now = System.nanoTime();
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().expiresAtNanos - now <= 0) {
+                    iterator.remove();
+                    expirations++;
+                }
+            }
+            return new CurrencyCacheStatsResponse(
+                    entries.size(), maxSize, hits, misses, loads, evictions, expirations, invalidations, version);
+        }
+    }
+
+    private static CurrencyEntity copyOf(CurrencyEntity entity) {
+        return new CurrencyEntity(entity.getCode(), entity.getChineseName(), entity.getEnglishName());
+    }
+
+    /**
+     * 快取項目，value 為 null 表示資料庫中不存在此代碼
+     */
+    private static final class Entry {
+        private final CurrencyEntity value;
+        private final long expiresAtNanos;
+
+        private Entry(CurrencyEntity value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.coindesk.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * 資料庫連線池與 SQL 記錄設定 (由 application-prod.properties 啟用)
+ */
+@Configuration
+public class DataSourceTuningConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceTuningConfiguration.class);
+
+    /**
+     * 設定 coindesk.datasource.connections-per-core 且未明確設定 maximum-pool-size 時，
+     * 連線池大小依 CPU 核心數決定，並維持固定大小以免尖峰時才建立連線
+     */
+    @Bean
+    public static BeanPostProcessor connectionPoolSizer(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                Integer perCore = environment.getProperty("coindesk.datasource.connections-per-core", Integer.class);
+                if (bean instanceof HikariDataSource && perCore != null && perCore > 0
+                        && !environment.containsProperty("spring.datasource.hikari.maximum-pool-size")) {
+                    HikariDataSource dataSource = (HikariDataSource) bean;
+                    int poolSize = Runtime.getRuntime().availableProcessors() * perCore;
+                    dataSource.setMaximumPoolSize(poolSize);
+                    dataSource.setMinimumIdle(poolSize);
+                    log.info("資料庫連線池大小依 CPU 核心數設定為 {}", poolSize);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * 設定 coindesk.sql-log.sample-rate 大於 0 時，依比例取樣記錄執行的 SQL
+     */
+    @Bean
+    @ConditionalOnExpression("${coindesk.sql-log.sample-rate:0} > 0")
+    public HibernatePropertiesCustomizer sampledSqlLogging(@Value("${coindesk.sql-log.sample-rate}") double sampleRate) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new SampledStatementInspector(sampleRate));
+    }
+}
@@ -0,0 +1,81 @@
+package com.coindesk.config;
+
+import com.coindesk.cache.CurrencyDictionary;
+import com.coindesk.service.AsyncIngestService;
+import com.coindesk.service.CoindeskApiService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * 由既有統計衍生的監控指標，僅在指標被讀取 (例如 Prometheus 抓取) 時才取值，不增加寫入與讀取路徑的成本
+ * 計時類指標直接記錄於各服務中；HTTP 端點的耗時由 Actuator 的 http.server.requests 提供
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * 寫入與去重統計
+     * 服務本身依賴 MeterRegistry 記錄耗時，而 MeterBinder 在 MeterRegistry 建立時套用，因此以延遲注入避免循環依賴
+     */
+    @Bean
+    public MeterBinder ingestMetrics(@Lazy CoindeskApiService coindeskApiService,
+                                     @Lazy AsyncIngestService asyncIngestService) {
+        return registry -> {
+            FunctionCounter.builder("coindesk.ingest.received", coindeskApiService,
+                            service -> service.getIngestStats().getReceived())
+                    .description("收到的寫入數據筆數")
+                    .register(registry);
+            FunctionCounter.builder("coindesk.ingest.duplicates.skipped", coindeskApiService,
+                            service -> service.getIngestStats().getDuplicatesSkipped())
+                    .description("與前一筆完全相同而略過的數據筆數")
+                    .register(registry);
+            FunctionCounter.builder("coindesk.ingest.records.written", coindeskApiService,
+                            service -> service.getIngestStats().getRecordsWritten())
+                    .description("寫入的 COINDESK_DATA 筆數")
+                    .register(registry);
+            FunctionCounter.builder("coindesk.ingest.rates.written", coindeskApiService,
+                            service -> service.getIngestStats().getRatesWritten())
+                    .description("寫入的匯率筆數")
+                    .register(registry);
+            FunctionCounter.builder("coindesk.ingest.rates.skipped", coindeskApiService,
+                            service -> service.getIngestStats().getRatesSkipped())
+                    .description("未變動而略過的匯率筆數")
+                    .register(registry);
+            Gauge.builder("coindesk.ingest.queue.depth", asyncIngestService,
+                            service -> service.getStatus().getQueueDepth())
+                    .description("非同步寫入佇列中等待寫入的筆數")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * 幣別字典快取統計
+     */
+    @Bean
+    public MeterBinder currencyCacheMetrics(CurrencyDictionary currencyDictionary) {
+        return registry -> {
+            FunctionCounter.builder("coindesk.currency.cache.requests", currencyDictionary,
+                            dictionary -> dictionary.getStats().getHits())
+                    .tag("result", "hit")
+                    .description("幣別字典查詢次數")
+                    .register(registry);
+            FunctionCounter.builder("coindesk.currency.cache.requests", currencyDictionary,
+                            dictionary -> dictionary.getStats().getMisses())
+                    .tag("result", "miss")
+                    .description("幣別字典查詢次數")
+                    .register(registry);
+            FunctionCounter.builder("coindesk.currency.cache.evictions", currencyDictionary,
+                            dictionary -> dictionary.getStats().getEvictions())
+                    .description("因容量上限淘汰的幣別筆數")
+                    .register(registry);
+            Gauge.builder("coindesk.currency.cache.size", currencyDictionary,
+                            dictionary -> dictionary.getStats().getSize())
+                    .description("幣別字典快取筆數")
+                    .register(registry);
+        };
+    }
+}
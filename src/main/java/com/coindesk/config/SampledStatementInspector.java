@@ -0,0 +1,32 @@
+package com.coindesk.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 依比例取樣記錄 Hibernate 執行的 SQL，取代每次查詢都輸出的 show-sql
+ */
+public class SampledStatementInspector implements StatementInspector {
+
+    private static final Logger log = LoggerFactory.getLogger(SampledStatementInspector.class);
+
+    private final double sampleRate;
+
+    /**
+     * @param sampleRate 記錄的比例，介於 0 與 1 之間
+     */
+    public SampledStatementInspector(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            log.info("SQL 取樣: {}", sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,52 @@
+package com.coindesk.config;
+
+import com.coindesk.util.VirtualThreads;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * virtual-threads 設定檔：Tomcat 以每個請求一條虛擬執行緒處理，
+ * 請求內的資料庫存取阻塞時只會卸載虛擬執行緒，不佔用平台執行緒
+ *
+ * 需以 JDK 21 以上執行；不支援時記錄警告並維持 Tomcat 預設執行緒池
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfiguration.class);
+
+    // 不支援虛擬執行緒時為 null
+    private final ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("tomcat-vt-");
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            if (executor == null) {
+                log.warn("執行環境 (Java {}) 不支援虛擬執行緒，維持 Tomcat 預設執行緒池",
+                        System.getProperty("java.version"));
+                return;
+            }
+            protocolHandler.setExecutor(executor);
+            log.info("Tomcat 請求改以虛擬執行緒處理");
+        };
+    }
+
+    /**
+     * Tomcat 只會關閉自行建立的執行緒池，外部提供的執行器於此關閉
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
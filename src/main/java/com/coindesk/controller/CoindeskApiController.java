@@ -1,37 +1,141 @@
 package com.coindesk.controller;
 
 import com.coindesk.dto.ApiResponse;
-import com.coindesk.dto.CustomCurrencyResponse;
+import com.coindesk.dto.BulkIngestResult;
+import com.coindesk.dto.IngestAck;
+import com.coindesk.dto.IngestQueueStatus;
+import com.coindesk.dto.IngestStatsResponse;
 import com.coindesk.dto.coindesk.CoindeskResponse;
+import com.coindesk.service.AsyncIngestService;
+import com.coindesk.service.BulkIngestService;
 import com.coindesk.service.CoindeskApiService;
+import com.coindesk.snapshot.TransformedView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
 
 @RestController
 @RequestMapping("/api/coindesk")
 public class CoindeskApiController {
 
     private final CoindeskApiService coindeskApiService;
+    private final BulkIngestService bulkIngestService;
+    private final AsyncIngestService asyncIngestService;
+    private final HttpCacheSupport httpCacheSupport;
+    private final ObjectMapper objectMapper;
+    // 轉換視圖的預先序列化結果，視圖更換時才重新序列化
+    private final AtomicReference<SerializedView> serializedView = new AtomicReference<>();
 
     @Autowired
-    public CoindeskApiController(CoindeskApiService coindeskApiService) {
+    public CoindeskApiController(
+            CoindeskApiService coindeskApiService,
+            BulkIngestService bulkIngestService,
+            AsyncIngestService asyncIngestService,
+            HttpCacheSupport httpCacheSupport,
+            ObjectMapper objectMapper) {
         this.coindeskApiService = coindeskApiService;
+        this.bulkIngestService = bulkIngestService;
+        this.asyncIngestService = asyncIngestService;
+        this.httpCacheSupport = httpCacheSupport;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * 保存單筆數據；非同步寫入模式下只驗證並排入佇列，回應 202 與受理序號
+     */
     @PostMapping("/input")
-    public ResponseEntity<ApiResponse<Void>> inputCoindeskData(@RequestBody CoindeskResponse inputData) {
+    public ResponseEntity<ApiResponse<IngestAck>> inputCoindeskData(@RequestBody CoindeskResponse inputData) {
+        if (asyncIngestService.isEnabled()) {
+            long sequence = asyncIngestService.submit(inputData);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.<IngestAck>builder()
+                    .returnCode(202)
+                    .returnMsg("Coindesk 數據已排入寫入佇列")
+                    .data(new IngestAck(sequence))
+                    .build());
+        }
         coindeskApiService.saveCoindeskData(inputData);
         return ResponseEntity.ok(ApiResponse.success(null, "Coindesk 數據保存成功"));
     }
 
+    /**
+     * 批次匯入多筆 Coindesk 數據 (JSON 陣列或 NDJSON)，以串流解析並分批提交
+     */
+    @PostMapping(value = "/bulk-input", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<BulkIngestResult>> bulkInputCoindeskData(
+            HttpServletRequest request,
+            @RequestParam(required = false) Integer chunkSize) throws IOException {
+        BulkIngestResult result = bulkIngestService.ingest(request.getInputStream(), chunkSize);
+        return ResponseEntity.ok(ApiResponse.success(result, "Coindesk 數據批次匯入完成"));
+    }
+
+    /**
+     * 數據寫入與去重統計
+     */
+    @GetMapping("/ingest/stats")
+    public ResponseEntity<ApiResponse<IngestStatsResponse>> getIngestStats() {
+        return ResponseEntity.ok(ApiResponse.success(coindeskApiService.getIngestStats(), "取得寫入統計成功"));
+    }
+
+    /**
+     * 非同步寫入佇列深度與提交落後狀態
+     */
+    @GetMapping("/ingest/status")
+    public ResponseEntity<ApiResponse<IngestQueueStatus>> getIngestStatus() {
+        return ResponseEntity.ok(ApiResponse.success(asyncIngestService.getStatus(), "取得寫入佇列狀態成功"));
+    }
+
+    /**
+     * 回傳預先序列化的轉換數據；ETag 由視圖修訂號組成，相符時不序列化直接回應 304
+     */
     @GetMapping("/transform")
-    public ResponseEntity<ApiResponse<CustomCurrencyResponse>> getTransformedCoindeskData() {
-        CustomCurrencyResponse transformedData = coindeskApiService.getTransformedCoindeskData();
-        return ResponseEntity.ok(ApiResponse.success(transformedData, "成功獲取轉換後的幣別資訊"));
+    public ResponseEntity<byte[]> getTransformedCoindeskData(WebRequest request) throws JsonProcessingException {
+        TransformedView view = coindeskApiService.getTransformedView();
+        String etag = httpCacheSupport.etag("transform", Long.toString(view.getRevision()));
+        ResponseEntity<byte[]> notModified = httpCacheSupport.checkNotModified(request, etag);
+        if (notModified != null) {
+            return notModified;
+        }
+        return httpCacheSupport.ok(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(serialize(view).body);
+    }
+
+    private SerializedView serialize(TransformedView view) throws JsonProcessingException {
+        SerializedView serialized = serializedView.get();
+        if (serialized != null && serialized.view == view) {
+            return serialized;
+        }
+        byte[] body = objectMapper.writeValueAsBytes(
+                ApiResponse.success(view.getResponse(), "成功獲取轉換後的幣別資訊"));
+        serialized = new SerializedView(view, body);
+        serializedView.set(serialized);
+        return serialized;
+    }
+
+    /**
+     * 序列化後的轉換視圖
+     */
+    private static final class SerializedView {
+        private final TransformedView view;
+        private final byte[] body;
+
+        private SerializedView(TransformedView view, byte[] body) {
+            this.view = view;
+            this.body = body;
+        }
     }
-} 
\ No newline at end of file
+}
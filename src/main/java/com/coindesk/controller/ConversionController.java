@@ -0,0 +1,47 @@
+package com.coindesk.controller;
+
+import com.coindesk.dto.ApiResponse;
+import com.coindesk.dto.ConversionRequest;
+import com.coindesk.dto.ConversionResult;
+import com.coindesk.service.ConversionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/convert")
+public class ConversionController {
+
+    private final ConversionService conversionService;
+
+    @Autowired
+    public ConversionController(ConversionService conversionService) {
+        this.conversionService = conversionService;
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<ConversionResult>> convert(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(required = false) Double amount) {
+        ConversionResult result = conversionService.convert(from, to, amount);
+        return ResponseEntity.ok(ApiResponse.success(result, "幣別換算成功"));
+    }
+
+    /**
+     * 批次換算，所有項目使用同一份匯率；無法換算的項目以 error 說明
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<ConversionResult>>> convertBatch(
+            @RequestBody List<ConversionRequest> requests) {
+        List<ConversionResult> results = conversionService.convertBatch(requests);
+        return ResponseEntity.ok(ApiResponse.success(results, "幣別批次換算完成"));
+    }
+}
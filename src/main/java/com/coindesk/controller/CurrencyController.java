@@ -1,12 +1,14 @@
 package com.coindesk.controller;
 
 import com.coindesk.dto.ApiResponse;
+import com.coindesk.dto.CurrencyCacheStatsResponse;
 import com.coindesk.dto.CurrencyDto;
 import com.coindesk.service.CurrencyService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,22 +17,46 @@ import java.util.List;
 public class CurrencyController {
 
     private final CurrencyService currencyService;
+    private final HttpCacheSupport httpCacheSupport;
 
     @Autowired
-    public CurrencyController(CurrencyService currencyService) {
+    public CurrencyController(CurrencyService currencyService, HttpCacheSupport httpCacheSupport) {
         this.currencyService = currencyService;
+        this.httpCacheSupport = httpCacheSupport;
     }
 
+    /**
+     * 取得所有幣別；ETag 由幣別字典與匯率快照版本組成，相符時不查詢直接回應 304
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<CurrencyDto>>> getAllCurrencies() {
+    public ResponseEntity<ApiResponse<List<CurrencyDto>>> getAllCurrencies(WebRequest request) {
+        // 先取版本再取數據，數據較版本新時只會讓下次請求多取一次，不會回應過期數據
+        String etag = httpCacheSupport.etag("currencies", currencyService.getDataVersion());
+        ResponseEntity<ApiResponse<List<CurrencyDto>>> notModified = httpCacheSupport.checkNotModified(request, etag);
+        if (notModified != null) {
+            return notModified;
+        }
         List<CurrencyDto> currencies = currencyService.getAllCurrencies();
-        return ResponseEntity.ok(ApiResponse.success(currencies, "取得所有幣別資訊成功"));
+        return httpCacheSupport.ok(etag).body(ApiResponse.success(currencies, "取得所有幣別資訊成功"));
+    }
+
+    /**
+     * 幣別字典快取統計
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ApiResponse<CurrencyCacheStatsResponse>> getCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(currencyService.getCacheStats(), "取得幣別快取統計成功"));
     }
 
     @GetMapping("/{code}")
-    public ResponseEntity<ApiResponse<CurrencyDto>> getCurrencyByCode(@PathVariable String code) {
+    public ResponseEntity<ApiResponse<CurrencyDto>> getCurrencyByCode(@PathVariable String code, WebRequest request) {
+        String etag = httpCacheSupport.etag("currency", currencyService.getDataVersion());
+        ResponseEntity<ApiResponse<CurrencyDto>> notModified = httpCacheSupport.checkNotModified(request, etag);
+        if (notModified != null) {
+            return notModified;
+        }
         CurrencyDto currency = currencyService.getCurrencyByCode(code);
-        return ResponseEntity.ok(ApiResponse.success(currency, "取得幣別資訊成功"));
+        return httpCacheSupport.ok(etag).body(ApiResponse.success(currency, "取得幣別資訊成功"));
     }
 
     @PostMapping
@@ -0,0 +1,74 @@
+package com.coindesk.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 讀取端點的 HTTP 快取輔助
+ *
+ * ETag 由數據版本號組成 (不需序列化或計算雜湊)，可在呼叫服務前先比對 If-None-Match；
+ * 版本號只在行程內遞增，因此 ETag 另帶啟動識別碼，重新啟動後不會誤判為未變更。
+ * Cache-Control 的 max-age 預設為上游輪詢間隔
+ */
+@Component
+public class HttpCacheSupport {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final CacheControl cacheControl;
+
+    @Autowired
+    public HttpCacheSupport(
+            @Value("${coindesk.http-cache.max-age-ms:${coindesk.poller.interval-ms:60000}}") long maxAgeMs) {
+        this.cacheControl = CacheControl.maxAge(maxAgeMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 組成強 ETag
+     * @param resource 資源種類
+     * @param version 數據版本
+     */
+    public String etag(String resource, String version) {
+        return "\"" + resource + "-" + epoch + "-" + version + "\"";
+    }
+
+    /**
+     * 比對請求的 If-None-Match (弱比較，支援多個值與 *)
+     * @return 相符時的 304 回應，否則為 null
+     */
+    public <T> ResponseEntity<T> checkNotModified(WebRequest request, String etag) {
+        String[] values = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (values == null) {
+            return null;
+        }
+        for (String value : values) {
+            for (String candidate : value.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if ("*".equals(tag) || etag.equals(tag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                            .eTag(etag)
+                            .cacheControl(cacheControl)
+                            .build();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return 帶有 ETag 與 Cache-Control 的 200 回應
+     */
+    public ResponseEntity.BodyBuilder ok(String etag) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl);
+    }
+}
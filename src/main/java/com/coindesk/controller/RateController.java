@@ -0,0 +1,59 @@
+package com.coindesk.controller;
+
+import com.coindesk.dto.ApiResponse;
+import com.coindesk.dto.RateCandlesResponse;
+import com.coindesk.dto.RateHistoryResponse;
+import com.coindesk.dto.RateStatsResponse;
+import com.coindesk.service.RateHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/rates")
+public class RateController {
+
+    private final RateHistoryService rateHistoryService;
+
+    @Autowired
+    public RateController(RateHistoryService rateHistoryService) {
+        this.rateHistoryService = rateHistoryService;
+    }
+
+    @GetMapping("/{code}/history")
+    public ResponseEntity<ApiResponse<RateHistoryResponse>> getRateHistory(
+            @PathVariable String code,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String step,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        RateHistoryResponse history = rateHistoryService.getHistory(code, from, to, step, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success(history, "取得匯率歷史成功"));
+    }
+
+    @GetMapping("/{code}/stats")
+    public ResponseEntity<ApiResponse<RateStatsResponse>> getRateStats(
+            @PathVariable String code,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        RateStatsResponse stats = rateHistoryService.getStats(code, from, to);
+        return ResponseEntity.ok(ApiResponse.success(stats, "取得匯率統計成功"));
+    }
+
+    @GetMapping("/{code}/candles")
+    public ResponseEntity<ApiResponse<RateCandlesResponse>> getRateCandles(
+            @PathVariable String code,
+            @RequestParam(defaultValue = "1m") String interval,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        RateCandlesResponse candles = rateHistoryService.getCandles(code, interval, from, to, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success(candles, "取得匯率 K 線成功"));
+    }
+}
@@ -0,0 +1,50 @@
+package com.coindesk.controller;
+
+import com.coindesk.dto.ApiResponse;
+import com.coindesk.dto.StreamStatsResponse;
+import com.coindesk.stream.RateStreamBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/stream")
+public class StreamController {
+
+    private final RateStreamBroadcaster rateStreamBroadcaster;
+
+    @Autowired
+    public StreamController(RateStreamBroadcaster rateStreamBroadcaster) {
+        this.rateStreamBroadcaster = rateStreamBroadcaster;
+    }
+
+    /**
+     * 訂閱匯率推播 (SSE)，codes 以逗號分隔，省略時訂閱全部幣別
+     */
+    @GetMapping(value = "/rates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRates(@RequestParam(required = false) String codes) {
+        Set<String> filter = new LinkedHashSet<>();
+        if (codes != null) {
+            for (String code : codes.split(",")) {
+                if (!code.trim().isEmpty()) {
+                    filter.add(code.trim().toUpperCase(Locale.ROOT));
+                }
+            }
+        }
+        return rateStreamBroadcaster.subscribe(filter);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<StreamStatsResponse>> getStreamStats() {
+        return ResponseEntity.ok(ApiResponse.success(rateStreamBroadcaster.getStats(), "取得推播統計成功"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.coindesk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批次匯入 Coindesk 數據的結果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIngestResult {
+
+    /**
+     * 讀取到的數據筆數
+     */
+    private long totalRecords;
+
+    /**
+     * 成功寫入的筆數
+     */
+    private long succeededRecords;
+
+    /**
+     * 失敗筆數 (格式錯誤、驗證失敗或所屬批次寫入失敗)
+     */
+    private long failedRecords;
+
+    /**
+     * 總耗時 (毫秒)
+     */
+    private long elapsedMillis;
+
+    /**
+     * 每秒成功寫入筆數
+     */
+    private double recordsPerSecond;
+
+    /**
+     * 中止匯入的錯誤訊息 (例如 JSON 語法錯誤)，正常完成時為 null
+     */
+    private String errorMessage;
+
+    /**
+     * 各批次的寫入結果
+     */
+    private List<ChunkResult> chunks = new ArrayList<>();
+
+    /**
+     * 單一批次的寫入結果
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChunkResult {
+        private int index;
+        private int records;
+        private int failedRecords;
+        private long elapsedMillis;
+        private double recordsPerSecond;
+        private String errorMessage;
+    }
+}
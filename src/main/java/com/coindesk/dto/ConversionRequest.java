@@ -0,0 +1,29 @@
+package com.coindesk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批次換算中的單筆請求
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversionRequest {
+
+    /**
+     * 來源幣別代碼
+     */
+    private String from;
+
+    /**
+     * 目標幣別代碼
+     */
+    private String to;
+
+    /**
+     * 來源幣別金額，未提供時為 1
+     */
+    private Double amount;
+}
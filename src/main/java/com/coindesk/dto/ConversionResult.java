@@ -0,0 +1,45 @@
+package com.coindesk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 幣別換算結果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversionResult {
+
+    private String from;
+
+    private String to;
+
+    private double amount;
+
+    /**
+     * 1 單位來源幣別可兌換的目標幣別數量，無法換算時為 null
+     */
+    private Double rate;
+
+    /**
+     * 換算後的目標幣別金額，無法換算時為 null
+     */
+    private Double result;
+
+    /**
+     * 使用的匯率快照版本號
+     */
+    private long snapshotVersion;
+
+    /**
+     * 使用的匯率更新時間
+     */
+    private String updateTime;
+
+    /**
+     * 無法換算的原因 (批次換算時使用)，成功時為 null
+     */
+    private String error;
+}
@@ -0,0 +1,59 @@
+package com.coindesk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 幣別字典快取統計 (自應用程序啟動起累計)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurrencyCacheStatsResponse {
+
+    /**
+     * 目前快取的幣別數 (含已確認不存在的代碼)
+     */
+    private int size;
+
+    /**
+     * 快取容量上限
+     */
+    private int maxSize;
+
+    /**
+     * 命中次數 (以幣別計)
+     */
+    private long hits;
+
+    /**
+     * 未命中次數 (以幣別計)
+     */
+    private long misses;
+
+    /**
+     * 查詢資料庫的次數
+     */
+    private long loads;
+
+    /**
+     * 超過容量而移除的筆數
+     */
+    private long evictions;
+
+    /**
+     * 超過存活時間而移除的筆數
+     */
+    private long expirations;
+
+    /**
+     * 因幣別異動而失效的筆數
+     */
+    private long invalidations;
+
+    /**
+     * 字典版本，每次失效遞增
+     */
+    private long version;
+}
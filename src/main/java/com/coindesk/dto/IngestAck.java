@@ -0,0 +1,19 @@
+package com.coindesk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 非同步寫入的受理回應
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestAck {
+
+    /**
+     * 受理序號，可與寫入狀態的 lastCommittedSequence 比較以確認是否已寫入
+     */
+    private long sequence;
+}
@@ -0,0 +1,64 @@
+package com.coindesk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 非同步寫入佇列狀態
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestQueueStatus {
+
+    /**
+     * 寫入模式: sync 或 async
+     */
+    private String mode;
+
+    /**
+     * 佇列容量
+     */
+    private int capacity;
+
+    /**
+     * 佇列中等待寫入的筆數
+     */
+    private int queueDepth;
+
+    /**
+     * 最後受理的序號
+     */
+    private long lastAcceptedSequence;
+
+    /**
+     * 最後處理完成 (已提交或確定失敗) 的序號
+     */
+    private long lastCommittedSequence;
+
+    /**
+     * 已受理但尚未處理完成的筆數
+     */
+    private long commitLagRecords;
+
+    /**
+     * 最舊一筆未處理完成數據的等待時間 (毫秒)
+     */
+    private long commitLagMillis;
+
+    /**
+     * 佇列已滿而拒絕的筆數
+     */
+    private long rejected;
+
+    /**
+     * 寫入失敗的筆數
+     */
+    private long failed;
+
+    /**
+     * 已提交的批次數
+     */
+    private long batches;
+}
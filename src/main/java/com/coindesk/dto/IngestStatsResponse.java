@@ -0,0 +1,39 @@
+package com.coindesk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 數據寫入與去重統計 (自應用程序啟動起累計)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestStatsResponse {
+
+    /**
+     * 收到的數據筆數
+     */
+    private long received;
+
+    /**
+     * 與上次寫入完全相同而略過的筆數
+     */
+    private long duplicatesSkipped;
+
+    /**
+     * 實際寫入的數據筆數
+     */
+    private long recordsWritten;
+
+    /**
+     * 實際寫入的匯率筆數
+     */
+    private long ratesWritten;
+
+    /**
+     * 匯率未變動而略過的筆數
+     */
+    private long ratesSkipped;
+}
@@ -0,0 +1,62 @@
+package com.coindesk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 幣別匯率 K 線 (OHLC)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateCandlesResponse {
+
+    /**
+     * 幣別代碼
+     */
+    private String code;
+
+    /**
+     * 查詢起始時間 (含)
+     */
+    private Instant from;
+
+    /**
+     * 查詢結束時間 (不含)
+     */
+    private Instant to;
+
+    /**
+     * K 線週期 (秒)
+     */
+    private Long intervalSeconds;
+
+    /**
+     * 依時間排序的 K 線，最後一根可能是尚未結束的區間
+     */
+    private List<Candle> candles;
+
+    /**
+     * 下一頁的游標，沒有更多資料時為 null
+     */
+    private String nextCursor;
+
+    /**
+     * 單一 K 線；time 為區間起點，count 為區間內的匯率筆數
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Candle {
+        private Instant time;
+        private Double open;
+        private Double high;
+        private Double low;
+        private Double close;
+        private Long count;
+    }
+}
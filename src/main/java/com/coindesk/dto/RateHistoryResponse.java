@@ -0,0 +1,58 @@
+package com.coindesk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 幣別匯率歷史時間序列
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateHistoryResponse {
+
+    /**
+     * 幣別代碼
+     */
+    private String code;
+
+    /**
+     * 查詢起始時間 (含)
+     */
+    private Instant from;
+
+    /**
+     * 查詢結束時間 (不含)
+     */
+    private Instant to;
+
+    /**
+     * 取樣間隔 (秒)，未取樣時為 null
+     */
+    private Long stepSeconds;
+
+    /**
+     * 時間序列資料點
+     */
+    private List<Point> points;
+
+    /**
+     * 下一頁的游標，沒有更多資料時為 null
+     */
+    private String nextCursor;
+
+    /**
+     * 單一資料點；取樣時 time 為區間起點，rate 為區間內最後一筆匯率
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+        private Instant time;
+        private Double rate;
+    }
+}
@@ -0,0 +1,61 @@
+package com.coindesk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * 幣別匯率區間統計
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateStatsResponse {
+
+    /**
+     * 幣別代碼
+     */
+    private String code;
+
+    /**
+     * 統計起始時間 (含)
+     */
+    private Instant from;
+
+    /**
+     * 統計結束時間 (不含)
+     */
+    private Instant to;
+
+    /**
+     * 資料點數
+     */
+    private long count;
+
+    /**
+     * 區間內第一筆匯率，沒有資料時為 null
+     */
+    private Double first;
+
+    /**
+     * 區間內最後一筆匯率
+     */
+    private Double last;
+
+    /**
+     * 最低匯率
+     */
+    private Double min;
+
+    /**
+     * 最高匯率
+     */
+    private Double max;
+
+    /**
+     * 平均匯率
+     */
+    private Double average;
+}
@@ -0,0 +1,31 @@
+package com.coindesk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 匯率推播事件內容
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateStreamEvent {
+
+    /**
+     * 快照版本號
+     */
+    private long version;
+
+    /**
+     * 數據更新時間 (ISO 格式)
+     */
+    private String updatedIso;
+
+    /**
+     * 幣別匯率 (依訂閱條件篩選)
+     */
+    private Map<String, Double> rates;
+}
@@ -0,0 +1,39 @@
+package com.coindesk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 匯率推播統計 (自應用程序啟動起累計)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamStatsResponse {
+
+    /**
+     * 目前訂閱者數量
+     */
+    private int subscribers;
+
+    /**
+     * 廣播的快照數
+     */
+    private long broadcasts;
+
+    /**
+     * 送出的訊息數
+     */
+    private long messagesSent;
+
+    /**
+     * 因訂閱者處理過慢而捨棄的訊息數
+     */
+    private long messagesDropped;
+
+    /**
+     * 送出失敗而移除的訂閱者數
+     */
+    private long sendFailures;
+}
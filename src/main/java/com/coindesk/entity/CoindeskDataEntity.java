@@ -5,17 +5,25 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "COINDESK_DATA")
+@Table(name = "COINDESK_DATA", indexes = {
+        // 與 findLatest 的排序方向一致，讓最新一筆可直接由索引取得
+        @Index(name = "IDX_COINDESK_DATA_CREATE_TIME", columnList = "CREATE_TIME DESC, ID DESC"),
+        // 依資料更新時間查詢與排序
+        @Index(name = "IDX_COINDESK_DATA_UPDATED_AT", columnList = "UPDATED_AT")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class CoindeskDataEntity {
 
+    // 使用序列並預先配置區段，讓 Hibernate 可以批次寫入
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "coindeskDataSeq")
+    @SequenceGenerator(name = "coindeskDataSeq", sequenceName = "COINDESK_DATA_SEQ", allocationSize = 50)
     @Column(name = "ID")
     private Long id;
 
@@ -25,6 +33,12 @@ public class CoindeskDataEntity {
     @Column(name = "UPDATED_ISO", nullable = false)
     private String updatedIso;
     
+    /**
+     * 由 UPDATED_ISO 解析出的更新時間，供時間查詢與排序
+     */
+    @Column(name = "UPDATED_AT", nullable = false)
+    private Instant updatedAt;
+    
     @Column(name = "UPDATED_UK")
     private String updatedUk;
     
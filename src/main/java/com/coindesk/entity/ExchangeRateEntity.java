@@ -5,16 +5,21 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
+import java.time.Instant;
 
 @Entity
-@Table(name = "EXCHANGE_RATE")
+@Table(name = "EXCHANGE_RATE", indexes = {
+        @Index(name = "IDX_EXCHANGE_RATE_CODE_TIME", columnList = "CURRENCY_CODE, RATE_TIME, ID")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ExchangeRateEntity {
 
+    // 使用序列並預先配置區段，讓 Hibernate 可以批次寫入
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exchangeRateSeq")
+    @SequenceGenerator(name = "exchangeRateSeq", sequenceName = "EXCHANGE_RATE_SEQ", allocationSize = 100)
     @Column(name = "ID")
     private Long id;
     
@@ -26,6 +31,12 @@ public class ExchangeRateEntity {
     @JoinColumn(name = "CURRENCY_CODE", nullable = false)
     private CurrencyEntity currency;
     
+    /**
+     * 匯率時間 (同 CoindeskData 的 UPDATED_AT)，冗餘存放以建立幣別與時間的複合索引
+     */
+    @Column(name = "RATE_TIME", nullable = false)
+    private Instant rateTime;
+    
     @Column(name = "SYMBOL")
     private String symbol;
     
@@ -0,0 +1,34 @@
+package com.coindesk.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * 各幣別最新匯率的指標
+ * 寫入時只保存有變動的匯率，冷啟動以此取得每個幣別目前的匯率
+ */
+@Entity
+@Table(name = "LATEST_RATE")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatestRateEntity {
+
+    @Id
+    @Column(name = "CURRENCY_CODE", length = 10)
+    private String currencyCode;
+
+    /**
+     * 指向匯率的時間，較舊的數據 (例如回補歷史) 不會覆蓋較新的指標
+     */
+    @Column(name = "RATE_TIME", nullable = false)
+    private Instant rateTime;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "EXCHANGE_RATE_ID", nullable = false)
+    private ExchangeRateEntity exchangeRate;
+}
@@ -0,0 +1,29 @@
+package com.coindesk.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * 快照日誌投影至資料庫的進度
+ * 與投影的數據在同一交易中更新，啟動時由此之後的日誌紀錄重新投影
+ */
+@Entity
+@Table(name = "PROJECTION_STATE")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectionStateEntity {
+
+    @Id
+    @Column(name = "NAME", length = 50)
+    private String name;
+
+    /**
+     * 已投影的最後一筆日誌序號
+     */
+    @Column(name = "LAST_SEQUENCE", nullable = false)
+    private Long lastSequence;
+}
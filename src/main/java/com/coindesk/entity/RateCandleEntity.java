@@ -0,0 +1,62 @@
+package com.coindesk.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * 匯率 K 線 (OHLC)，每個幣別每個週期區間一筆
+ * 保存開盤與收盤的時間，合併不同批次的資料時依時間決定開盤與收盤匯率
+ */
+@Entity
+@Table(name = "RATE_CANDLE", indexes = {
+        @Index(name = "IDX_RATE_CANDLE_INTERVAL_BUCKET", columnList = "INTERVAL_SECONDS, BUCKET_START")
+})
+@IdClass(RateCandleId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateCandleEntity {
+
+    @Id
+    @Column(name = "CURRENCY_CODE", length = 10)
+    private String currencyCode;
+
+    @Id
+    @Column(name = "INTERVAL_SECONDS")
+    private Integer intervalSeconds;
+
+    /**
+     * 區間起點 (含)，區間為 [BUCKET_START, BUCKET_START + INTERVAL_SECONDS)
+     */
+    @Id
+    @Column(name = "BUCKET_START")
+    private Instant bucketStart;
+
+    @Column(name = "OPEN_RATE", nullable = false)
+    private Double openRate;
+
+    @Column(name = "HIGH_RATE", nullable = false)
+    private Double highRate;
+
+    @Column(name = "LOW_RATE", nullable = false)
+    private Double lowRate;
+
+    @Column(name = "CLOSE_RATE", nullable = false)
+    private Double closeRate;
+
+    @Column(name = "OPEN_TIME", nullable = false)
+    private Instant openTime;
+
+    @Column(name = "CLOSE_TIME", nullable = false)
+    private Instant closeTime;
+
+    /**
+     * 彙總的原始匯率筆數
+     */
+    @Column(name = "SAMPLE_COUNT", nullable = false)
+    private Long sampleCount;
+}
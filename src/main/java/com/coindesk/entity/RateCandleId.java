@@ -0,0 +1,25 @@
+package com.coindesk.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * RateCandleEntity 的複合主鍵 (幣別, 週期秒數, 區間起點)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateCandleId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String currencyCode;
+
+    private Integer intervalSeconds;
+
+    private Instant bucketStart;
+}
@@ -1,6 +1,7 @@
 package com.coindesk.exception;
 
 import com.coindesk.dto.ApiResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -35,6 +36,17 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 .body(ApiResponse.error(400, ex.getMessage()));
     }
     
+    /**
+     * 處理寫入佇列已滿，回應 429 並建議稍後重試
+     */
+    @ExceptionHandler(IngestQueueFullException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIngestQueueFullException(IngestQueueFullException ex) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.error(429, ex.getMessage()));
+    }
+    
     /**
      * 處理所有未知異常
      */
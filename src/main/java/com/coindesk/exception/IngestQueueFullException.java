@@ -0,0 +1,11 @@
+package com.coindesk.exception;
+
+/**
+ * 非同步寫入佇列已滿，請求端應稍後重試
+ */
+public class IngestQueueFullException extends RuntimeException {
+
+    public IngestQueueFullException(String message) {
+        super(message);
+    }
+}
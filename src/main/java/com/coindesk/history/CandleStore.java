@@ -0,0 +1,301 @@
+package com.coindesk.history;
+
+import com.coindesk.entity.RateCandleEntity;
+import com.coindesk.entity.RateCandleId;
+import com.coindesk.repository.RateCandleRepository;
+import com.coindesk.snapshot.CoindeskSnapshot;
+import com.coindesk.snapshot.RatesCommittedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 匯率 K 線 (OHLC) 的增量維護
+ *
+ * 每次提交的匯率依序併入各週期目前的區間 (開放中的 K 線只存在記憶體)；
+ * 數據進入新的區間時，前一個區間即結束並寫入 RATE_CANDLE。
+ * 早於目前區間的數據 (例如回補歷史) 直接併入資料庫中已結束的 K 線。
+ * 保存開盤與收盤的時間，合併結果與到達順序無關。
+ * 寫入失敗的 K 線保留在記憶體，於下次寫入時重試；歷史壓縮只刪除早於尚未寫入區間的原始匯率
+ */
+@Component
+public class CandleStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CandleStore.class);
+    public static final int MINUTE_SECONDS = 60;
+    public static final int FIVE_MINUTES_SECONDS = 300;
+    public static final int HOUR_SECONDS = 3600;
+    // 維護的週期，開放中的 K 線陣列依此順序存放
+    static final int[] INTERVALS = {MINUTE_SECONDS, FIVE_MINUTES_SECONDS, HOUR_SECONDS};
+
+    private final RateCandleRepository rateCandleRepository;
+    private final TransactionTemplate transactionTemplate;
+    // 幣別 -> 各週期開放中的 K 線
+    private final Map<String, RateCandleEntity[]> openCandles = new ConcurrentHashMap<>();
+    // 每個幣別一把鎖，序列化同一幣別的更新與讀取
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    // 寫入失敗待重試的 K 線，只在 persist 中修改
+    private final Map<RateCandleId, RateCandleEntity> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CandleStore(RateCandleRepository rateCandleRepository, PlatformTransactionManager transactionManager) {
+        this.rateCandleRepository = rateCandleRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // 事件在寫入交易提交後 (afterCommit) 發出，需開啟新的交易才能寫入
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * @param intervalSeconds 週期 (秒)
+     * @return 是否為維護中的週期
+     */
+    public static boolean isSupportedInterval(long intervalSeconds) {
+        for (int interval : INTERVALS) {
+            if (interval == intervalSeconds) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 數據提交後併入 K 線，並寫入因此結束的區間
+     */
+    @EventListener
+    public void onRatesCommitted(RatesCommittedEvent event) {
+        List<RateCandleEntity> closed = new ArrayList<>();
+        for (CoindeskSnapshot snapshot : event.getSnapshots()) {
+            if (snapshot.getUpdatedAt() == null) {
+                continue;
+            }
+            for (CoindeskSnapshot.Rate rate : snapshot.getRates().values()) {
+                if (rate.getRateFloat() != null) {
+                    record(rate.getCode(), snapshot.getUpdatedAt(), rate.getRateFloat(), closed);
+                }
+            }
+        }
+        if (!closed.isEmpty() || !pending.isEmpty()) {
+            persist(closed);
+        }
+    }
+
+    /**
+     * 取得幣別目前開放中的 K 線
+     * @param code 幣別代碼
+     * @param intervalSeconds 週期 (秒)
+     * @return K 線的副本，尚無數據時回傳 null
+     */
+    public RateCandleEntity getOpenCandle(String code, int intervalSeconds) {
+        RateCandleEntity[] candles = openCandles.get(code);
+        if (candles == null) {
+            return null;
+        }
+        synchronized (lockFor(code)) {
+            for (int i = 0; i < INTERVALS.length; i++) {
+                if (INTERVALS[i] == intervalSeconds) {
+                    return candles[i] != null ? copy(candles[i]) : null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 取得幣別尚未寫入資料庫的最早區間起點 (開放中或待重試的 K 線)；
+     * 早於此時間的原始匯率已併入資料庫中的 K 線或從未經過此處，歷史壓縮可安全刪除
+     * @param code 幣別代碼
+     * @return 區間起點，沒有尚未寫入的 K 線時回傳 null
+     */
+    public Instant getUnpersistedFrom(String code) {
+        Instant from = null;
+        RateCandleEntity[] candles = openCandles.get(code);
+        if (candles != null) {
+            synchronized (lockFor(code)) {
+                for (RateCandleEntity candle : candles) {
+                    from = earlier(from, candle);
+                }
+            }
+        }
+        for (RateCandleEntity candle : pending.values()) {
+            if (candle.getCurrencyCode().equals(code)) {
+                from = earlier(from, candle);
+            }
+        }
+        return from;
+    }
+
+    /**
+     * 關閉時寫入開放中的 K 線；重新啟動後同一區間的新數據於區間結束時再併入
+     */
+    @PreDestroy
+    public void flush() {
+        List<RateCandleEntity> closing = new ArrayList<>();
+        for (String code : openCandles.keySet()) {
+            synchronized (lockFor(code)) {
+                RateCandleEntity[] candles = openCandles.remove(code);
+                if (candles == null) {
+                    continue;
+                }
+                for (RateCandleEntity candle : candles) {
+                    if (candle != null) {
+                        closing.add(candle);
+                    }
+                }
+            }
+        }
+        if (!closing.isEmpty() || !pending.isEmpty()) {
+            persist(closing);
+        }
+    }
+
+    private void record(String code, Instant time, double rate, List<RateCandleEntity> closed) {
+        synchronized (lockFor(code)) {
+            RateCandleEntity[] candles = openCandles.computeIfAbsent(code, key -> new RateCandleEntity[INTERVALS.length]);
+            for (int i = 0; i < INTERVALS.length; i++) {
+                RateCandleEntity sample = new RateCandleEntity(code, INTERVALS[i], bucketStart(time, INTERVALS[i]),
+                        rate, rate, rate, rate, time, time, 1L);
+                RateCandleEntity current = candles[i];
+                if (current == null || sample.getBucketStart().isAfter(current.getBucketStart())) {
+                    if (current != null) {
+                        closed.add(current);
+                    }
+                    candles[i] = sample;
+                } else if (sample.getBucketStart().equals(current.getBucketStart())) {
+                    merge(current, sample);
+                } else {
+                    // 早於目前區間，併入已結束的 K 線
+                    closed.add(sample);
+                }
+            }
+        }
+    }
+
+    /**
+     * 將 K 線連同先前寫入失敗的 K 線併入資料庫；以同步方法序列化，避免同一區間同時新增
+     * 寫入失敗時保留所有 K 線，於下次寫入時重試；交易中只使用副本，失敗的交易不會改變待重試的 K 線
+     */
+    private synchronized void persist(List<RateCandleEntity> partials) {
+        for (RateCandleEntity partial : partials) {
+            RateCandleEntity current = pending.putIfAbsent(idOf(partial), partial);
+            if (current != null) {
+                merge(current, partial);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<RateCandleEntity>> byInterval = new HashMap<>();
+        for (RateCandleEntity candle : pending.values()) {
+            byInterval.computeIfAbsent(candle.getIntervalSeconds(), key -> new ArrayList<>()).add(copy(candle));
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Map.Entry<Integer, List<RateCandleEntity>> entry : byInterval.entrySet()) {
+                    mergeCandles(entry.getKey(), entry.getValue());
+                }
+            });
+            pending.clear();
+        } catch (RuntimeException e) {
+            log.error("寫入 K 線失敗 ({} 筆)，保留至下次寫入時重試", pending.size(), e);
+        }
+    }
+
+    /**
+     * 合併同一週期的部分 K 線：先在記憶體中依 (幣別, 區間) 合併，再併入資料庫中既有的 K 線或新增
+     */
+    private void mergeCandles(int intervalSeconds, List<RateCandleEntity> partials) {
+        Map<RateCandleId, RateCandleEntity> combined = new LinkedHashMap<>();
+        Set<String> codes = new HashSet<>();
+        Instant from = null;
+        Instant to = null;
+        for (RateCandleEntity partial : partials) {
+            RateCandleEntity current = combined.putIfAbsent(idOf(partial), partial);
+            if (current != null) {
+                merge(current, partial);
+            }
+            codes.add(partial.getCurrencyCode());
+            if (from == null || partial.getBucketStart().isBefore(from)) {
+                from = partial.getBucketStart();
+            }
+            if (to == null || partial.getBucketStart().isAfter(to)) {
+                to = partial.getBucketStart();
+            }
+        }
+
+        Map<RateCandleId, RateCandleEntity> existing = new HashMap<>();
+        for (RateCandleEntity candle : rateCandleRepository.findBuckets(intervalSeconds, codes, from, to)) {
+            existing.put(idOf(candle), candle);
+        }
+        List<RateCandleEntity> created = new ArrayList<>();
+        for (Map.Entry<RateCandleId, RateCandleEntity> entry : combined.entrySet()) {
+            RateCandleEntity current = existing.get(entry.getKey());
+            if (current == null) {
+                created.add(entry.getValue());
+            } else {
+                merge(current, entry.getValue());
+            }
+        }
+        rateCandleRepository.persistAll(created);
+    }
+
+    /**
+     * 將 other 併入 target：開盤取時間較早者、收盤取時間較晚者，與合併順序無關
+     */
+    public static void merge(RateCandleEntity target, RateCandleEntity other) {
+        if (other.getOpenTime().isBefore(target.getOpenTime())) {
+            target.setOpenRate(other.getOpenRate());
+            target.setOpenTime(other.getOpenTime());
+        }
+        if (!other.getCloseTime().isBefore(target.getCloseTime())) {
+            target.setCloseRate(other.getCloseRate());
+            target.setCloseTime(other.getCloseTime());
+        }
+        target.setHighRate(Math.max(target.getHighRate(), other.getHighRate()));
+        target.setLowRate(Math.min(target.getLowRate(), other.getLowRate()));
+        target.setSampleCount(target.getSampleCount() + other.getSampleCount());
+    }
+
+    /**
+     * @return 時間所在區間的起點
+     */
+    public static Instant bucketStart(Instant time, int intervalSeconds) {
+        return Instant.ofEpochSecond(Math.floorDiv(time.getEpochSecond(), intervalSeconds) * intervalSeconds);
+    }
+
+    private static RateCandleEntity copy(RateCandleEntity candle) {
+        return new RateCandleEntity(candle.getCurrencyCode(), candle.getIntervalSeconds(), candle.getBucketStart(),
+                candle.getOpenRate(), candle.getHighRate(), candle.getLowRate(), candle.getCloseRate(),
+                candle.getOpenTime(), candle.getCloseTime(), candle.getSampleCount());
+    }
+
+    private static Instant earlier(Instant from, RateCandleEntity candle) {
+        if (candle == null || (from != null && !candle.getBucketStart().isBefore(from))) {
+            return from;
+        }
+        return candle.getBucketStart();
+    }
+
+    static RateCandleId idOf(RateCandleEntity candle) {
+        return new RateCandleId(candle.getCurrencyCode(), candle.getIntervalSeconds(), candle.getBucketStart());
+    }
+
+    private Object lockFor(String code) {
+        return locks.computeIfAbsent(code, key -> new Object());
+    }
+}
@@ -0,0 +1,39 @@
+package com.coindesk.history;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 單次歷史壓縮的結果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactionResult {
+
+    /**
+     * 刪除的原始匯率筆數
+     */
+    private long ratesDeleted;
+
+    /**
+     * 刪除前補上 K 線的原始匯率筆數 (所屬區間在資料庫中尚無 K 線)
+     */
+    private long ratesRolledUp;
+
+    /**
+     * 刪除的 COINDESK_DATA 筆數
+     */
+    private long recordsDeleted;
+
+    /**
+     * 刪除的 1 分鐘與 5 分鐘 K 線筆數
+     */
+    private long candlesDeleted;
+
+    /**
+     * 耗時 (毫秒)
+     */
+    private long durationMs;
+}
@@ -0,0 +1,308 @@
+package com.coindesk.history;
+
+import com.coindesk.entity.CoindeskDataEntity;
+import com.coindesk.entity.RateCandleEntity;
+import com.coindesk.entity.RateCandleId;
+import com.coindesk.repository.CoindeskDataRepository;
+import com.coindesk.repository.ExchangeRateRepository;
+import com.coindesk.repository.RateCandleRepository;
+import com.coindesk.repository.RateSampleView;
+import com.coindesk.util.DateTimeUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 匯率歷史的保留與壓縮
+ *
+ * 依保留期限分為三層：原始匯率、1 分鐘與 5 分鐘 K 線、1 小時 K 線 (永久保存)。
+ * K 線由 CandleStore 在寫入時增量彙總，這裡刪除超過保留期限的原始匯率與較細的 K 線，
+ * 資料量因此與保留期限成正比，而不隨運行時間增長。
+ * 原始匯率只刪除早於 CandleStore 尚未寫入的區間者；區間在資料庫中沒有 K 線時 (增量維護之前寫入的匯率，
+ * 或 K 線未能寫入即中止)，先在同一交易中補上彙總再刪除，歷史不因刪除而遺失。
+ * 原始匯率的保留起點對齊整點，同一小時區間的匯率在同一次壓縮中依時間順序處理。
+ *
+ * 每個批次在獨立的短交易中刪除，不會長時間鎖定資料表；中斷後重新執行會從剩下的資料繼續。
+ * 最新匯率指標引用的匯率與最新一筆數據不刪除，待之後不再被引用時才刪除
+ */
+@Component
+@ConditionalOnProperty(name = "coindesk.compaction.enabled", havingValue = "true", matchIfMissing = true)
+public class HistoryCompactor {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryCompactor.class);
+    // 超過 1 分鐘 K 線保留期限後刪除的週期
+    private static final int[] MINUTE_TIER_INTERVALS = {CandleStore.MINUTE_SECONDS, CandleStore.FIVE_MINUTES_SECONDS};
+    // 單一 SQL 的 IN 參數上限 (PostgreSQL 單一語句最多 32767 個參數)
+    private static final int MAX_IN_PARAMETERS = 1000;
+
+    private final CoindeskDataRepository coindeskDataRepository;
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final RateCandleRepository rateCandleRepository;
+    private final RateHistoryStore rateHistoryStore;
+    private final CandleStore candleStore;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration rawRetention;
+    private final Duration minuteRetention;
+    private final int batchSize;
+    private final int candleBatchSize;
+    private final Counter ratesDeleted;
+    private final Counter recordsDeleted;
+    private final Counter candlesDeleted;
+
+    @Autowired
+    public HistoryCompactor(
+            CoindeskDataRepository coindeskDataRepository,
+            ExchangeRateRepository exchangeRateRepository,
+            RateCandleRepository rateCandleRepository,
+            RateHistoryStore rateHistoryStore,
+            CandleStore candleStore,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${coindesk.compaction.raw-retention:7d}") String rawRetention,
+            @Value("${coindesk.compaction.minute-retention:90d}") String minuteRetention,
+            @Value("${coindesk.compaction.batch-size:50}") int batchSize,
+            @Value("${coindesk.compaction.candle-batch-size:1000}") int candleBatchSize) {
+        this.coindeskDataRepository = coindeskDataRepository;
+        this.exchangeRateRepository = exchangeRateRepository;
+        this.rateCandleRepository = rateCandleRepository;
+        this.rateHistoryStore = rateHistoryStore;
+        this.candleStore = candleStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rawRetention = DateTimeUtils.parseStep(rawRetention);
+        this.minuteRetention = DateTimeUtils.parseStep(minuteRetention);
+        if (this.minuteRetention.compareTo(this.rawRetention) <= 0) {
+            throw new IllegalArgumentException("1 分鐘 K 線的保留期限需長於原始匯率的保留期限");
+        }
+        if (batchSize <= 0 || candleBatchSize <= 0) {
+            throw new IllegalArgumentException("壓縮批次大小需為正數");
+        }
+        this.batchSize = batchSize;
+        this.candleBatchSize = candleBatchSize;
+        this.ratesDeleted = deletedCounter(meterRegistry, "rates");
+        this.recordsDeleted = deletedCounter(meterRegistry, "records");
+        this.candlesDeleted = deletedCounter(meterRegistry, "candles");
+    }
+
+    /**
+     * 定期執行壓縮
+     */
+    @Scheduled(fixedDelayString = "${coindesk.compaction.interval-ms:3600000}",
+            initialDelayString = "${coindesk.compaction.interval-ms:3600000}")
+    public void scheduledCompaction() {
+        try {
+            compact(Instant.now());
+        } catch (RuntimeException e) {
+            log.error("匯率歷史壓縮失敗", e);
+        }
+    }
+
+    /**
+     * 以指定時間為基準執行一次壓縮
+     * @param now 基準時間
+     * @return 壓縮結果
+     */
+    public synchronized CompactionResult compact(Instant now) {
+        long start = System.nanoTime();
+        Instant rawCutoff = now.minus(rawRetention).truncatedTo(ChronoUnit.HOURS);
+        Instant minuteCutoff = now.minus(minuteRetention).truncatedTo(ChronoUnit.HOURS);
+
+        long[] raw = deleteRawRates(rawCutoff, minuteCutoff);
+        long candles = 0;
+        for (int intervalSeconds : MINUTE_TIER_INTERVALS) {
+            candles += deleteCandles(intervalSeconds, minuteCutoff);
+        }
+        if (raw[0] > 0) {
+            rateHistoryStore.evictBefore(rawCutoff);
+        }
+
+        CompactionResult result = new CompactionResult(raw[0], raw[1], raw[2], candles,
+                (System.nanoTime() - start) / 1_000_000);
+        if (raw[0] > 0 || raw[2] > 0 || candles > 0) {
+            log.info("匯率歷史壓縮完成: 刪除原始匯率 {} 筆 (其中補上 K 線 {} 筆)、數據 {} 筆、K 線 {} 筆，耗時 {} ms",
+                    result.getRatesDeleted(), result.getRatesRolledUp(), result.getRecordsDeleted(),
+                    result.getCandlesDeleted(), result.getDurationMs());
+        }
+        return result;
+    }
+
+    /**
+     * 依 (更新時間, ID) 順序分批處理早於保留起點的數據
+     * @return {刪除的匯率筆數, 其中補上 K 線的筆數, 刪除的數據筆數}
+     */
+    private long[] deleteRawRates(Instant cutoff, Instant minuteCutoff) {
+        Long latestId = coindeskDataRepository.findLatest().map(CoindeskDataEntity::getId).orElse(null);
+        // 本次壓縮補上的 K 線，之後批次中同一區間的匯率併入其中
+        Set<RateCandleId> rolledBuckets = new HashSet<>();
+        long rates = 0;
+        long rolledUp = 0;
+        long records = 0;
+        Instant afterTime = Instant.EPOCH;
+        long afterId = -1L;
+        while (true) {
+            List<CoindeskDataEntity> page = coindeskDataRepository.findUpdatedBefore(
+                    cutoff, afterTime, afterId, PageRequest.of(0, batchSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            List<Long> ids = new ArrayList<>(page.size());
+            for (CoindeskDataEntity record : page) {
+                ids.add(record.getId());
+            }
+            long[] counts = transactionTemplate.execute(
+                    status -> deleteRecords(ids, latestId, minuteCutoff, rolledBuckets));
+            rates += counts[0];
+            rolledUp += counts[1];
+            records += counts[2];
+            ratesDeleted.increment(counts[0]);
+            recordsDeleted.increment(counts[2]);
+
+            if (page.size() < batchSize) {
+                break;
+            }
+            CoindeskDataEntity last = page.get(page.size() - 1);
+            afterTime = last.getUpdatedAt();
+            afterId = last.getId();
+        }
+        return new long[] {rates, rolledUp, records};
+    }
+
+    /**
+     * 刪除一批數據中未被引用、且已不在 CandleStore 尚未寫入區間內的匯率，再刪除已沒有匯率的數據 (最新一筆除外)
+     */
+    private long[] deleteRecords(List<Long> ids, Long latestId, Instant minuteCutoff,
+                                 Set<RateCandleId> rolledBuckets) {
+        Map<String, Instant> unpersistedFrom = new HashMap<>();
+        List<RateSampleView> samples = new ArrayList<>();
+        List<Long> rateIds = new ArrayList<>();
+        for (RateSampleView sample : exchangeRateRepository.findUnreferencedSamples(ids)) {
+            String code = sample.getCurrencyCode();
+            if (!unpersistedFrom.containsKey(code)) {
+                unpersistedFrom.put(code, candleStore.getUnpersistedFrom(code));
+            }
+            Instant from = unpersistedFrom.get(code);
+            if (from == null || sample.getRateTime().isBefore(from)) {
+                samples.add(sample);
+                rateIds.add(sample.getId());
+            }
+        }
+        long rolledUp = rollUpMissing(samples, minuteCutoff, rolledBuckets);
+        for (List<Long> chunk : partition(rateIds)) {
+            exchangeRateRepository.deleteAllByIdInBatch(chunk);
+        }
+
+        List<Long> emptyIds = coindeskDataRepository.findIdsWithoutRates(ids);
+        emptyIds.remove(latestId);
+        if (!emptyIds.isEmpty()) {
+            coindeskDataRepository.deleteAllByIdInBatch(emptyIds);
+        }
+        return new long[] {rateIds.size(), rolledUp, emptyIds.size()};
+    }
+
+    /**
+     * 為資料庫中沒有 K 線的區間補上彙總；區間已有 K 線 (且不是本次壓縮補上的) 時表示其匯率已由 CandleStore 併入。
+     * 1 分鐘與 5 分鐘區間早於其保留起點時不補上
+     * @return 併入補上的 K 線的匯率筆數
+     */
+    private long rollUpMissing(List<RateSampleView> samples, Instant minuteCutoff, Set<RateCandleId> rolledBuckets) {
+        Set<Long> rolledUp = new HashSet<>();
+        for (int intervalSeconds : CandleStore.INTERVALS) {
+            Map<RateCandleId, RateCandleEntity> partials = new LinkedHashMap<>();
+            Map<RateCandleId, List<Long>> sampleIds = new HashMap<>();
+            Set<String> codes = new HashSet<>();
+            Instant from = null;
+            Instant to = null;
+            for (RateSampleView sample : samples) {
+                Instant bucketStart = CandleStore.bucketStart(sample.getRateTime(), intervalSeconds);
+                if (sample.getRateFloat() == null
+                        || (intervalSeconds < CandleStore.HOUR_SECONDS && bucketStart.isBefore(minuteCutoff))) {
+                    continue;
+                }
+                double rate = sample.getRateFloat();
+                RateCandleEntity partial = new RateCandleEntity(sample.getCurrencyCode(), intervalSeconds, bucketStart,
+                        rate, rate, rate, rate, sample.getRateTime(), sample.getRateTime(), 1L);
+                RateCandleId id = CandleStore.idOf(partial);
+                RateCandleEntity current = partials.putIfAbsent(id, partial);
+                if (current != null) {
+                    CandleStore.merge(current, partial);
+                }
+                sampleIds.computeIfAbsent(id, key -> new ArrayList<>()).add(sample.getId());
+                codes.add(sample.getCurrencyCode());
+                from = from == null || bucketStart.isBefore(from) ? bucketStart : from;
+                to = to == null || bucketStart.isAfter(to) ? bucketStart : to;
+            }
+            if (partials.isEmpty()) {
+                continue;
+            }
+            for (RateCandleEntity candle : rateCandleRepository.findBuckets(intervalSeconds, codes, from, to)) {
+                RateCandleId id = CandleStore.idOf(candle);
+                RateCandleEntity partial = partials.remove(id);
+                if (partial != null && rolledBuckets.contains(id)) {
+                    CandleStore.merge(candle, partial);
+                    rolledUp.addAll(sampleIds.get(id));
+                }
+            }
+            for (RateCandleId id : partials.keySet()) {
+                rolledUp.addAll(sampleIds.get(id));
+            }
+            rolledBuckets.addAll(partials.keySet());
+            rateCandleRepository.persistAll(partials.values());
+        }
+        return rolledUp.size();
+    }
+
+    /**
+     * 分批刪除早於保留起點的 K 線
+     * @return 刪除的 K 線筆數
+     */
+    private long deleteCandles(int intervalSeconds, Instant cutoff) {
+        long total = 0;
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> {
+                List<RateCandleEntity> expired = rateCandleRepository.findBucketsBefore(
+                        intervalSeconds, cutoff, PageRequest.of(0, candleBatchSize));
+                rateCandleRepository.deleteAll(expired);
+                return expired.size();
+            });
+            total += count;
+            candlesDeleted.increment(count);
+            if (count < candleBatchSize) {
+                return total;
+            }
+        }
+    }
+
+    private static List<List<Long>> partition(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += MAX_IN_PARAMETERS) {
+            chunks.add(ids.subList(i, Math.min(ids.size(), i + MAX_IN_PARAMETERS)));
+        }
+        return chunks;
+    }
+
+    private static Counter deletedCounter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("coindesk.compaction.deleted")
+                .tag("type", type)
+                .description("歷史壓縮刪除的筆數")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,185 @@
+package com.coindesk.history;
+
+import com.coindesk.repository.ExchangeRateRepository;
+import com.coindesk.repository.RatePointView;
+import com.coindesk.snapshot.CoindeskSnapshot;
+import com.coindesk.snapshot.RatesCommittedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 行程內的匯率歷史儲存區，供歷史與統計查詢使用而不經過 Hibernate
+ *
+ * 幣別序列於第一次查詢時從資料庫載入，之後由每次提交的數據即時附加；
+ * 遇到亂序數據 (例如回補歷史) 時丟棄該序列，下次查詢重新載入
+ */
+@Component
+public class RateHistoryStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RateHistoryStore.class);
+    private static final int LOAD_BATCH_SIZE = 10000;
+    private static final Instant LOAD_UNTIL = Instant.parse("9999-12-31T00:00:00Z");
+
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final boolean enabled;
+    private final Map<String, RateSeries> series = new ConcurrentHashMap<>();
+    // 每個幣別一把鎖，序列化載入與附加
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RateHistoryStore(
+            ExchangeRateRepository exchangeRateRepository,
+            @Value("${coindesk.history.store.enabled:true}") boolean enabled) {
+        this.exchangeRateRepository = exchangeRateRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return 是否啟用記憶體儲存區
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 取得幣別的時間序列，尚未載入時從資料庫載入
+     * @param code 幣別代碼
+     * @return 時間序列
+     */
+    public RateSeries getSeries(String code) {
+        RateSeries loaded = series.get(code);
+        if (loaded != null) {
+            return loaded;
+        }
+        synchronized (lockFor(code)) {
+            loaded = series.get(code);
+            if (loaded == null) {
+                loaded = load(code);
+                series.put(code, loaded);
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * @return 目前載入的資料點總數
+     */
+    public long totalPoints() {
+        long total = 0;
+        for (RateSeries rateSeries : series.values()) {
+            total += rateSeries.size();
+        }
+        return total;
+    }
+
+    /**
+     * 丟棄含有早於指定時間之資料點的序列，下次查詢時從資料庫重新載入
+     * 歷史壓縮刪除原始匯率後呼叫；最新匯率指標引用的匯率不會被刪除，因此每個序列允許保留一個較舊的點
+     * @param cutoff 原始匯率的保留起點
+     * @return 丟棄的序列數
+     */
+    public int evictBefore(Instant cutoff) {
+        long cutoffMillis = cutoff.toEpochMilli();
+        int evicted = 0;
+        for (String code : series.keySet()) {
+            synchronized (lockFor(code)) {
+                RateSeries rateSeries = series.get(code);
+                if (rateSeries != null && rateSeries.lowerBound(cutoffMillis, rateSeries.size()) > 1) {
+                    series.remove(code);
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * 數據提交後附加到已載入的序列；未載入的幣別略過，載入時會從資料庫取得
+     */
+    @EventListener
+    public void onRatesCommitted(RatesCommittedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        for (CoindeskSnapshot snapshot : event.getSnapshots()) {
+            if (snapshot.getUpdatedAt() == null) {
+                continue;
+            }
+            long time = snapshot.getUpdatedAt().toEpochMilli();
+            for (CoindeskSnapshot.Rate rate : snapshot.getRates().values()) {
+                if (rate.getRateFloat() != null) {
+                    append(rate.getCode(), time, rate.getRateFloat());
+                }
+            }
+        }
+    }
+
+    /**
+     * 在幣別鎖內檢查並附加，與載入互斥：載入期間提交的數據會等載入完成後再附加
+     */
+    private void append(String code, long time, double rate) {
+        if (!series.containsKey(code) && !locks.containsKey(code)) {
+            // 從未載入的幣別不需取得鎖
+            return;
+        }
+        synchronized (lockFor(code)) {
+            RateSeries rateSeries = series.get(code);
+            if (rateSeries == null) {
+                return;
+            }
+            int size = rateSeries.size();
+            if (size > 0 && time < rateSeries.timeAt(size - 1)) {
+                int index = rateSeries.lowerBound(time, size);
+                if (index < size && rateSeries.timeAt(index) == time) {
+                    // 載入時已從資料庫讀到這一點，不重複附加
+                    return;
+                }
+            }
+            if (!rateSeries.append(time, rate)) {
+                // 亂序數據無法附加，丟棄序列待下次查詢重新載入
+                series.remove(code);
+            }
+        }
+    }
+
+    /**
+     * 依 (時間, ID) 順序從資料庫分批載入
+     */
+    private RateSeries load(String code) {
+        long start = System.nanoTime();
+        RateSeries rateSeries = new RateSeries();
+        Instant afterTime = Instant.EPOCH;
+        long afterId = -1L;
+        Instant to = LOAD_UNTIL;
+        while (true) {
+            List<RatePointView> rows = exchangeRateRepository.findRatePoints(
+                    code, afterTime, afterId, to, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (RatePointView row : rows) {
+                rateSeries.append(row.getRateTime().toEpochMilli(), row.getRateFloat());
+            }
+            if (rows.size() < LOAD_BATCH_SIZE) {
+                break;
+            }
+            RatePointView last = rows.get(rows.size() - 1);
+            afterTime = last.getRateTime();
+            afterId = last.getId();
+        }
+        log.info("載入幣別 {} 匯率歷史 {} 筆，耗時 {} ms",
+                code, rateSeries.size(), (System.nanoTime() - start) / 1_000_000);
+        return rateSeries;
+    }
+
+    private Object lockFor(String code) {
+        return locks.computeIfAbsent(code, key -> new Object());
+    }
+}
@@ -0,0 +1,104 @@
+package com.coindesk.history;
+
+import java.util.Arrays;
+
+/**
+ * 單一幣別的匯率時間序列，以原始型別陣列分段存放 (每點 16 bytes)
+ *
+ * 只允許依時間遞增附加；寫入需由呼叫端序列化，讀取不需加鎖：
+ * 先讀取 size 再讀取分段陣列，即可看到至少 size 筆完整資料
+ */
+public final class RateSeries {
+
+    private static final int CHUNK_SHIFT = 13;
+    // 每段 8192 點，擴充時只需新增一段，不需複製既有資料
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile long[][] timeChunks = new long[4][];
+    private volatile double[][] rateChunks = new double[4][];
+    private volatile int size;
+
+    /**
+     * 附加一個資料點；時間與最後一點相同時覆寫匯率
+     * @param epochMillis 時間 (epoch 毫秒)
+     * @param rate 匯率
+     * @return 時間早於最後一點 (亂序) 時回傳 false，資料不會寫入
+     */
+    boolean append(long epochMillis, double rate) {
+        int n = size;
+        if (n > 0) {
+            long last = timeAt(n - 1);
+            if (epochMillis < last) {
+                return false;
+            }
+            if (epochMillis == last) {
+                rateChunks[(n - 1) >>> CHUNK_SHIFT][(n - 1) & CHUNK_MASK] = rate;
+                return true;
+            }
+        }
+
+        int chunk = n >>> CHUNK_SHIFT;
+        long[][] times = timeChunks;
+        double[][] rates = rateChunks;
+        if (chunk == times.length) {
+            times = Arrays.copyOf(times, chunk * 2);
+            rates = Arrays.copyOf(rates, chunk * 2);
+        }
+        if (times[chunk] == null) {
+            times[chunk] = new long[CHUNK_SIZE];
+            rates[chunk] = new double[CHUNK_SIZE];
+        }
+        times[chunk][n & CHUNK_MASK] = epochMillis;
+        rates[chunk][n & CHUNK_MASK] = rate;
+
+        // 先發布分段陣列，最後才更新 size
+        timeChunks = times;
+        rateChunks = rates;
+        size = n + 1;
+        return true;
+    }
+
+    /**
+     * @return 目前資料點數
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index 資料點索引 (需小於先前讀取到的 size)
+     * @return 時間 (epoch 毫秒)
+     */
+    public long timeAt(int index) {
+        return timeChunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    /**
+     * @param index 資料點索引 (需小於先前讀取到的 size)
+     * @return 匯率
+     */
+    public double rateAt(int index) {
+        return rateChunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    /**
+     * 二分搜尋第一個時間不早於指定時間的索引
+     * @param epochMillis 時間 (epoch 毫秒)
+     * @param size 搜尋範圍 (先前讀取到的 size)
+     * @return 索引，全部都早於指定時間時回傳 size
+     */
+    public int lowerBound(long epochMillis, int size) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timeAt(mid) < epochMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
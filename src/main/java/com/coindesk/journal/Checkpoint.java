@@ -0,0 +1,115 @@
+package com.coindesk.journal;
+
+import com.coindesk.snapshot.CoindeskSnapshot;
+import lombok.Value;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 啟動用檢查點：最新快照與幣別字典的精簡二進位格式
+ *
+ * 檔案格式為 [magic int][格式版本 byte][快照長度 int][快照][幣別數 int][幣別...][CRC32 int]
+ */
+@Value
+public class Checkpoint {
+
+    private static final int MAGIC = 0x434B5054;
+    private static final byte FORMAT_VERSION = 1;
+
+    CoindeskSnapshot snapshot;
+    List<CurrencyName> currencies;
+
+    /**
+     * 幣別字典項目
+     */
+    @Value
+    public static class CurrencyName {
+        String code;
+        String chineseName;
+        String englishName;
+    }
+
+    /**
+     * 寫入檢查點，先寫入暫存檔再搬移，避免留下寫到一半的檔案
+     * @param path 檔案路徑
+     * @throws IOException 無法寫入時
+     */
+    public void writeTo(Path path) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            byte[] snapshotBytes = SnapshotCodec.encode(snapshot);
+            out.writeInt(snapshotBytes.length);
+            out.write(snapshotBytes);
+            out.writeInt(currencies.size());
+            for (CurrencyName currency : currencies) {
+                out.writeUTF(currency.getCode());
+                SnapshotCodec.writeString(out, currency.getChineseName());
+                SnapshotCodec.writeString(out, currency.getEnglishName());
+            }
+        }
+        byte[] content = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, ByteBuffer.allocate(content.length + 4).put(content).putInt((int) crc.getValue()).array());
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 讀取檢查點
+     * @param path 檔案路徑
+     * @return 檢查點，檔案不存在時為 null
+     * @throws IOException 無法讀取或內容損毀時
+     */
+    public static Checkpoint readFrom(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        byte[] data = Files.readAllBytes(path);
+        if (data.length < 9) {
+            throw new IOException("檢查點檔案過短: " + path);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 4);
+        if ((int) crc.getValue() != ByteBuffer.wrap(data, data.length - 4, 4).getInt()) {
+            throw new IOException("檢查點 CRC 驗證失敗: " + path);
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, data.length - 4))) {
+            if (in.readInt() != MAGIC || in.readByte() != FORMAT_VERSION) {
+                throw new IOException("不支援的檢查點格式: " + path);
+            }
+            byte[] snapshotBytes = new byte[in.readInt()];
+            in.readFully(snapshotBytes);
+            CoindeskSnapshot snapshot = SnapshotCodec.decode(snapshotBytes, 0L);
+
+            int count = in.readInt();
+            List<CurrencyName> currencies = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                currencies.add(new CurrencyName(in.readUTF(), SnapshotCodec.readString(in), SnapshotCodec.readString(in)));
+            }
+            return new Checkpoint(snapshot, Collections.unmodifiableList(currencies));
+        }
+    }
+}
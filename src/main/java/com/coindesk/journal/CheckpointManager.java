@@ -0,0 +1,164 @@
+package com.coindesk.journal;
+
+import com.coindesk.cache.CurrencyDictionary;
+import com.coindesk.entity.CurrencyEntity;
+import com.coindesk.repository.CurrencyRepository;
+import com.coindesk.service.CoindeskApiService;
+import com.coindesk.snapshot.CoindeskSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 啟動時由檢查點還原最新快照與幣別字典，並定期及關閉時寫入檢查點
+ *
+ * 還原後立即建立轉換視圖，部署後的第一個請求不需再查詢資料庫或讀取範例數據。
+ * 檢查點可能落後於資料庫：最新數據與已保存的數據比較後取較新者，幣別以可持久保存的資料庫為準
+ */
+@Component
+@ConditionalOnProperty(name = "coindesk.checkpoint.enabled", havingValue = "true")
+public class CheckpointManager implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckpointManager.class);
+
+    private final CoindeskApiService coindeskApiService;
+    private final CurrencyRepository currencyRepository;
+    private final CurrencyDictionary currencyDictionary;
+    private final TransactionTemplate transactionTemplate;
+    private final Path path;
+    // 資料庫是否跨重啟保存 (非記憶體資料庫)，是則不以檢查點還原幣別
+    private final boolean durableDatabase;
+    // 最近一次寫入的內容，未變更時略過寫入
+    private Checkpoint lastWritten;
+
+    @Autowired
+    public CheckpointManager(
+            CoindeskApiService coindeskApiService,
+            CurrencyRepository currencyRepository,
+            CurrencyDictionary currencyDictionary,
+            PlatformTransactionManager transactionManager,
+            @Value("${coindesk.checkpoint.path:data/checkpoint.bin}") String path,
+            @Value("${spring.datasource.url:}") String datasourceUrl) {
+        this.coindeskApiService = coindeskApiService;
+        this.currencyRepository = currencyRepository;
+        this.currencyDictionary = currencyDictionary;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.path = Paths.get(path);
+        this.durableDatabase = !datasourceUrl.startsWith("jdbc:h2:mem:");
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        Checkpoint checkpoint = null;
+        try {
+            checkpoint = Checkpoint.readFrom(path);
+        } catch (IOException e) {
+            log.warn("無法讀取檢查點 {}，改用一般載入流程", path, e);
+        }
+
+        if (checkpoint != null) {
+            if (!durableDatabase) {
+                restoreCurrencies(checkpoint.getCurrencies());
+            }
+            coindeskApiService.restoreSnapshot(checkpoint.getSnapshot());
+            lastWritten = checkpoint;
+        }
+        // 預先建立轉換視圖 (無檢查點時走一般冷啟動載入)
+        coindeskApiService.getTransformedView();
+        log.info("啟動預熱完成 (檢查點: {})，耗時 {} ms", checkpoint != null ? path : "無",
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 定期寫入檢查點
+     */
+    @Scheduled(fixedDelayString = "${coindesk.checkpoint.interval-ms:60000}",
+            initialDelayString = "${coindesk.checkpoint.interval-ms:60000}")
+    public void scheduledCheckpoint() {
+        writeCheckpoint();
+    }
+
+    /**
+     * 關閉時寫入最後的檢查點
+     */
+    @PreDestroy
+    public void shutdownCheckpoint() {
+        writeCheckpoint();
+    }
+
+    /**
+     * 寫入目前的快照與幣別字典，內容未變更時略過
+     * @return 是否寫入
+     */
+    public synchronized boolean writeCheckpoint() {
+        try {
+            CoindeskSnapshot snapshot = coindeskApiService.getSnapshot();
+            List<Checkpoint.CurrencyName> currencies = new ArrayList<>();
+            for (CurrencyEntity currency : currencyRepository.findAll()) {
+                currencies.add(new Checkpoint.CurrencyName(
+                        currency.getCode(), currency.getChineseName(), currency.getEnglishName()));
+            }
+
+            // 版本號只在行程內有意義，比較時忽略
+            Checkpoint checkpoint = new Checkpoint(snapshot.withVersion(0L), currencies);
+            if (checkpoint.equals(lastWritten)) {
+                return false;
+            }
+            checkpoint.writeTo(path);
+            lastWritten = checkpoint;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.error("寫入檢查點 {} 失敗", path, e);
+            return false;
+        }
+    }
+
+    /**
+     * 記憶體資料庫重啟後只有初始幣別，新增檢查點中缺少的幣別；既有幣別的名稱以資料庫為準
+     */
+    private void restoreCurrencies(List<Checkpoint.CurrencyName> currencies) {
+        List<CurrencyEntity> created = transactionTemplate.execute(status -> {
+            List<String> codes = new ArrayList<>(currencies.size());
+            for (Checkpoint.CurrencyName currency : currencies) {
+                codes.add(currency.getCode());
+            }
+            Set<String> existing = new HashSet<>();
+            for (CurrencyEntity entity : currencyRepository.findAllById(codes)) {
+                existing.add(entity.getCode());
+            }
+
+            List<CurrencyEntity> missing = new ArrayList<>();
+            for (Checkpoint.CurrencyName currency : currencies) {
+                if (!existing.contains(currency.getCode())) {
+                    missing.add(new CurrencyEntity(
+                            currency.getCode(), currency.getChineseName(), currency.getEnglishName()));
+                }
+            }
+            if (!missing.isEmpty()) {
+                currencyRepository.persistAll(missing);
+            }
+            return missing;
+        });
+        // 有新增幣別時清除幣別字典
+        if (!created.isEmpty()) {
+            currencyDictionary.invalidateAll();
+        }
+    }
+}
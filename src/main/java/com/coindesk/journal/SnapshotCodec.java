@@ -0,0 +1,111 @@
+package com.coindesk.journal;
+
+import com.coindesk.snapshot.CoindeskSnapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 快照的精簡二進位編碼，供快照日誌與檢查點使用
+ */
+public final class SnapshotCodec {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private SnapshotCodec() {
+    }
+
+    /**
+     * 編碼快照 (不含版本號)
+     * @param snapshot 快照
+     * @return 二進位內容
+     */
+    public static byte[] encode(CoindeskSnapshot snapshot) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            writeString(out, snapshot.getUpdated());
+            writeString(out, snapshot.getUpdatedIso());
+            out.writeBoolean(snapshot.getUpdatedAt() != null);
+            if (snapshot.getUpdatedAt() != null) {
+                out.writeLong(snapshot.getUpdatedAt().getEpochSecond());
+                out.writeInt(snapshot.getUpdatedAt().getNano());
+            }
+            writeString(out, snapshot.getUpdatedUk());
+            writeString(out, snapshot.getDisclaimer());
+            writeString(out, snapshot.getChartName());
+
+            out.writeInt(snapshot.getRates().size());
+            for (Map.Entry<String, CoindeskSnapshot.Rate> entry : snapshot.getRates().entrySet()) {
+                CoindeskSnapshot.Rate rate = entry.getValue();
+                out.writeUTF(entry.getKey());
+                writeString(out, rate.getCode());
+                writeString(out, rate.getSymbol());
+                writeString(out, rate.getRate());
+                writeString(out, rate.getDescription());
+                out.writeBoolean(rate.getRateFloat() != null);
+                if (rate.getRateFloat() != null) {
+                    out.writeDouble(rate.getRateFloat());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 解碼快照
+     * @param data 二進位內容
+     * @param version 指定給快照的版本號
+     * @return 快照
+     * @throws IOException 內容格式錯誤時
+     */
+    public static CoindeskSnapshot decode(byte[] data, long version) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte formatVersion = in.readByte();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("不支援的快照格式版本: " + formatVersion);
+            }
+            String updated = readString(in);
+            String updatedIso = readString(in);
+            Instant updatedAt = in.readBoolean() ? Instant.ofEpochSecond(in.readLong(), in.readInt()) : null;
+            String updatedUk = readString(in);
+            String disclaimer = readString(in);
+            String chartName = readString(in);
+
+            int count = in.readInt();
+            Map<String, CoindeskSnapshot.Rate> rates = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                rates.put(key, new CoindeskSnapshot.Rate(
+                        readString(in),
+                        readString(in),
+                        readString(in),
+                        readString(in),
+                        in.readBoolean() ? in.readDouble() : null));
+            }
+            return new CoindeskSnapshot(version, updated, updatedIso, updatedAt, updatedUk,
+                    disclaimer, chartName, Collections.unmodifiableMap(rates));
+        }
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
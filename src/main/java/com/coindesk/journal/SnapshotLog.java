@@ -0,0 +1,244 @@
+package com.coindesk.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 只能附加的快照日誌，透過記憶體映射檔案循序寫入
+ *
+ * 日誌由多個固定大小的區段組成，檔名為該區段第一筆紀錄的序號；
+ * 每筆紀錄格式為 [長度 int][CRC32 int][序號 long][內容]，長度為 0 表示區段結尾。
+ * 開啟時會驗證最後一個區段，遇到 CRC 錯誤或寫到一半的紀錄即視為結尾，之後的寫入會覆蓋它
+ */
+public class SnapshotLog implements Closeable {
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_SIZE = 16;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long nextSequence;
+    private Record lastRecord;
+
+    /**
+     * 單筆日誌紀錄
+     */
+    public static final class Record {
+        private final long sequence;
+        private final byte[] payload;
+
+        Record(long sequence, byte[] payload) {
+            this.sequence = sequence;
+            this.payload = payload;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+    }
+
+    /**
+     * 開啟 (或建立) 日誌
+     * @param directory 區段檔案目錄
+     * @param segmentSize 每個區段的大小 (bytes)
+     * @param fsync 每次寫入後是否強制寫回磁碟
+     * @throws IOException 無法開啟檔案時
+     */
+    public SnapshotLog(Path directory, int segmentSize, boolean fsync) throws IOException {
+        if (segmentSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("區段大小過小: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            nextSequence = 1L;
+            openSegment(nextSequence);
+        } else {
+            // 找出最後一筆有效紀錄，最後一個區段可能是空的
+            for (int i = segments.size() - 1; i >= 0 && lastRecord == null; i--) {
+                lastRecord = lastRecordOf(segments.get(i));
+            }
+            Path last = segments.get(segments.size() - 1);
+            nextSequence = lastRecord != null ? lastRecord.sequence + 1 : baseSequenceOf(last);
+            mapSegment(last);
+            buffer.position(validLength(buffer, baseSequenceOf(last)));
+        }
+    }
+
+    /**
+     * 附加一筆紀錄，區段空間不足時換到新的區段
+     * @param payload 紀錄內容
+     * @return 紀錄序號
+     * @throws IOException 無法寫入時
+     */
+    public synchronized long append(byte[] payload) throws IOException {
+        int recordSize = HEADER_SIZE + payload.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("紀錄大小 " + recordSize + " 超過區段大小 " + segmentSize);
+        }
+        if (buffer.remaining() < recordSize) {
+            buffer.force();
+            channel.close();
+            openSegment(nextSequence);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        long sequence = nextSequence;
+
+        // 先寫入內容，最後才寫入長度，避免讀取端看到寫到一半的紀錄
+        int position = buffer.position();
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putLong(position + 8, sequence);
+        for (int i = 0; i < payload.length; i++) {
+            buffer.put(position + HEADER_SIZE + i, payload[i]);
+        }
+        buffer.putInt(position, payload.length);
+        buffer.position(position + recordSize);
+        if (fsync) {
+            buffer.force();
+        }
+
+        nextSequence = sequence + 1;
+        lastRecord = new Record(sequence, payload);
+        return sequence;
+    }
+
+    /**
+     * @return 最後一筆紀錄，日誌為空時為 null
+     */
+    public synchronized Record readLast() {
+        return lastRecord;
+    }
+
+    /**
+     * @return 下一筆紀錄的序號
+     */
+    public synchronized long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * 依序讀取所有有效紀錄
+     * @return 紀錄列表
+     * @throws IOException 無法讀取時
+     */
+    public synchronized List<Record> readAll() throws IOException {
+        List<Record> records = new ArrayList<>();
+        for (Path segment : listSegments()) {
+            try (FileChannel readChannel = FileChannel.open(segment)) {
+                MappedByteBuffer readBuffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                scan(readBuffer, baseSequenceOf(segment), records);
+            }
+        }
+        return records;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    private void openSegment(long baseSequence) throws IOException {
+        mapSegment(directory.resolve(String.format("%020d%s", baseSequence, SEGMENT_SUFFIX)));
+    }
+
+    private void mapSegment(Path path) throws IOException {
+        // 映射超過檔案長度時會自動延長檔案
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    private Record lastRecordOf(Path segment) throws IOException {
+        List<Record> records = new ArrayList<>();
+        try (FileChannel readChannel = FileChannel.open(segment)) {
+            scan(readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size()), baseSequenceOf(segment), records);
+        }
+        return records.isEmpty() ? null : records.get(records.size() - 1);
+    }
+
+    /**
+     * @return 區段中有效紀錄的總長度，即下一筆紀錄的寫入位置
+     */
+    private static int validLength(MappedByteBuffer segment, long baseSequence) {
+        return scan(segment, baseSequence, null);
+    }
+
+    /**
+     * 掃描區段中的有效紀錄
+     * @param records 收集紀錄的列表，為 null 時只計算長度
+     * @return 有效紀錄的總長度
+     */
+    private static int scan(MappedByteBuffer segment, long baseSequence, List<Record> records) {
+        int position = 0;
+        long expectedSequence = baseSequence;
+        int limit = segment.limit();
+        while (position + HEADER_SIZE <= limit) {
+            int length = segment.getInt(position);
+            if (length <= 0 || position + HEADER_SIZE + length > limit) {
+                break;
+            }
+            int storedCrc = segment.getInt(position + 4);
+            long sequence = segment.getLong(position + 8);
+            if (sequence != expectedSequence) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            for (int i = 0; i < length; i++) {
+                payload[i] = segment.get(position + HEADER_SIZE + i);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(payload, 0, length);
+            if ((int) crc.getValue() != storedCrc) {
+                break;
+            }
+            if (records != null) {
+                records.add(new Record(sequence, payload));
+            }
+            position += HEADER_SIZE + length;
+            expectedSequence++;
+        }
+        return position;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files
+                    .filter(path -> path.getFileName().toString().matches("\\d{20}\\" + SEGMENT_SUFFIX))
+                    .collect(Collectors.toList());
+            Collections.sort(segments);
+            return segments;
+        }
+    }
+
+    private static long baseSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,25 @@
+package com.coindesk.journal;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * 持久化模式為 log 時建立快照日誌
+ */
+@Configuration
+@ConditionalOnProperty(name = "coindesk.persistence.mode", havingValue = "log")
+public class SnapshotLogConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public SnapshotLog snapshotLog(
+            @Value("${coindesk.snapshot-log.dir:data/snapshot-log}") String directory,
+            @Value("${coindesk.snapshot-log.segment-size:67108864}") int segmentSize,
+            @Value("${coindesk.snapshot-log.fsync:false}") boolean fsync) throws IOException {
+        return new SnapshotLog(Paths.get(directory), segmentSize, fsync);
+    }
+}
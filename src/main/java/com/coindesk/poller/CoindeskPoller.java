@@ -0,0 +1,204 @@
+package com.coindesk.poller;
+
+import com.coindesk.dto.coindesk.CoindeskResponse;
+import com.coindesk.service.CoindeskApiService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 定期輪詢上游 Coindesk API
+ *
+ * 以 ETag / Last-Modified 進行條件式請求，更新時間未變更時不寫入；
+ * 發生錯誤時以指數退避加上隨機抖動延後下一次輪詢
+ */
+@Component
+@ConditionalOnProperty(name = "coindesk.poller.enabled", havingValue = "true")
+public class CoindeskPoller {
+
+    private static final Logger log = LoggerFactory.getLogger(CoindeskPoller.class);
+
+    /**
+     * 單次輪詢結果
+     */
+    public enum PollResult {
+        // 有新數據並已寫入
+        SAVED,
+        // 上游回應 304
+        NOT_MODIFIED,
+        // 回應內容的更新時間與目前數據相同
+        UNCHANGED,
+        // 請求或解析失敗
+        FAILED
+    }
+
+    private final RestTemplate restTemplate;
+    private final CoindeskApiService coindeskApiService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String url;
+    private final long intervalMs;
+    private final long maxBackoffMs;
+    private final ScheduledExecutorService scheduler;
+
+    // 條件式請求所需的驗證資訊，只由輪詢執行緒存取
+    private String etag;
+    private String lastModified;
+    private String lastUpdatedIso;
+    private int consecutiveFailures;
+
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong saved = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    @Autowired
+    public CoindeskPoller(
+            RestTemplate restTemplate,
+            CoindeskApiService coindeskApiService,
+            @Value("${coindesk.api.url}") String url,
+            @Value("${coindesk.poller.interval-ms:60000}") long intervalMs,
+            @Value("${coindesk.poller.max-backoff-ms:600000}") long maxBackoffMs) {
+        this.restTemplate = restTemplate;
+        this.coindeskApiService = coindeskApiService;
+        this.url = url;
+        this.intervalMs = intervalMs;
+        this.maxBackoffMs = Math.max(intervalMs, maxBackoffMs);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coindesk-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 應用程序啟動完成後開始輪詢
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.execute(this::pollAndReschedule);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void pollAndReschedule() {
+        PollResult result = pollOnce();
+        if (!scheduler.isShutdown()) {
+            long delay = result == PollResult.FAILED ? backoffDelay(consecutiveFailures) : intervalMs;
+            scheduler.schedule(this::pollAndReschedule, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 執行一次輪詢
+     * @return 輪詢結果
+     */
+    public PollResult pollOnce() {
+        polls.incrementAndGet();
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            if (etag != null) {
+                headers.setIfNoneMatch(etag);
+            }
+            if (lastModified != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+            }
+            ResponseEntity<byte[]> response = restTemplate.exchange(
+                    url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+            consecutiveFailures = 0;
+
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                notModified.incrementAndGet();
+                return PollResult.NOT_MODIFIED;
+            }
+            // 驗證標頭在數據處理完成後才保存，處理失敗時下次輪詢不帶條件重新取得
+            String responseEtag = response.getHeaders().getETag();
+            String responseLastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+
+            // 上游的 Content-Type 不一定是 JSON，直接以 ObjectMapper 解析內容
+            CoindeskResponse data = objectMapper.readValue(response.getBody(), CoindeskResponse.class);
+            if (data.getTime() == null || data.getBpi() == null) {
+                throw new IllegalStateException("上游回應缺少 time 或 bpi");
+            }
+            String updatedIso = data.getTime().getUpdatedISO();
+            if (lastUpdatedIso == null) {
+                lastUpdatedIso = coindeskApiService.getSnapshot().getUpdatedIso();
+            }
+            if (Objects.equals(updatedIso, lastUpdatedIso)) {
+                etag = responseEtag;
+                lastModified = responseLastModified;
+                unchanged.incrementAndGet();
+                return PollResult.UNCHANGED;
+            }
+
+            coindeskApiService.saveCoindeskData(data);
+            etag = responseEtag;
+            lastModified = responseLastModified;
+            lastUpdatedIso = updatedIso;
+            saved.incrementAndGet();
+            return PollResult.SAVED;
+        } catch (Exception e) {
+            consecutiveFailures++;
+            failures.incrementAndGet();
+            log.warn("輪詢 {} 失敗 (連續 {} 次): {}", url, consecutiveFailures, e.toString());
+            return PollResult.FAILED;
+        }
+    }
+
+    /**
+     * 計算失敗後的等待時間：以輪詢間隔為基準指數成長，取上限後在其一半到全部之間隨機抖動
+     * @param failureCount 連續失敗次數
+     * @return 等待時間 (毫秒)
+     */
+    public long backoffDelay(int failureCount) {
+        long ceiling = intervalMs;
+        for (int i = 1; i < failureCount && ceiling < maxBackoffMs; i++) {
+            ceiling *= 2;
+        }
+        ceiling = Math.min(ceiling, maxBackoffMs);
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    public long getPolls() {
+        return polls.get();
+    }
+
+    public long getSaved() {
+        return saved.get();
+    }
+
+    public long getNotModified() {
+        return notModified.get();
+    }
+
+    public long getUnchanged() {
+        return unchanged.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+}
@@ -1,10 +1,15 @@
 package com.coindesk.repository;
 
 import com.coindesk.entity.CoindeskDataEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,6 +19,32 @@ public interface CoindeskDataRepository extends JpaRepository<CoindeskDataEntity
      * 查詢最新的 Coindesk 數據
      * @return 最新的 CoindeskDataEntity
      */
-    @Query("SELECT c FROM CoindeskDataEntity c ORDER BY c.createTime DESC")
-    Optional<CoindeskDataEntity> findLatest();
-} 
\ No newline at end of file
+    default Optional<CoindeskDataEntity> findLatest() {
+        return findFirstByOrderByCreateTimeDescIdDesc();
+    }
+    
+    /**
+     * 依建立時間取最新一筆 (LIMIT 1)，使用 IDX_COINDESK_DATA_CREATE_TIME 索引
+     * @return 最新的 CoindeskDataEntity
+     */
+    Optional<CoindeskDataEntity> findFirstByOrderByCreateTimeDescIdDesc();
+
+    /**
+     * 以 (更新時間, ID) 為鍵集，依序查詢更新時間早於 before 的數據，使用 IDX_COINDESK_DATA_UPDATED_AT 索引
+     */
+    @Query("SELECT d FROM CoindeskDataEntity d WHERE d.updatedAt < :before "
+            + "AND (d.updatedAt > :afterTime OR (d.updatedAt = :afterTime AND d.id > :afterId)) "
+            + "ORDER BY d.updatedAt ASC, d.id ASC")
+    List<CoindeskDataEntity> findUpdatedBefore(
+            @Param("before") Instant before,
+            @Param("afterTime") Instant afterTime,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * 從指定數據中找出已沒有任何匯率的數據 ID
+     */
+    @Query("SELECT d.id FROM CoindeskDataEntity d WHERE d.id IN :ids "
+            + "AND NOT EXISTS (SELECT e.id FROM ExchangeRateEntity e WHERE e.coindeskData = d)")
+    List<Long> findIdsWithoutRates(@Param("ids") Collection<Long> ids);
+}
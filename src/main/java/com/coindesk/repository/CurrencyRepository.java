@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface CurrencyRepository extends JpaRepository<CurrencyEntity, String> {
+public interface CurrencyRepository extends JpaRepository<CurrencyEntity, String>, CurrencyRepositoryCustom {
     
     /**
      * 通過貨幣代碼查詢貨幣信息
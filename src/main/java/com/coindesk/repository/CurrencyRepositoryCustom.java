@@ -0,0 +1,17 @@
+package com.coindesk.repository;
+
+import com.coindesk.entity.CurrencyEntity;
+
+import java.util.Collection;
+
+/**
+ * 幣別資料的自訂批次操作
+ */
+public interface CurrencyRepositoryCustom {
+
+    /**
+     * 直接新增多筆幣別 (不先查詢是否存在)，配合 JDBC 批次寫入
+     * @param currencies 確定為新資料的幣別實體
+     */
+    void persistAll(Collection<CurrencyEntity> currencies);
+}
@@ -0,0 +1,24 @@
+package com.coindesk.repository;
+
+import com.coindesk.entity.CurrencyEntity;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+
+/**
+ * CurrencyRepositoryCustom 實作
+ * 幣別使用自訂主鍵，save() 會先 SELECT 再 merge，因此新資料改用 persist
+ */
+public class CurrencyRepositoryImpl implements CurrencyRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void persistAll(Collection<CurrencyEntity> currencies) {
+        for (CurrencyEntity currency : currencies) {
+            entityManager.persist(currency);
+        }
+    }
+}
@@ -2,11 +2,14 @@ package com.coindesk.repository;
 
 import com.coindesk.entity.CoindeskDataEntity;
 import com.coindesk.entity.ExchangeRateEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -30,4 +33,27 @@ public interface ExchangeRateRepository extends JpaRepository<ExchangeRateEntity
     ExchangeRateEntity findByCurrencyCodeAndCoindeskDataId(
             @Param("currencyCode") String currencyCode,
             @Param("coindeskId") Long coindeskId);
-} 
\ No newline at end of file
+    
+    /**
+     * 以 (時間, ID) 為鍵集分頁查詢幣別匯率時間序列，使用 (CURRENCY_CODE, RATE_TIME, ID) 索引
+     * 回傳時間在 (afterTime, afterId) 之後且早於 to 的資料
+     */
+    @Query("SELECT e.id AS id, e.rateTime AS rateTime, e.rateFloat AS rateFloat FROM ExchangeRateEntity e "
+            + "WHERE e.currency.code = :currencyCode AND e.rateTime < :to "
+            + "AND (e.rateTime > :afterTime OR (e.rateTime = :afterTime AND e.id > :afterId)) "
+            + "ORDER BY e.rateTime ASC, e.id ASC")
+    List<RatePointView> findRatePoints(
+            @Param("currencyCode") String currencyCode,
+            @Param("afterTime") Instant afterTime,
+            @Param("afterId") Long afterId,
+            @Param("to") Instant to,
+            Pageable pageable);
+
+    /**
+     * 查詢指定數據中未被最新匯率指標引用的匯率，供歷史壓縮補上缺少的 K 線後刪除
+     */
+    @Query("SELECT e.id AS id, e.currency.code AS currencyCode, e.rateTime AS rateTime, e.rateFloat AS rateFloat "
+            + "FROM ExchangeRateEntity e WHERE e.coindeskData.id IN :coindeskIds "
+            + "AND NOT EXISTS (SELECT l.currencyCode FROM LatestRateEntity l WHERE l.exchangeRate = e)")
+    List<RateSampleView> findUnreferencedSamples(@Param("coindeskIds") Collection<Long> coindeskIds);
+}
@@ -0,0 +1,19 @@
+package com.coindesk.repository;
+
+import com.coindesk.entity.LatestRateEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LatestRateRepository extends JpaRepository<LatestRateEntity, String>, LatestRateRepositoryCustom {
+
+    /**
+     * 以單次查詢取得所有幣別的最新匯率 (含匯率與幣別資料)
+     * @return 最新匯率指標
+     */
+    @Query("SELECT l FROM LatestRateEntity l JOIN FETCH l.exchangeRate e JOIN FETCH e.currency")
+    List<LatestRateEntity> findAllWithRates();
+}
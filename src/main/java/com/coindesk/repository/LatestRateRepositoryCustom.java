@@ -0,0 +1,17 @@
+package com.coindesk.repository;
+
+import com.coindesk.entity.LatestRateEntity;
+
+import java.util.Collection;
+
+/**
+ * 最新匯率指標的自訂批次操作
+ */
+public interface LatestRateRepositoryCustom {
+
+    /**
+     * 直接新增多筆指標 (不先查詢是否存在)，配合 JDBC 批次寫入
+     * @param latestRates 確定為新資料的指標
+     */
+    void persistAll(Collection<LatestRateEntity> latestRates);
+}
@@ -0,0 +1,24 @@
+package com.coindesk.repository;
+
+import com.coindesk.entity.LatestRateEntity;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+
+/**
+ * LatestRateRepositoryCustom 實作
+ * 指標以幣別代碼為主鍵，save() 會先 SELECT 再 merge，因此新資料改用 persist
+ */
+public class LatestRateRepositoryImpl implements LatestRateRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void persistAll(Collection<LatestRateEntity> latestRates) {
+        for (LatestRateEntity latestRate : latestRates) {
+            entityManager.persist(latestRate);
+        }
+    }
+}
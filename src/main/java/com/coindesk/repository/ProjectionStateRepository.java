@@ -0,0 +1,9 @@
+package com.coindesk.repository;
+
+import com.coindesk.entity.ProjectionStateEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProjectionStateRepository extends JpaRepository<ProjectionStateEntity, String> {
+}
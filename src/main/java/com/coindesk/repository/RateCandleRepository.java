@@ -0,0 +1,51 @@
+package com.coindesk.repository;
+
+import com.coindesk.entity.RateCandleEntity;
+import com.coindesk.entity.RateCandleId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RateCandleRepository extends JpaRepository<RateCandleEntity, RateCandleId>, RateCandleRepositoryCustom {
+
+    /**
+     * 查詢指定幣別在區間起點範圍 [from, to] 內的 K 線
+     */
+    @Query("SELECT c FROM RateCandleEntity c WHERE c.intervalSeconds = :intervalSeconds "
+            + "AND c.currencyCode IN :currencyCodes AND c.bucketStart >= :from AND c.bucketStart <= :to")
+    List<RateCandleEntity> findBuckets(
+            @Param("intervalSeconds") Integer intervalSeconds,
+            @Param("currencyCodes") Collection<String> currencyCodes,
+            @Param("from") Instant from,
+            @Param("to") Instant to);
+
+    /**
+     * 依區間起點由舊到新查詢早於指定時間的 K 線，使用 IDX_RATE_CANDLE_INTERVAL_BUCKET 索引
+     */
+    @Query("SELECT c FROM RateCandleEntity c WHERE c.intervalSeconds = :intervalSeconds "
+            + "AND c.bucketStart < :before ORDER BY c.bucketStart ASC")
+    List<RateCandleEntity> findBucketsBefore(
+            @Param("intervalSeconds") Integer intervalSeconds,
+            @Param("before") Instant before,
+            Pageable pageable);
+
+    /**
+     * 依區間起點順序查詢幣別在 [from, to) 內的 K 線，使用主鍵 (CURRENCY_CODE, INTERVAL_SECONDS, BUCKET_START) 索引
+     */
+    @Query("SELECT c FROM RateCandleEntity c WHERE c.currencyCode = :currencyCode "
+            + "AND c.intervalSeconds = :intervalSeconds AND c.bucketStart >= :from AND c.bucketStart < :to "
+            + "ORDER BY c.bucketStart ASC")
+    List<RateCandleEntity> findCandles(
+            @Param("currencyCode") String currencyCode,
+            @Param("intervalSeconds") Integer intervalSeconds,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            Pageable pageable);
+}
@@ -0,0 +1,17 @@
+package com.coindesk.repository;
+
+import com.coindesk.entity.RateCandleEntity;
+
+import java.util.Collection;
+
+/**
+ * K 線的自訂批次操作
+ */
+public interface RateCandleRepositoryCustom {
+
+    /**
+     * 直接新增多筆 K 線 (不先查詢是否存在)，配合 JDBC 批次寫入
+     * @param candles 確定為新資料的 K 線
+     */
+    void persistAll(Collection<RateCandleEntity> candles);
+}
@@ -0,0 +1,24 @@
+package com.coindesk.repository;
+
+import com.coindesk.entity.RateCandleEntity;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+
+/**
+ * RateCandleRepositoryCustom 實作
+ * K 線以複合主鍵識別，save() 會先 SELECT 再 merge，因此新資料改用 persist
+ */
+public class RateCandleRepositoryImpl implements RateCandleRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void persistAll(Collection<RateCandleEntity> candles) {
+        for (RateCandleEntity candle : candles) {
+            entityManager.persist(candle);
+        }
+    }
+}
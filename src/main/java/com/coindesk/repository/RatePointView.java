@@ -0,0 +1,15 @@
+package com.coindesk.repository;
+
+import java.time.Instant;
+
+/**
+ * 匯率歷史查詢的投影，只取時間序列需要的欄位以避免載入整個實體
+ */
+public interface RatePointView {
+
+    Long getId();
+
+    Instant getRateTime();
+
+    Double getRateFloat();
+}
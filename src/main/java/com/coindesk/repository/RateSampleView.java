@@ -0,0 +1,17 @@
+package com.coindesk.repository;
+
+import java.time.Instant;
+
+/**
+ * 歷史壓縮用的匯率投影，只取幣別、時間與匯率
+ */
+public interface RateSampleView {
+
+    Long getId();
+
+    String getCurrencyCode();
+
+    Instant getRateTime();
+
+    Double getRateFloat();
+}
@@ -0,0 +1,30 @@
+package com.coindesk.service;
+
+import com.coindesk.dto.IngestQueueStatus;
+import com.coindesk.dto.coindesk.CoindeskResponse;
+
+/**
+ * 非同步寫入服務介面
+ */
+public interface AsyncIngestService {
+
+    /**
+     * @return 是否啟用非同步寫入 (coindesk.ingest.mode=async)
+     */
+    boolean isEnabled();
+
+    /**
+     * 驗證數據後放入寫入佇列，由單一寫入執行緒分批寫入
+     *
+     * @param coindeskResponse 數據
+     * @return 受理序號
+     * @throws IllegalArgumentException 數據缺少必要欄位
+     * @throws com.coindesk.exception.IngestQueueFullException 佇列已滿
+     */
+    long submit(CoindeskResponse coindeskResponse);
+
+    /**
+     * @return 佇列深度與提交落後狀態
+     */
+    IngestQueueStatus getStatus();
+}
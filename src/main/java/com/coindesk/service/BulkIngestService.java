@@ -0,0 +1,21 @@
+package com.coindesk.service;
+
+import com.coindesk.dto.BulkIngestResult;
+
+import java.io.InputStream;
+
+/**
+ * 批次匯入服務介面
+ */
+public interface BulkIngestService {
+
+    /**
+     * 以串流方式解析並分批寫入多筆 Coindesk 數據
+     * 支援 JSON 陣列或 NDJSON (每行一筆)，記憶體用量不隨上傳大小增加
+     *
+     * @param inputStream 請求內容
+     * @param chunkSize 每批提交的筆數，null 時使用預設值
+     * @return 匯入結果
+     */
+    BulkIngestResult ingest(InputStream inputStream, Integer chunkSize);
+}
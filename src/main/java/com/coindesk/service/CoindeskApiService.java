@@ -1,10 +1,22 @@
 package com.coindesk.service;
 
 import com.coindesk.dto.CustomCurrencyResponse;
+import com.coindesk.dto.IngestStatsResponse;
 import com.coindesk.dto.coindesk.CoindeskResponse;
+import com.coindesk.snapshot.CoindeskSnapshot;
+import com.coindesk.snapshot.TransformedView;
+
+import java.util.List;
 
 public interface CoindeskApiService {
     CoindeskResponse getOriginalCoindeskData();
+    CoindeskSnapshot getSnapshot();
     CustomCurrencyResponse getTransformedCoindeskData();
+    TransformedView getTransformedView();
+    void refreshTransformedView();
+    void restoreSnapshot(CoindeskSnapshot snapshot);
     void saveCoindeskData(CoindeskResponse coindeskResponse);
+    void saveCoindeskDataSequence(List<CoindeskResponse> sequence);
+    void saveCoindeskDataBatch(List<CoindeskResponse> batch);
+    IngestStatsResponse getIngestStats();
 } 
\ No newline at end of file
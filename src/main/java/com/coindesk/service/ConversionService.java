@@ -0,0 +1,39 @@
+package com.coindesk.service;
+
+import com.coindesk.dto.ConversionRequest;
+import com.coindesk.dto.ConversionResult;
+import com.coindesk.snapshot.CrossRateMatrix;
+
+import java.util.List;
+
+/**
+ * 幣別換算服務介面
+ */
+public interface ConversionService {
+
+    /**
+     * 取得與最新快照對應的交叉匯率矩陣，供程序內高頻換算直接以索引查詢
+     *
+     * @return 交叉匯率矩陣
+     */
+    CrossRateMatrix getMatrix();
+
+    /**
+     * 換算單筆金額
+     *
+     * @param from 來源幣別代碼
+     * @param to 目標幣別代碼
+     * @param amount 來源幣別金額，null 時為 1
+     * @return 換算結果
+     * @throws IllegalArgumentException 幣別不支援或金額無效
+     */
+    ConversionResult convert(String from, String to, Double amount);
+
+    /**
+     * 以同一個矩陣換算多筆金額，無法換算的項目以 error 說明原因，不影響其他項目
+     *
+     * @param requests 換算請求
+     * @return 與請求順序相同的換算結果
+     */
+    List<ConversionResult> convertBatch(List<ConversionRequest> requests);
+}
@@ -1,6 +1,7 @@
 package com.coindesk.service;
 
 import com.coindesk.dto.CoindeskDTO;
+import com.coindesk.dto.CurrencyCacheStatsResponse;
 import com.coindesk.dto.CurrencyDto;
 
 import java.util.List;
@@ -56,6 +57,20 @@ public interface CurrencyService {
      */
     void deleteCurrency(String code);
     
+    /**
+     * 取得幣別資料的版本 (幣別字典版本與匯率快照版本)，不查詢資料庫，供 ETag 使用
+     * 
+     * @return 任一來源異動時都會改變的版本字串
+     */
+    String getDataVersion();
+    
+    /**
+     * 取得幣別字典快取統計
+     * 
+     * @return 命中、未命中與淘汰統計
+     */
+    CurrencyCacheStatsResponse getCacheStats();
+    
     /**
      * 取得轉換過的幣別資訊列表
      * 
@@ -0,0 +1,47 @@
+package com.coindesk.service;
+
+import com.coindesk.dto.RateCandlesResponse;
+import com.coindesk.dto.RateHistoryResponse;
+import com.coindesk.dto.RateStatsResponse;
+
+/**
+ * 匯率歷史查詢服務介面
+ */
+public interface RateHistoryService {
+
+    /**
+     * 查詢幣別匯率時間序列
+     *
+     * @param code 幣別代碼
+     * @param from 起始時間 (ISO-8601，含)，null 時為結束時間前 24 小時
+     * @param to 結束時間 (ISO-8601，不含)，null 時為現在
+     * @param step 取樣間隔 (例如 1m、1h)，null 時回傳原始資料
+     * @param cursor 上一頁回傳的游標，null 時從起始時間開始
+     * @param limit 最多回傳的資料點數，null 時使用預設值
+     * @return 時間序列
+     */
+    RateHistoryResponse getHistory(String code, String from, String to, String step, String cursor, Integer limit);
+
+    /**
+     * 統計幣別匯率區間的開收高低與平均
+     *
+     * @param code 幣別代碼
+     * @param from 起始時間 (ISO-8601，含)，null 時為結束時間前 24 小時
+     * @param to 結束時間 (ISO-8601，不含)，null 時為現在
+     * @return 區間統計
+     */
+    RateStatsResponse getStats(String code, String from, String to);
+
+    /**
+     * 查詢幣別匯率 K 線 (開、高、低、收與筆數)，由寫入時增量維護的彙總提供
+     *
+     * @param code 幣別代碼
+     * @param interval K 線週期 (1m、5m 或 1h)
+     * @param from 起始時間 (ISO-8601，含)，null 時為結束時間前 24 小時
+     * @param to 結束時間 (ISO-8601，不含)，null 時為現在
+     * @param cursor 上一頁回傳的游標，null 時從起始時間開始
+     * @param limit 最多回傳的 K 線數，null 時使用預設值
+     * @return K 線
+     */
+    RateCandlesResponse getCandles(String code, String interval, String from, String to, String cursor, Integer limit);
+}
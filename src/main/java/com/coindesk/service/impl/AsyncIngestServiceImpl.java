@@ -0,0 +1,219 @@
+package com.coindesk.service.impl;
+
+import com.coindesk.dto.IngestQueueStatus;
+import com.coindesk.dto.coindesk.CoindeskResponse;
+import com.coindesk.exception.IngestQueueFullException;
+import com.coindesk.service.AsyncIngestService;
+import com.coindesk.service.CoindeskApiService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 非同步寫入：請求端只做驗證並放入固定容量的環狀佇列，由單一寫入執行緒依序分批寫入
+ *
+ * 佇列已滿時拒絕新數據 (背壓)，由請求端稍後重試
+ */
+@Service
+public class AsyncIngestServiceImpl implements AsyncIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncIngestServiceImpl.class);
+    private static final String MODE_ASYNC = "async";
+    // 佇列為空時寫入執行緒檢查是否停止的間隔
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final CoindeskApiService coindeskApiService;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final ArrayBlockingQueue<Entry> queue;
+    private final ExecutorService writer;
+    // 序號分配與放入佇列需一致，確保佇列內序號遞增
+    private final Object submitLock = new Object();
+    private final AtomicLong acceptedSequence = new AtomicLong();
+    private final AtomicLong committedSequence = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    // 寫入中批次的第一筆，用於計算提交落後時間
+    private volatile Entry inFlightHead;
+    private volatile boolean stopping;
+
+    @Autowired
+    public AsyncIngestServiceImpl(
+            CoindeskApiService coindeskApiService,
+            @Value("${coindesk.ingest.mode:sync}") String mode,
+            @Value("${coindesk.ingest.async.queue-capacity:10000}") int capacity,
+            @Value("${coindesk.ingest.async.batch-size:500}") int batchSize) {
+        this.coindeskApiService = coindeskApiService;
+        this.enabled = MODE_ASYNC.equalsIgnoreCase(mode);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.queue = enabled ? new ArrayBlockingQueue<>(capacity) : null;
+        this.writer = enabled ? Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ingest-writer");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * 啟動寫入執行緒
+     */
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            writer.execute(this::drainLoop);
+        }
+    }
+
+    /**
+     * 停止受理新數據，並等待佇列中的數據寫入完成
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        stopping = true;
+        writer.shutdown();
+        if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+            writer.shutdownNow();
+            log.warn("寫入佇列未於時限內清空，剩餘 {} 筆", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public long submit(CoindeskResponse coindeskResponse) {
+        if (!enabled) {
+            throw new IllegalStateException("未啟用非同步寫入");
+        }
+        if (!BulkIngestServiceImpl.isComplete(coindeskResponse)) {
+            throw new IllegalArgumentException("數據缺少必要欄位");
+        }
+        synchronized (submitLock) {
+            if (stopping) {
+                rejected.incrementAndGet();
+                throw new IngestQueueFullException("寫入佇列已停止受理");
+            }
+            long sequence = acceptedSequence.get() + 1;
+            if (!queue.offer(new Entry(sequence, coindeskResponse, System.nanoTime()))) {
+                rejected.incrementAndGet();
+                throw new IngestQueueFullException("寫入佇列已滿，請稍後重試");
+            }
+            acceptedSequence.set(sequence);
+            return sequence;
+        }
+    }
+
+    @Override
+    public IngestQueueStatus getStatus() {
+        if (!enabled) {
+            return new IngestQueueStatus("sync", 0, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
+        long accepted = acceptedSequence.get();
+        long committed = committedSequence.get();
+        // 數據由佇列取出至標記為寫入中之間的短暫時間內，落後時間為約略值
+        Entry oldest = inFlightHead;
+        if (oldest == null) {
+            oldest = queue.peek();
+        }
+        long lagMillis = oldest != null
+                ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest.enqueuedNanos) : 0;
+        return new IngestQueueStatus(
+                MODE_ASYNC,
+                capacity,
+                queue.size(),
+                accepted,
+                committed,
+                accepted - committed,
+                lagMillis,
+                rejected.get(),
+                failed.get(),
+                batches.get());
+    }
+
+    /**
+     * 寫入執行緒：每次取出目前佇列中的數據 (最多 batchSize 筆) 以單一交易寫入
+     */
+    private void drainLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (true) {
+            Entry first;
+            try {
+                first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                if (stopping) {
+                    return;
+                }
+                continue;
+            }
+            inFlightHead = first;
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Entry> batch) {
+        List<CoindeskResponse> records = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            records.add(entry.data);
+        }
+        try {
+            coindeskApiService.saveCoindeskDataSequence(records);
+            batches.incrementAndGet();
+        } catch (RuntimeException e) {
+            // 整批失敗時改為逐筆寫入，避免單筆錯誤數據拖累同批其他數據
+            log.warn("批次寫入失敗，改為逐筆寫入，共 {} 筆", batch.size(), e);
+            for (Entry entry : batch) {
+                try {
+                    coindeskApiService.saveCoindeskDataSequence(Collections.singletonList(entry.data));
+                } catch (RuntimeException single) {
+                    failed.incrementAndGet();
+                    log.error("序號 {} 的數據寫入失敗", entry.sequence, single);
+                }
+            }
+        }
+        committedSequence.set(batch.get(batch.size() - 1).sequence);
+        inFlightHead = null;
+    }
+
+    /**
+     * 佇列中的一筆數據
+     */
+    private static final class Entry {
+        private final long sequence;
+        private final CoindeskResponse data;
+        private final long enqueuedNanos;
+
+        private Entry(long sequence, CoindeskResponse data, long enqueuedNanos) {
+            this.sequence = sequence;
+            this.data = data;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.coindesk.service.impl;
+
+import com.coindesk.dto.BulkIngestResult;
+import com.coindesk.dto.coindesk.CoindeskResponse;
+import com.coindesk.service.BulkIngestService;
+import com.coindesk.service.CoindeskApiService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class BulkIngestServiceImpl implements BulkIngestService {
+
+    private final CoindeskApiService coindeskApiService;
+    private final ObjectMapper objectMapper;
+    private final int defaultChunkSize;
+
+    @Autowired
+    public BulkIngestServiceImpl(
+            CoindeskApiService coindeskApiService,
+            ObjectMapper objectMapper,
+            @Value("${coindesk.ingest.bulk.chunk-size:500}") int defaultChunkSize) {
+        this.coindeskApiService = coindeskApiService;
+        this.objectMapper = objectMapper;
+        this.defaultChunkSize = defaultChunkSize;
+    }
+
+    @Override
+    public BulkIngestResult ingest(InputStream inputStream, Integer chunkSize) {
+        int size = chunkSize != null ? chunkSize : defaultChunkSize;
+        if (size <= 0) {
+            throw new IllegalArgumentException("chunkSize 必須大於 0");
+        }
+
+        BulkIngestResult result = new BulkIngestResult();
+        long start = System.nanoTime();
+        List<CoindeskResponse> chunk = new ArrayList<>(size);
+        int chunkInvalid = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            JsonToken token = parser.nextToken();
+            // JSON 陣列時逐一讀取元素，否則視為 NDJSON (根層級連續多個物件)
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            while (token != null && token != JsonToken.END_ARRAY) {
+                result.setTotalRecords(result.getTotalRecords() + 1);
+                JsonNode node = parser.readValueAsTree();
+                CoindeskResponse record = toValidRecord(node);
+                if (record != null) {
+                    chunk.add(record);
+                } else {
+                    chunkInvalid++;
+                }
+
+                if (chunk.size() + chunkInvalid >= size) {
+                    commitChunk(result, chunk, chunkInvalid);
+                    chunk = new ArrayList<>(size);
+                    chunkInvalid = 0;
+                }
+                token = parser.nextToken();
+            }
+        } catch (IOException e) {
+            // JSON 語法錯誤無法繼續解析，已提交的批次保留
+            result.setErrorMessage("無法解析匯入內容: " + e.getMessage());
+        }
+
+        if (!chunk.isEmpty() || chunkInvalid > 0) {
+            commitChunk(result, chunk, chunkInvalid);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        result.setElapsedMillis(elapsedNanos / 1_000_000);
+        result.setRecordsPerSecond(perSecond(result.getSucceededRecords(), elapsedNanos));
+        return result;
+    }
+
+    /**
+     * 以單一交易提交一批數據，失敗時整批計為失敗
+     */
+    private void commitChunk(BulkIngestResult result, List<CoindeskResponse> chunk, int invalidRecords) {
+        long start = System.nanoTime();
+        int failed = invalidRecords;
+        String errorMessage = null;
+        try {
+            coindeskApiService.saveCoindeskDataBatch(chunk);
+            result.setSucceededRecords(result.getSucceededRecords() + chunk.size());
+        } catch (RuntimeException e) {
+            failed += chunk.size();
+            errorMessage = e.getMessage();
+        }
+        result.setFailedRecords(result.getFailedRecords() + failed);
+
+        long elapsedNanos = System.nanoTime() - start;
+        int records = chunk.size() + invalidRecords;
+        result.getChunks().add(new BulkIngestResult.ChunkResult(
+                result.getChunks().size(),
+                records,
+                failed,
+                elapsedNanos / 1_000_000,
+                perSecond(records - failed, elapsedNanos),
+                errorMessage));
+    }
+
+    /**
+     * 轉換並驗證單筆數據，缺少必要欄位或格式錯誤時回傳 null
+     */
+    private CoindeskResponse toValidRecord(JsonNode node) {
+        if (node == null || !node.isObject()) {
+            return null;
+        }
+        try {
+            CoindeskResponse record = objectMapper.treeToValue(node, CoindeskResponse.class);
+            return isComplete(record) ? record : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 檢查數據是否具備寫入所需的欄位 (更新時間與每個幣別的匯率)
+     */
+    static boolean isComplete(CoindeskResponse record) {
+        if (record == null
+                || record.getTime() == null
+                || record.getTime().getUpdated() == null
+                || record.getTime().getUpdatedISO() == null
+                || record.getBpi() == null
+                || record.getBpi().isEmpty()) {
+            return false;
+        }
+        for (CoindeskResponse.CurrencyInfo info : record.getBpi().values()) {
+            if (info == null || info.getRate() == null || info.getRateFloat() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double perSecond(long count, long elapsedNanos) {
+        return elapsedNanos > 0 ? count / (elapsedNanos / 1_000_000_000.0) : 0;
+    }
+}
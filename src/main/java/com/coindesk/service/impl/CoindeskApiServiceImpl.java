@@ -1,143 +1,837 @@
 package com.coindesk.service.impl;
 
+import com.coindesk.cache.CurrencyDictionary;
 import com.coindesk.dto.CustomCurrencyResponse;
+import com.coindesk.dto.IngestStatsResponse;
 import com.coindesk.dto.coindesk.CoindeskResponse;
 import com.coindesk.entity.CoindeskDataEntity;
 import com.coindesk.entity.CurrencyEntity;
 import com.coindesk.entity.ExchangeRateEntity;
+import com.coindesk.entity.LatestRateEntity;
+import com.coindesk.entity.ProjectionStateEntity;
+import com.coindesk.journal.SnapshotCodec;
+import com.coindesk.journal.SnapshotLog;
 import com.coindesk.repository.CoindeskDataRepository;
 import com.coindesk.repository.CurrencyRepository;
 import com.coindesk.repository.ExchangeRateRepository;
+import com.coindesk.repository.LatestRateRepository;
+import com.coindesk.repository.ProjectionStateRepository;
 import com.coindesk.service.CoindeskApiService;
+import com.coindesk.snapshot.CoindeskSnapshot;
+import com.coindesk.snapshot.RatesCommittedEvent;
+import com.coindesk.snapshot.SnapshotPublishedEvent;
+import com.coindesk.snapshot.TransformedView;
+import com.coindesk.util.DateTimeUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PreDestroy;
 import java.io.IOException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.TimeZone;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
-public class CoindeskApiServiceImpl implements CoindeskApiService {
+public class CoindeskApiServiceImpl implements CoindeskApiService, SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(CoindeskApiServiceImpl.class);
+    // 非同步投影佇列容量，滿了寫入端等待空位以形成背壓
+    private static final int PROJECTION_QUEUE_CAPACITY = 10000;
+    // 投影失敗的重試間隔，每次加倍至上限
+    private static final long PROJECTION_RETRY_INITIAL_MS = 500L;
+    private static final long PROJECTION_RETRY_MAX_MS = 30000L;
+    // PROJECTION_STATE 中記錄快照日誌投影進度的名稱
+    private static final String PROJECTION_NAME = "snapshot-log";
+    // 啟動時重新投影，每個交易的日誌紀錄筆數
+    private static final int REPLAY_BATCH_SIZE = 500;
 
     private final CurrencyRepository currencyRepository;
     private final CoindeskDataRepository coindeskDataRepository;
     private final ExchangeRateRepository exchangeRateRepository;
+    private final LatestRateRepository latestRateRepository;
+    private final ProjectionStateRepository projectionStateRepository;
+    private final CurrencyDictionary currencyDictionary;
     private final ObjectMapper objectMapper;
-    private CoindeskResponse cachedResponse;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    // 持久化模式為 log 時的快照日誌，否則為 null
+    private final SnapshotLog snapshotLog;
+    // 將日誌內容非同步投影至資料庫的單一執行緒，僅於 log 模式建立
+    private final ExecutorService projectionExecutor;
+    // 最新快照，所有讀取皆由此取得，不需加鎖
+    private final AtomicReference<CoindeskSnapshot> snapshotRef = new AtomicReference<>();
+    // 冷啟動載入鎖，確保只載入一次
+    private final Object coldLoadLock = new Object();
+    // 預先計算的轉換視圖，重建時序列化以免舊數據覆蓋新數據
+    private final AtomicReference<TransformedView> transformedViewRef = new AtomicReference<>();
+    private final Object viewRebuildLock = new Object();
+    private final AtomicLong viewRevision = new AtomicLong();
+    // 去重比較基準：最近一次寫入 (或由資料庫、日誌載入) 的數據，範例數據與檢查點不作為基準
+    private final AtomicReference<CoindeskSnapshot> lastIngestedRef = new AtomicReference<>();
+    // 寫入鎖：讀取基準、比較、保存到更新基準須一次完成，否則併發寫入會與過時的基準比較
+    private final Object ingestLock = new Object();
+    // 寫入與去重統計
+    private final AtomicLong ingestReceived = new AtomicLong();
+    private final AtomicLong duplicatesSkipped = new AtomicLong();
+    private final AtomicLong recordsWritten = new AtomicLong();
+    private final AtomicLong ratesWritten = new AtomicLong();
+    private final AtomicLong ratesSkipped = new AtomicLong();
+    // 監控指標：寫入、冷啟動載入與讀取路徑的耗時，以及快照讀取的命中次數
+    private final Timer sequenceIngestTimer;
+    private final Timer batchIngestTimer;
+    private final Map<SnapshotSource, Timer> snapshotLoadTimers = new EnumMap<>(SnapshotSource.class);
+    private final Map<SnapshotSource, Timer> originalReadTimers = new EnumMap<>(SnapshotSource.class);
+    private final Timer cachedViewTimer;
+    private final Timer rebuiltViewTimer;
+    private final Counter snapshotHits;
+    private final Counter snapshotMisses;
+    // 最近一次冷啟動載入的數據來源
+    private volatile SnapshotSource coldLoadSource;
+    
+    /**
+     * 快照的數據來源：已發布的快照 (快取)、快照日誌、資料庫或範例數據文件
+     */
+    private enum SnapshotSource {
+        CACHE, LOG, DATABASE, CLASSPATH;
+        
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
     
     @Autowired
     public CoindeskApiServiceImpl(
-            RestTemplate restTemplate,
             CurrencyRepository currencyRepository,
             CoindeskDataRepository coindeskDataRepository,
             ExchangeRateRepository exchangeRateRepository,
-            @Value("${coindesk.api.url}") String coindeskApiUrl) {
+            LatestRateRepository latestRateRepository,
+            ProjectionStateRepository projectionStateRepository,
+            CurrencyDictionary currencyDictionary,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            ObjectProvider<SnapshotLog> snapshotLogProvider,
+            MeterRegistry meterRegistry) {
         this.currencyRepository = currencyRepository;
         this.coindeskDataRepository = coindeskDataRepository;
         this.exchangeRateRepository = exchangeRateRepository;
+        this.latestRateRepository = latestRateRepository;
+        this.projectionStateRepository = projectionStateRepository;
+        this.currencyDictionary = currencyDictionary;
         this.objectMapper = new ObjectMapper();
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotLog = snapshotLogProvider != null ? snapshotLogProvider.getIfAvailable() : null;
+        this.projectionExecutor = snapshotLog != null ? createProjectionExecutor() : null;
+        
+        this.sequenceIngestTimer = timer(meterRegistry, "coindesk.ingest.save", "mode", "sequence",
+                "依序寫入 (單筆或非同步佇列批次) 的耗時");
+        this.batchIngestTimer = timer(meterRegistry, "coindesk.ingest.save", "mode", "batch",
+                "批次匯入的耗時");
+        for (SnapshotSource source : SnapshotSource.values()) {
+            if (source != SnapshotSource.CACHE) {
+                snapshotLoadTimers.put(source, timer(meterRegistry, "coindesk.snapshot.load", "source", source.tag(),
+                        "冷啟動載入快照的耗時"));
+            }
+            originalReadTimers.put(source, timer(meterRegistry, "coindesk.read.original", "source", source.tag(),
+                    "取得原始格式數據的耗時"));
+        }
+        this.cachedViewTimer = timer(meterRegistry, "coindesk.read.transformed", "view", "cached",
+                "取得轉換視圖的耗時");
+        this.rebuiltViewTimer = timer(meterRegistry, "coindesk.read.transformed", "view", "rebuilt",
+                "取得轉換視圖的耗時");
+        this.snapshotHits = Counter.builder("coindesk.snapshot.requests").tag("result", "hit")
+                .description("快照讀取次數").register(meterRegistry);
+        this.snapshotMisses = Counter.builder("coindesk.snapshot.requests").tag("result", "miss")
+                .description("快照讀取次數").register(meterRegistry);
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String tagKey, String tagValue, String description) {
+        return Timer.builder(name)
+                .tag(tagKey, tagValue)
+                .description(description)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * 單一執行緒依日誌順序投影；佇列滿時寫入端等待空位，不自行投影，避免投影亂序或併發
+     */
+    private static ExecutorService createProjectionExecutor() {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(PROJECTION_QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "snapshot-projection");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> {
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("快照投影已停止");
+                    }
+                    try {
+                        executor.getQueue().put(task);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("等待快照投影佇列時被中斷", e);
+                    }
+                });
+    }
+
+    /**
+     * log 模式啟動時，在開始服務前將資料庫尚未投影的日誌紀錄依序重新投影
+     * (上次關閉時仍在佇列或重試中的紀錄，或資料庫為內存資料庫時的全部紀錄)
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (snapshotLog != null) {
+            replaySnapshotLog();
+        }
+    }
+
+    /**
+     * 關閉前等待尚未完成的投影寫入資料庫，逾時未完成的紀錄於下次啟動時由日誌重新投影
+     */
+    @PreDestroy
+    public void shutdownProjection() throws InterruptedException {
+        if (projectionExecutor != null) {
+            projectionExecutor.shutdown();
+            if (!projectionExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("快照投影未於時限內完成，剩餘 {} 筆", projectionExecutor.shutdownNow().size());
+            }
+        }
     }
 
     @Override
     public CoindeskResponse getOriginalCoindeskData() {
-        if (cachedResponse != null) {
-            return cachedResponse;
+        long start = System.nanoTime();
+        boolean cached = snapshotRef.get() != null;
+        CoindeskResponse response = getSnapshot().toResponse();
+        // 未命中但由其他執行緒或檢查點完成載入時，視同命中快取
+        SnapshotSource source = cached || coldLoadSource == null ? SnapshotSource.CACHE : coldLoadSource;
+        originalReadTimers.get(source).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return response;
+    }
+
+    @Override
+    public CoindeskSnapshot getSnapshot() {
+        CoindeskSnapshot snapshot = snapshotRef.get();
+        if (snapshot != null) {
+            snapshotHits.increment();
+            return snapshot;
         }
-        
-        // 先從數據庫查詢最新記錄
-        Optional<CoindeskDataEntity> latestData = coindeskDataRepository.findLatest();
-        if (latestData.isPresent()) {
-            CoindeskDataEntity entity = latestData.get();
-            List<ExchangeRateEntity> rates = exchangeRateRepository.findByCoindeskData(entity);
-            
-            if (!rates.isEmpty()) {
-                return convertToCoindeskResponse(entity, rates);
+        snapshotMisses.increment();
+        synchronized (coldLoadLock) {
+            snapshot = snapshotRef.get();
+            if (snapshot != null) {
+                return snapshot;
             }
+            // 僅在尚未發布任何快照時載入；若期間已有新數據發布則以新數據為準
+            CoindeskSnapshot loaded = loadInitialSnapshot().withVersion(1L);
+            return snapshotRef.compareAndSet(null, loaded) ? loaded : snapshotRef.get();
+        }
+    }
+
+    /**
+     * 冷啟動時載入數據：log 模式優先取日誌最後一筆，其次資料庫最新記錄，否則讀取範例數據文件
+     * 由日誌或資料庫載入的數據同時作為去重比較基準
+     */
+    private CoindeskSnapshot loadInitialSnapshot() {
+        long start = System.nanoTime();
+        CoindeskSnapshot logTail = readLogTail();
+        if (logTail != null) {
+            lastIngestedRef.compareAndSet(null, logTail);
+            return loaded(SnapshotSource.LOG, start, logTail);
+        }
+        
+        CoindeskSnapshot latest = readDatabaseLatest();
+        if (latest != null) {
+            lastIngestedRef.compareAndSet(null, latest);
+            return loaded(SnapshotSource.DATABASE, start, latest);
         }
         
         try {
             // 從靜態文件讀取 JSON 數據
             ClassPathResource resource = new ClassPathResource("static/sample-data.json");
-            cachedResponse = objectMapper.readValue(resource.getInputStream(), CoindeskResponse.class);
-            return cachedResponse;
+            CoindeskSnapshot sample = CoindeskSnapshot.of(0L,
+                    objectMapper.readValue(resource.getInputStream(), CoindeskResponse.class));
+            return loaded(SnapshotSource.CLASSPATH, start, sample);
         } catch (IOException e) {
             throw new RuntimeException("無法讀取範例數據文件", e);
         }
     }
+
+    /**
+     * 記錄冷啟動載入的來源與耗時
+     */
+    private CoindeskSnapshot loaded(SnapshotSource source, long startNanos, CoindeskSnapshot snapshot) {
+        snapshotLoadTimers.get(source).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        coldLoadSource = source;
+        log.info("冷啟動由 {} 載入快照", source.tag());
+        return snapshot;
+    }
+
+    /**
+     * @return 快照日誌最後一筆，非 log 模式、日誌為空或無法解碼時為 null
+     */
+    private CoindeskSnapshot readLogTail() {
+        if (snapshotLog == null) {
+            return null;
+        }
+        SnapshotLog.Record last = snapshotLog.readLast();
+        if (last == null) {
+            return null;
+        }
+        try {
+            return SnapshotCodec.decode(last.getPayload(), 0L);
+        } catch (IOException e) {
+            log.warn("無法解碼快照日誌第 {} 筆紀錄，改由資料庫載入", last.getSequence(), e);
+            return null;
+        }
+    }
+
+    /**
+     * @return 資料庫最新記錄，匯率取各幣別最新的一筆 (每筆記錄只保存有變動的匯率)；沒有數據時為 null
+     */
+    private CoindeskSnapshot readDatabaseLatest() {
+        Optional<CoindeskDataEntity> latestData = coindeskDataRepository.findLatest();
+        if (!latestData.isPresent()) {
+            return null;
+        }
+        List<ExchangeRateEntity> rates = new ArrayList<>();
+        for (LatestRateEntity latestRate : latestRateRepository.findAllWithRates()) {
+            rates.add(latestRate.getExchangeRate());
+        }
+        return rates.isEmpty() ? null : CoindeskSnapshot.of(0L, convertToCoindeskResponse(latestData.get(), rates));
+    }
+
+    @Override
+    public void restoreSnapshot(CoindeskSnapshot snapshot) {
+        // 檢查點可能落後於已保存的數據 (寫入後、下一次檢查點前中止)：
+        // log 模式取日誌最後一筆，否則取資料庫最新記錄，與檢查點相同或較新時以其為準
+        CoindeskSnapshot persisted = readLogTail();
+        if (persisted == null) {
+            persisted = readDatabaseLatest();
+        }
+        CoindeskSnapshot restored = snapshot;
+        if (persisted != null && (restored.getUpdatedAt() == null || (persisted.getUpdatedAt() != null
+                && !persisted.getUpdatedAt().isBefore(restored.getUpdatedAt())))) {
+            restored = persisted;
+        }
+        
+        // 與冷啟動載入相同，只在尚未發布任何快照時生效；
+        // 檢查點可能是範例數據或未保存的數據，只有已保存的數據作為去重基準
+        synchronized (coldLoadLock) {
+            if (snapshotRef.compareAndSet(null, restored.withVersion(1L))) {
+                if (persisted != null) {
+                    lastIngestedRef.compareAndSet(null, persisted);
+                }
+                rebuildTransformedView();
+            }
+        }
+    }
+
+    /**
+     * 發布新快照，版本號以 CAS 方式遞增，確保併發發布時版本單調
+     */
+    private void publishSnapshot(CoindeskSnapshot candidate) {
+        publishSnapshot(candidate, false);
+    }
+
+    /**
+     * 發布新快照
+     * @param onlyIfNewer 為 true 時，若目前快照的更新時間較新則不發布 (用於回補歷史數據)
+     */
+    private void publishSnapshot(CoindeskSnapshot candidate, boolean onlyIfNewer) {
+        Instant candidateTime = candidate.getUpdatedAt();
+        while (true) {
+            CoindeskSnapshot previous = snapshotRef.get();
+            if (onlyIfNewer && previous != null && candidateTime != null) {
+                Instant previousTime = previous.getUpdatedAt();
+                if (previousTime != null && previousTime.isAfter(candidateTime)) {
+                    return;
+                }
+            }
+            long nextVersion = previous != null ? previous.getVersion() + 1 : 1L;
+            CoindeskSnapshot published = candidate.withVersion(nextVersion);
+            if (snapshotRef.compareAndSet(previous, published)) {
+                rebuildTransformedView();
+                eventPublisher.publishEvent(new SnapshotPublishedEvent(published));
+                return;
+            }
+        }
+    }
+
+    /**
+     * 交易提交後才執行，避免讀取端看到會被回滾的數據；無交易時立即執行
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
     
     @Override
-    @Transactional
     public void saveCoindeskData(CoindeskResponse coindeskResponse) {
-        // 儲存到快取
-        this.cachedResponse = coindeskResponse;
-        
-        // 創建並保存 CoindeskData 實體
-        CoindeskDataEntity coindeskEntity = new CoindeskDataEntity();
-        coindeskEntity.setUpdatedTime(coindeskResponse.getTime().getUpdated());
-        coindeskEntity.setUpdatedIso(coindeskResponse.getTime().getUpdatedISO());
-        coindeskEntity.setUpdatedUk(coindeskResponse.getTime().getUpdateduk());
-        coindeskEntity.setDisclaimer(coindeskResponse.getDisclaimer());
-        coindeskEntity.setChartName(coindeskResponse.getChartName());
-        coindeskEntity.setCreateTime(LocalDateTime.now());
+        saveCoindeskDataSequence(Collections.singletonList(coindeskResponse));
+    }
+
+    @Override
+    public void saveCoindeskDataSequence(List<CoindeskResponse> sequence) {
+        if (sequence.isEmpty()) {
+            return;
+        }
+        sequenceIngestTimer.record(() -> ingestSequence(sequence));
+    }
+
+    private void ingestSequence(List<CoindeskResponse> sequence) {
+        ingestReceived.addAndGet(sequence.size());
+        synchronized (ingestLock) {
+            ingestSequenceLocked(sequence);
+        }
+    }
+
+    private void ingestSequenceLocked(List<CoindeskResponse> sequence) {
+        // 依序與前一筆比較：完全相同的略過，其餘只寫入匯率有變動的幣別，事件也只帶有實際寫入的匯率；
+        // 比基準舊的數據視為回補，全部寫入且不更新基準
+        CoindeskSnapshot baseline = lastIngestedRef.get();
+        List<CoindeskResponse> sources = new ArrayList<>(sequence.size());
+        List<CoindeskSnapshot> accepted = new ArrayList<>(sequence.size());
+        List<Set<String>> changedCodes = new ArrayList<>(sequence.size());
+        List<CoindeskSnapshot> committed = new ArrayList<>(sequence.size());
+        CoindeskSnapshot newest = null;
+        CoindeskSnapshot newestBackfill = null;
+        long skipped = 0;
+        for (CoindeskResponse coindeskResponse : sequence) {
+            // 先複製成快照，避免呼叫端之後修改輸入物件
+            CoindeskSnapshot candidate = CoindeskSnapshot.of(0L, coindeskResponse);
+            if (candidate.equals(baseline)) {
+                duplicatesSkipped.incrementAndGet();
+                continue;
+            }
+            boolean backfill = isNewer(baseline, candidate);
+            Set<String> changed = backfill
+                    ? new LinkedHashSet<>(candidate.getRates().keySet())
+                    : changedRateCodes(baseline, candidate);
+            sources.add(coindeskResponse);
+            accepted.add(candidate);
+            changedCodes.add(changed);
+            committed.add(candidate.retainRates(changed));
+            skipped += candidate.getRates().size() - changed.size();
+            if (backfill) {
+                if (newestBackfill == null || !isNewer(newestBackfill, candidate)) {
+                    newestBackfill = candidate;
+                }
+            } else {
+                baseline = candidate;
+                newest = candidate;
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
         
-        CoindeskDataEntity savedCoindeskEntity = coindeskDataRepository.save(coindeskEntity);
+        // 全部都是回補時只在沒有更新的快照時發布，與 LATEST_RATE 只前進不後退一致
+        boolean onlyIfNewer = newest == null;
+        CoindeskSnapshot published = onlyIfNewer ? newestBackfill : newest;
+        long skippedRates = skipped;
+        if (snapshotLog != null) {
+            // 寫入日誌即視為提交，資料庫改由背景投影
+            long lastSequence = appendToLog(accepted);
+            onCommitted(published, committed, onlyIfNewer, skippedRates);
+            projectAsync(lastSequence, toResponses(accepted), changedCodes);
+            return;
+        }
         
-        // 儲存幣別和匯率資訊
-        Map<String, CoindeskResponse.CurrencyInfo> bpiMap = coindeskResponse.getBpi();
-        for (Map.Entry<String, CoindeskResponse.CurrencyInfo> entry : bpiMap.entrySet()) {
-            String code = entry.getKey();
-            CoindeskResponse.CurrencyInfo currencyInfo = entry.getValue();
-            
-            // 處理幣別實體
-            CurrencyEntity currencyEntity = processCurrencyEntity(code, currencyInfo);
-            
-            // 創建並保存匯率實體
-            ExchangeRateEntity rateEntity = new ExchangeRateEntity();
-            rateEntity.setCoindeskData(savedCoindeskEntity);
-            rateEntity.setCurrency(currencyEntity);
-            rateEntity.setSymbol(currencyInfo.getSymbol());
-            rateEntity.setRate(currencyInfo.getRate());
-            rateEntity.setRateFloat(currencyInfo.getRateFloat());
+        // 交易於 executeWithoutResult 返回前提交，提交後的基準更新仍在寫入鎖內
+        transactionTemplate.executeWithoutResult(status -> {
+            persistBatch(sources, changedCodes);
             
-            exchangeRateRepository.save(rateEntity);
+            // 交易提交後才發布快照並通知其他元件
+            afterCommit(() -> onCommitted(published, committed, onlyIfNewer, skippedRates));
+        });
+    }
+
+    @Override
+    public void saveCoindeskDataBatch(List<CoindeskResponse> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchIngestTimer.record(() -> ingestBatch(batch));
+    }
+
+    private void ingestBatch(List<CoindeskResponse> batch) {
+        ingestReceived.addAndGet(batch.size());
+        synchronized (ingestLock) {
+            ingestBatchLocked(batch);
+        }
+    }
+
+    private void ingestBatchLocked(List<CoindeskResponse> batch) {
+        // 批次數據多為回補歷史，順序不一定，因此不做去重，全部寫入
+        List<CoindeskSnapshot> committed = new ArrayList<>(batch.size());
+        CoindeskSnapshot newest = null;
+        for (CoindeskResponse coindeskResponse : batch) {
+            CoindeskSnapshot candidate = CoindeskSnapshot.of(0L, coindeskResponse);
+            committed.add(candidate);
+            Instant updatedTime = candidate.getUpdatedAt();
+            if (newest == null || (updatedTime != null
+                    && (newest.getUpdatedAt() == null || !updatedTime.isBefore(newest.getUpdatedAt())))) {
+                newest = candidate;
+            }
+        }
+        
+        // 只發布本批最新的一筆，且不覆蓋更新的現有快照
+        CoindeskSnapshot newestCandidate = newest;
+        if (snapshotLog != null) {
+            long lastSequence = appendToLog(committed);
+            onCommitted(newestCandidate, committed, true, 0L);
+            projectAsync(lastSequence, toResponses(committed), null);
+            return;
+        }
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            persistBatch(batch, null);
+            afterCommit(() -> onCommitted(newestCandidate, committed, true, 0L));
+        });
+    }
+
+    /**
+     * 數據提交後更新去重基準與統計、發布快照並通知其他元件，須持有寫入鎖
+     * @param newest 要發布的快照
+     * @param committed 實際寫入的數據
+     * @param onlyIfNewer 為 true 時不覆蓋更新的現有快照 (用於回補歷史)
+     * @param skippedRates 因未變動而未寫入的匯率筆數
+     */
+    private void onCommitted(
+            CoindeskSnapshot newest, List<CoindeskSnapshot> committed, boolean onlyIfNewer, long skippedRates) {
+        // 基準只前進不後退，與 LATEST_RATE 的更新規則相同
+        lastIngestedRef.accumulateAndGet(newest, (current, candidate) -> isNewer(current, candidate) ? current : candidate);
+        recordsWritten.addAndGet(committed.size());
+        for (CoindeskSnapshot snapshot : committed) {
+            ratesWritten.addAndGet(snapshot.getRates().size());
+        }
+        ratesSkipped.addAndGet(skippedRates);
+        
+        publishSnapshot(newest, onlyIfNewer);
+        eventPublisher.publishEvent(new RatesCommittedEvent(committed));
+    }
+
+    /**
+     * @return current 的更新時間是否晚於 candidate
+     */
+    private static boolean isNewer(CoindeskSnapshot current, CoindeskSnapshot candidate) {
+        return current != null && current.getUpdatedAt() != null && candidate.getUpdatedAt() != null
+                && current.getUpdatedAt().isAfter(candidate.getUpdatedAt());
+    }
+
+    /**
+     * 找出與基準相比 rate_float 有變動 (含新增) 的幣別
+     * @param baseline 比較基準，為 null 時視為全部變動
+     */
+    private static Set<String> changedRateCodes(CoindeskSnapshot baseline, CoindeskSnapshot candidate) {
+        Set<String> changed = new LinkedHashSet<>();
+        for (Map.Entry<String, CoindeskSnapshot.Rate> entry : candidate.getRates().entrySet()) {
+            CoindeskSnapshot.Rate previous = baseline != null ? baseline.getRates().get(entry.getKey()) : null;
+            if (previous == null || !Objects.equals(previous.getRateFloat(), entry.getValue().getRateFloat())) {
+                changed.add(entry.getKey());
+            }
         }
+        return changed;
+    }
+
+    @Override
+    public IngestStatsResponse getIngestStats() {
+        return new IngestStatsResponse(
+                ingestReceived.get(),
+                duplicatesSkipped.get(),
+                recordsWritten.get(),
+                ratesWritten.get(),
+                ratesSkipped.get());
+    }
+
+    /**
+     * 在同一交易中保存多筆數據，所有數據的幣別只查詢與更新一次
+     * @param rateCodes 各筆數據要寫入匯率的幣別代碼，與 batch 順序相同；為 null 時寫入全部匯率
+     */
+    private void persistBatch(List<CoindeskResponse> batch, List<Set<String>> rateCodes) {
+        Map<String, CoindeskResponse.CurrencyInfo> allCurrencies = new LinkedHashMap<>();
+        for (CoindeskResponse coindeskResponse : batch) {
+            allCurrencies.putAll(coindeskResponse.getBpi());
+        }
+        Map<String, CurrencyEntity> currencies = upsertCurrencies(allCurrencies);
+        Map<String, LatestRateEntity> latestRates = loadLatestRates(allCurrencies.keySet());
+        
+        for (int i = 0; i < batch.size(); i++) {
+            CoindeskResponse coindeskResponse = batch.get(i);
+            Set<String> codes = rateCodes != null ? rateCodes.get(i) : coindeskResponse.getBpi().keySet();
+            updateLatestRates(persistCoindeskData(coindeskResponse, currencies, codes), latestRates);
+            if (codes.size() < coindeskResponse.getBpi().size()) {
+                confirmLatestRates(coindeskResponse, codes, latestRates);
+            }
+        }
+    }
+
+    /**
+     * 將快照依序附加至日誌
+     * @return 最後一筆的日誌序號
+     */
+    private long appendToLog(List<CoindeskSnapshot> snapshots) {
+        try {
+            long lastSequence = 0L;
+            for (CoindeskSnapshot snapshot : snapshots) {
+                lastSequence = snapshotLog.append(SnapshotCodec.encode(snapshot));
+            }
+            return lastSequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("無法寫入快照日誌", e);
+        }
+    }
+
+    private static List<CoindeskResponse> toResponses(List<CoindeskSnapshot> snapshots) {
+        List<CoindeskResponse> responses = new ArrayList<>(snapshots.size());
+        for (CoindeskSnapshot snapshot : snapshots) {
+            responses.add(snapshot.toResponse());
+        }
+        return responses;
+    }
+
+    /**
+     * 以背景執行緒將已寫入日誌的數據投影至資料庫，並在同一交易中記錄投影進度；
+     * 失敗時等待後重試 (後續的投影依序等待)，不丟棄數據
+     * @param lastSequence 最後一筆數據的日誌序號
+     * @param rateCodes 各筆數據要寫入匯率的幣別代碼，為 null 時寫入全部匯率
+     */
+    private void projectAsync(long lastSequence, List<CoindeskResponse> batch, List<Set<String>> rateCodes) {
+        try {
+            projectionExecutor.execute(() -> projectWithRetry(lastSequence, batch, rateCodes));
+        } catch (RejectedExecutionException e) {
+            // 已寫入日誌，下次啟動時重新投影
+            log.warn("快照投影已停止，日誌第 {} 筆之前的 {} 筆數據於下次啟動時投影", lastSequence, batch.size(), e);
+        }
+    }
+
+    private void projectWithRetry(long lastSequence, List<CoindeskResponse> batch, List<Set<String>> rateCodes) {
+        long delay = PROJECTION_RETRY_INITIAL_MS;
+        while (true) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    persistBatch(batch, rateCodes);
+                    markProjected(lastSequence);
+                });
+                return;
+            } catch (RuntimeException e) {
+                log.error("快照投影至資料庫失敗，共 {} 筆 (日誌序號至 {})，{} ms 後重試",
+                        batch.size(), lastSequence, delay, e);
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                // 關閉中：投影進度未前進，下次啟動時由日誌重新投影
+                Thread.currentThread().interrupt();
+                log.warn("快照投影中止，日誌序號至 {} 的數據於下次啟動時投影", lastSequence);
+                return;
+            }
+            delay = Math.min(delay * 2, PROJECTION_RETRY_MAX_MS);
+        }
+    }
+
+    /**
+     * 在投影的交易中記錄已投影的最後一筆日誌序號 (投影依日誌順序進行)
+     */
+    private void markProjected(long sequence) {
+        ProjectionStateEntity state = projectionStateRepository.findById(PROJECTION_NAME).orElse(null);
+        if (state == null) {
+            projectionStateRepository.save(new ProjectionStateEntity(PROJECTION_NAME, sequence));
+        } else {
+            state.setLastSequence(sequence);
+        }
+    }
+
+    /**
+     * 將投影進度之後的日誌紀錄依序寫入資料庫：與前一筆相比只寫入有變動的匯率，比前一筆舊的視為回補全部寫入
+     * 資料庫原本沒有數據時 (例如內存資料庫重新啟動)，同時通知其他元件以重建 K 線；
+     * 否則 K 線已於上次寫入日誌時維護，只補上匯率
+     */
+    private void replaySnapshotLog() {
+        long start = System.nanoTime();
+        Long stored = transactionTemplate.execute(status -> projectionStateRepository.findById(PROJECTION_NAME)
+                .map(ProjectionStateEntity::getLastSequence).orElse(0L));
+        long projected = stored != null ? stored : 0L;
+        if (projected >= snapshotLog.getNextSequence()) {
+            log.warn("投影進度 {} 超過快照日誌的最後序號 {}，日誌可能已重建，由頭重新投影",
+                    projected, snapshotLog.getNextSequence() - 1);
+            projected = 0L;
+        }
+
+        List<SnapshotLog.Record> records;
+        try {
+            records = snapshotLog.readAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException("無法讀取快照日誌", e);
+        }
+        CoindeskSnapshot baseline = readDatabaseLatest();
+        boolean rebuild = baseline == null;
+        List<CoindeskSnapshot> pending = new ArrayList<>(REPLAY_BATCH_SIZE);
+        List<Set<String>> pendingCodes = new ArrayList<>(REPLAY_BATCH_SIZE);
+        long replayed = 0;
+        for (SnapshotLog.Record record : records) {
+            if (record.getSequence() <= projected) {
+                continue;
+            }
+            CoindeskSnapshot snapshot;
+            try {
+                snapshot = SnapshotCodec.decode(record.getPayload(), 0L);
+            } catch (IOException e) {
+                log.warn("無法解碼快照日誌第 {} 筆紀錄，略過", record.getSequence(), e);
+                continue;
+            }
+            if (!snapshot.equals(baseline)) {
+                boolean backfill = isNewer(baseline, snapshot);
+                pending.add(snapshot);
+                pendingCodes.add(backfill
+                        ? new LinkedHashSet<>(snapshot.getRates().keySet())
+                        : changedRateCodes(baseline, snapshot));
+                if (!backfill) {
+                    baseline = snapshot;
+                }
+            }
+            if (pending.size() == REPLAY_BATCH_SIZE) {
+                replayed += replayBatch(record.getSequence(), pending, pendingCodes, rebuild);
+            }
+        }
+        if (!records.isEmpty() && records.get(records.size() - 1).getSequence() > projected) {
+            replayed += replayBatch(records.get(records.size() - 1).getSequence(), pending, pendingCodes, rebuild);
+        }
+        log.info("快照日誌重新投影 {} 筆 (投影進度 {})，耗時 {} ms",
+                replayed, projected, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 在同一交易中寫入並記錄投影進度，完成後清空待寫入的數據
+     * @return 寫入的筆數
+     */
+    private int replayBatch(long lastSequence, List<CoindeskSnapshot> pending, List<Set<String>> pendingCodes,
+                            boolean rebuild) {
+        List<CoindeskResponse> batch = toResponses(pending);
+        List<Set<String>> codes = new ArrayList<>(pendingCodes);
+        transactionTemplate.executeWithoutResult(status -> {
+            persistBatch(batch, codes);
+            markProjected(lastSequence);
+        });
+        if (rebuild && !pending.isEmpty()) {
+            List<CoindeskSnapshot> committed = new ArrayList<>(pending.size());
+            for (int i = 0; i < pending.size(); i++) {
+                committed.add(pending.get(i).retainRates(codes.get(i)));
+            }
+            eventPublisher.publishEvent(new RatesCommittedEvent(committed));
+        }
+        pending.clear();
+        pendingCodes.clear();
+        return batch.size();
     }
 
     @Override
     public CustomCurrencyResponse getTransformedCoindeskData() {
-        CoindeskResponse originalData = getOriginalCoindeskData();
+        return getTransformedView().getResponse();
+    }
+
+    @Override
+    public TransformedView getTransformedView() {
+        long start = System.nanoTime();
+        TransformedView view = transformedViewRef.get();
+        if (view != null) {
+            cachedViewTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return view;
+        }
+        view = rebuildTransformedView();
+        rebuiltViewTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return view;
+    }
+
+    @Override
+    public void refreshTransformedView() {
+        rebuildTransformedView();
+    }
+
+    /**
+     * 以最新快照重建轉換視圖
+     */
+    private TransformedView rebuildTransformedView() {
+        synchronized (viewRebuildLock) {
+            CoindeskSnapshot snapshot = getSnapshot();
+            TransformedView view = new TransformedView(
+                    snapshot.getVersion(), viewRevision.incrementAndGet(), transform(snapshot));
+            transformedViewRef.set(view);
+            return view;
+        }
+    }
+
+    /**
+     * 將快照轉換為自訂格式，幣別中文名稱由幣別字典取得
+     */
+    private CustomCurrencyResponse transform(CoindeskSnapshot snapshot) {
+        // 格式化時間為要求的格式 (1990/01/01 00:00:00)，時間已於寫入時解析為 Instant
+        String formattedTime = snapshot.getUpdatedAt() != null
+                ? DateTimeUtils.formatDisplay(snapshot.getUpdatedAt())
+                : snapshot.getUpdatedIso();
         
-        // 格式化時間為要求的格式 (1990/01/01 00:00:00)
-        String formattedTime = formatDateTime(originalData.getTime().getUpdatedISO());
+        // 從幣別字典取得所有幣別中文名稱，未快取的幣別以單次查詢載入
+        Map<String, String> chineseNames = new HashMap<>();
+        for (CurrencyEntity currency : currencyDictionary.getAll(snapshot.getRates().keySet()).values()) {
+            chineseNames.put(currency.getCode(), currency.getChineseName());
+        }
         
         // 組合幣別資訊
         List<CustomCurrencyResponse.CurrencyInfo> currencyInfoList = new ArrayList<>();
-        Map<String, CoindeskResponse.CurrencyInfo> bpiMap = originalData.getBpi();
-        
-        for (Map.Entry<String, CoindeskResponse.CurrencyInfo> entry : bpiMap.entrySet()) {
+        for (Map.Entry<String, CoindeskSnapshot.Rate> entry : snapshot.getRates().entrySet()) {
             String code = entry.getKey();
-            CoindeskResponse.CurrencyInfo currencyInfo = entry.getValue();
-            
-            // 從數據庫取得中文名稱
-            String chineseName = getCurrencyChineseName(code);
             
             CustomCurrencyResponse.CurrencyInfo customInfo = new CustomCurrencyResponse.CurrencyInfo(
                     code,
-                    chineseName,
-                    currencyInfo.getRateFloat()
+                    // 如果找不到中文名稱，返回代碼作為替代
+                    chineseNames.getOrDefault(code, code),
+                    entry.getValue().getRateFloat()
             );
             
             currencyInfoList.add(customInfo);
@@ -182,63 +876,168 @@ public class CoindeskApiServiceImpl implements CoindeskApiService {
     }
     
     /**
-     * 處理幣別實體：如果存在則返回，否則創建新的
+     * 保存 CoindeskData 與其匯率，匯率以 saveAll 交由 Hibernate 批次寫入
+     * @param currencies 已存在於資料庫的幣別實體，依代碼索引
+     * @param rateCodes 要寫入匯率的幣別代碼
+     * @return 寫入的匯率實體
      */
-    private CurrencyEntity processCurrencyEntity(String code, CoindeskResponse.CurrencyInfo currencyInfo) {
-        // 檢查資料庫中是否已存在此幣別
-        Optional<CurrencyEntity> existingCurrency = currencyRepository.findById(code);
+    private List<ExchangeRateEntity> persistCoindeskData(
+            CoindeskResponse coindeskResponse, Map<String, CurrencyEntity> currencies, Set<String> rateCodes) {
+        // 創建並保存 CoindeskData 實體
+        CoindeskDataEntity coindeskEntity = new CoindeskDataEntity();
+        coindeskEntity.setUpdatedTime(coindeskResponse.getTime().getUpdated());
+        coindeskEntity.setUpdatedIso(coindeskResponse.getTime().getUpdatedISO());
+        coindeskEntity.setUpdatedUk(coindeskResponse.getTime().getUpdateduk());
+        coindeskEntity.setDisclaimer(coindeskResponse.getDisclaimer());
+        coindeskEntity.setChartName(coindeskResponse.getChartName());
+        coindeskEntity.setCreateTime(LocalDateTime.now());
         
-        // 創建或更新幣別實體
-        CurrencyEntity entity;
-        if (existingCurrency.isPresent()) {
-            entity = existingCurrency.get();
-            entity.setEnglishName(currencyInfo.getDescription());
-            // 中文名稱保持不變
-        } else {
-            entity = new CurrencyEntity();
-            entity.setCode(code);
-            entity.setEnglishName(currencyInfo.getDescription());
+        coindeskEntity.setUpdatedAt(updatedAtOf(coindeskResponse));
+        
+        CoindeskDataEntity savedCoindeskEntity = coindeskDataRepository.save(coindeskEntity);
+        
+        // 創建匯率實體
+        Map<String, CoindeskResponse.CurrencyInfo> bpiMap = coindeskResponse.getBpi();
+        List<ExchangeRateEntity> rateEntities = new ArrayList<>(rateCodes.size());
+        for (Map.Entry<String, CoindeskResponse.CurrencyInfo> entry : bpiMap.entrySet()) {
+            if (!rateCodes.contains(entry.getKey())) {
+                continue;
+            }
+            CoindeskResponse.CurrencyInfo currencyInfo = entry.getValue();
             
-            // 設置預設中文名稱 (可根據幣別代碼添加不同的預設名稱)
-            switch (code) {
-                case "USD":
-                    entity.setChineseName("美元");
-                    break;
-                case "GBP":
-                    entity.setChineseName("英鎊");
-                    break;
-                case "EUR":
-                    entity.setChineseName("歐元");
-                    break;
-                case "JPY":
-                    entity.setChineseName("日圓");
-                    break;
-                default:
-                    entity.setChineseName(code); // 如果沒有預設中文名稱，使用代碼代替
-            }
-        }
-        
-        // 保存到資料庫
-        return currencyRepository.save(entity);
+            ExchangeRateEntity rateEntity = new ExchangeRateEntity();
+            rateEntity.setCoindeskData(savedCoindeskEntity);
+            rateEntity.setCurrency(currencies.get(entry.getKey()));
+            rateEntity.setRateTime(coindeskEntity.getUpdatedAt());
+            rateEntity.setSymbol(currencyInfo.getSymbol());
+            rateEntity.setRate(currencyInfo.getRate());
+            rateEntity.setRateFloat(currencyInfo.getRateFloat());
+            rateEntities.add(rateEntity);
+        }
+        exchangeRateRepository.saveAll(rateEntities);
+        
+        return rateEntities;
     }
     
-    private String formatDateTime(String isoDateTimeString) {
-        try {
-            SimpleDateFormat isoFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX", Locale.US);
-            isoFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
-            Date date = isoFormat.parse(isoDateTimeString);
+    /**
+     * 一次查詢指定幣別的最新匯率指標
+     * @return 依代碼索引的指標實體
+     */
+    /**
+     * 解析更新時間，無法解析時以寫入時間代替
+     */
+    private static Instant updatedAtOf(CoindeskResponse coindeskResponse) {
+        Instant updatedAt = DateTimeUtils.parseIsoInstant(coindeskResponse.getTime().getUpdatedISO());
+        return updatedAt != null ? updatedAt : Instant.now();
+    }
+
+    private Map<String, LatestRateEntity> loadLatestRates(Collection<String> codes) {
+        Map<String, LatestRateEntity> latestRates = new HashMap<>();
+        if (!codes.isEmpty()) {
+            for (LatestRateEntity latestRate : latestRateRepository.findAllById(codes)) {
+                latestRates.put(latestRate.getCurrencyCode(), latestRate);
+            }
+        }
+        return latestRates;
+    }
+    
+    /**
+     * 將最新匯率指標指向新寫入的匯率，較舊的匯率不覆蓋；新幣別以 persist 新增
+     * @param written 新寫入的匯率
+     * @param latestRates 目前的指標，依代碼索引 (新增的指標會加入)
+     */
+    private void updateLatestRates(List<ExchangeRateEntity> written, Map<String, LatestRateEntity> latestRates) {
+        List<LatestRateEntity> created = new ArrayList<>();
+        for (ExchangeRateEntity rateEntity : written) {
+            String code = rateEntity.getCurrency().getCode();
+            LatestRateEntity latestRate = latestRates.get(code);
+            if (latestRate == null) {
+                latestRate = new LatestRateEntity(code, rateEntity.getRateTime(), rateEntity);
+                latestRates.put(code, latestRate);
+                created.add(latestRate);
+            } else if (!rateEntity.getRateTime().isBefore(latestRate.getRateTime())) {
+                latestRate.setRateTime(rateEntity.getRateTime());
+                latestRate.setExchangeRate(rateEntity);
+            }
+        }
+        if (!created.isEmpty()) {
+            latestRateRepository.persistAll(created);
+        }
+    }
+
+    /**
+     * 未變動而未寫入的匯率：最新匯率指標不變，只將時間推進到本筆數據，
+     * 之後較舊的回補數據才不會以為自己比較新而覆蓋指標
+     * @param written 本筆實際寫入匯率的幣別代碼
+     * @param latestRates 目前的指標，依代碼索引
+     */
+    private static void confirmLatestRates(
+            CoindeskResponse coindeskResponse, Set<String> written, Map<String, LatestRateEntity> latestRates) {
+        Instant updatedAt = updatedAtOf(coindeskResponse);
+        for (String code : coindeskResponse.getBpi().keySet()) {
+            LatestRateEntity latestRate = latestRates.get(code);
+            if (!written.contains(code) && latestRate != null && updatedAt.isAfter(latestRate.getRateTime())) {
+                latestRate.setRateTime(updatedAt);
+            }
+        }
+    }
+    
+    /**
+     * 批次處理幣別實體：由幣別字典判斷既有幣別，英文名稱有變更才更新，其餘以 persist 新增
+     * 既有且未變更的幣別只取得參考，不查詢資料庫；交易提交後使異動的幣別失效
+     * @param bpiMap 幣別匯率數據
+     * @return 依代碼索引的幣別實體
+     */
+    private Map<String, CurrencyEntity> upsertCurrencies(Map<String, CoindeskResponse.CurrencyInfo> bpiMap) {
+        Map<String, CurrencyEntity> known = currencyDictionary.getAll(bpiMap.keySet());
+        Map<String, CurrencyEntity> currencies = new HashMap<>();
+        List<CurrencyEntity> created = new ArrayList<>();
+        Set<String> modified = new LinkedHashSet<>();
+        for (Map.Entry<String, CoindeskResponse.CurrencyInfo> entry : bpiMap.entrySet()) {
+            String code = entry.getKey();
+            String englishName = entry.getValue().getDescription();
+            CurrencyEntity cached = known.get(code);
+            CurrencyEntity entity;
             
-            SimpleDateFormat outputFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss", Locale.US);
-            return outputFormat.format(date);
-        } catch (ParseException e) {
-            // 如果解析失敗，返回原始字符串
-            return isoDateTimeString;
+            if (cached == null) {
+                entity = new CurrencyEntity(code, defaultChineseName(code), englishName);
+                created.add(entity);
+                modified.add(code);
+            } else {
+                entity = currencyRepository.getReferenceById(code);
+                if (!Objects.equals(cached.getEnglishName(), englishName)) {
+                    // 中文名稱保持不變，受管理的實體於 flush 時自動更新
+                    entity.setEnglishName(englishName);
+                    modified.add(code);
+                }
+            }
+            currencies.put(code, entity);
+        }
+        
+        if (!created.isEmpty()) {
+            currencyRepository.persistAll(created);
         }
+        if (!modified.isEmpty()) {
+            afterCommit(() -> currencyDictionary.invalidate(modified));
+        }
+        return currencies;
     }
     
-    private String getCurrencyChineseName(String code) {
-        return currencyRepository.findById(code)
-                .map(CurrencyEntity::getChineseName)
-                .orElse(code); // 如果找不到中文名稱，返回代碼作為替代
+    /**
+     * 新幣別的預設中文名稱 (可根據幣別代碼添加不同的預設名稱)
+     */
+    private static String defaultChineseName(String code) {
+        switch (code) {
+            case "USD":
+                return "美元";
+            case "GBP":
+                return "英鎊";
+            case "EUR":
+                return "歐元";
+            case "JPY":
+                return "日圓";
+            default:
+                return code; // 如果沒有預設中文名稱，使用代碼代替
+        }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
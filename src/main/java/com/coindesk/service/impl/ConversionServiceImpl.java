@@ -0,0 +1,106 @@
+package com.coindesk.service.impl;
+
+import com.coindesk.dto.ConversionRequest;
+import com.coindesk.dto.ConversionResult;
+import com.coindesk.service.CoindeskApiService;
+import com.coindesk.service.ConversionService;
+import com.coindesk.snapshot.CoindeskSnapshot;
+import com.coindesk.snapshot.CrossRateMatrix;
+import com.coindesk.snapshot.SnapshotPublishedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+public class ConversionServiceImpl implements ConversionService {
+
+    private final CoindeskApiService coindeskApiService;
+    private final int maxPrecomputed;
+    // 與最新快照對應的矩陣，以 CAS 更換，較舊版本不覆蓋較新版本
+    private final AtomicReference<CrossRateMatrix> matrixRef = new AtomicReference<>();
+
+    @Autowired
+    public ConversionServiceImpl(
+            CoindeskApiService coindeskApiService,
+            @Value("${coindesk.convert.matrix-max-currencies:512}") int maxPrecomputed) {
+        this.coindeskApiService = coindeskApiService;
+        this.maxPrecomputed = maxPrecomputed;
+    }
+
+    /**
+     * 新快照發布時立即重建矩陣，換算時不需等待
+     */
+    @EventListener
+    public void onSnapshotPublished(SnapshotPublishedEvent event) {
+        install(CrossRateMatrix.of(event.getSnapshot(), maxPrecomputed));
+    }
+
+    @Override
+    public CrossRateMatrix getMatrix() {
+        CrossRateMatrix matrix = matrixRef.get();
+        CoindeskSnapshot snapshot = coindeskApiService.getSnapshot();
+        if (matrix != null && matrix.getSnapshotVersion() >= snapshot.getVersion()) {
+            return matrix;
+        }
+        // 冷啟動載入的快照不發出事件，由第一次換算建立
+        return install(CrossRateMatrix.of(snapshot, maxPrecomputed));
+    }
+
+    private CrossRateMatrix install(CrossRateMatrix candidate) {
+        while (true) {
+            CrossRateMatrix current = matrixRef.get();
+            if (current != null && current.getSnapshotVersion() >= candidate.getSnapshotVersion()) {
+                return current;
+            }
+            if (matrixRef.compareAndSet(current, candidate)) {
+                return candidate;
+            }
+        }
+    }
+
+    @Override
+    public ConversionResult convert(String from, String to, Double amount) {
+        ConversionResult result = convert(getMatrix(), from, to, amount);
+        if (result.getError() != null) {
+            throw new IllegalArgumentException(result.getError());
+        }
+        return result;
+    }
+
+    @Override
+    public List<ConversionResult> convertBatch(List<ConversionRequest> requests) {
+        CrossRateMatrix matrix = getMatrix();
+        List<ConversionResult> results = new ArrayList<>(requests.size());
+        for (ConversionRequest request : requests) {
+            results.add(request != null
+                    ? convert(matrix, request.getFrom(), request.getTo(), request.getAmount())
+                    : convert(matrix, null, null, null));
+        }
+        return results;
+    }
+
+    private static ConversionResult convert(CrossRateMatrix matrix, String from, String to, Double amount) {
+        double value = amount != null ? amount : 1.0;
+        ConversionResult result = new ConversionResult(
+                from, to, value, null, null, matrix.getSnapshotVersion(), matrix.getUpdatedIso(), null);
+
+        int fromIndex = from != null ? matrix.indexOf(from.toUpperCase(Locale.ROOT)) : -1;
+        int toIndex = to != null ? matrix.indexOf(to.toUpperCase(Locale.ROOT)) : -1;
+        if (fromIndex < 0 || toIndex < 0) {
+            result.setError("不支援的幣別: " + (fromIndex < 0 ? from : to));
+        } else if (Double.isNaN(value) || Double.isInfinite(value)) {
+            result.setError("金額無效: " + amount);
+        } else {
+            double rate = matrix.rate(fromIndex, toIndex);
+            result.setRate(rate);
+            result.setResult(value * rate);
+        }
+        return result;
+    }
+}
@@ -1,46 +1,56 @@
 package com.coindesk.service.impl;
 
+import com.coindesk.cache.CurrencyDictionary;
+import com.coindesk.dto.CurrencyCacheStatsResponse;
 import com.coindesk.dto.CurrencyDto;
 import com.coindesk.dto.CoindeskDTO;
-import com.coindesk.dto.coindesk.CoindeskResponse;
 import com.coindesk.entity.CurrencyEntity;
 import com.coindesk.repository.CurrencyRepository;
 import com.coindesk.repository.ExchangeRateRepository;
 import com.coindesk.service.CoindeskApiService;
 import com.coindesk.service.CurrencyService;
+import com.coindesk.snapshot.CoindeskSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import javax.persistence.EntityNotFoundException;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class CurrencyServiceImpl implements CurrencyService {
 
+    private static final Logger log = LoggerFactory.getLogger(CurrencyServiceImpl.class);
+
     private final CurrencyRepository currencyRepository;
     private final CoindeskApiService coindeskApiService;
+    private final CurrencyDictionary currencyDictionary;
 
     @Autowired
     public CurrencyServiceImpl(
             CurrencyRepository currencyRepository,
             CoindeskApiService coindeskApiService,
-            ExchangeRateRepository exchangeRateRepository) {
+            ExchangeRateRepository exchangeRateRepository,
+            CurrencyDictionary currencyDictionary) {
         this.currencyRepository = currencyRepository;
         this.coindeskApiService = coindeskApiService;
+        this.currencyDictionary = currencyDictionary;
     }
 
     @Override
     public List<CurrencyDto> getAllCurrencies() {
+        // 每次請求只取一次匯率快照，再於記憶體中與幣別資料合併
+        CoindeskSnapshot snapshot = loadSnapshot();
         return currencyRepository.findAll().stream()
-                .map(this::convertToDto)
+                .map(entity -> convertToDto(entity, snapshot))
                 .collect(Collectors.toList());
     }
 
     @Override
     public CurrencyDto getCurrencyByCode(String code) {
-        CurrencyEntity entity = currencyRepository.findById(code)
+        CurrencyEntity entity = currencyDictionary.get(code)
                 .orElseThrow(() -> new EntityNotFoundException("找不到幣別代碼: " + code));
         return convertToDto(entity);
     }
@@ -49,27 +59,45 @@ public class CurrencyServiceImpl implements CurrencyService {
     public CurrencyDto createCurrency(CurrencyDto currencyDto) {
         CurrencyEntity entity = convertToEntity(currencyDto);
         CurrencyEntity savedEntity = currencyRepository.save(entity);
+        // 幣別名稱異動後先使字典失效，再重建轉換視圖
+        currencyDictionary.invalidate(savedEntity.getCode());
+        coindeskApiService.refreshTransformedView();
         return convertToDto(savedEntity);
     }
 
     @Override
     public CurrencyDto updateCurrency(String code, CurrencyDto currencyDto) {
-        if (!currencyRepository.existsById(code)) {
+        if (!currencyDictionary.get(code).isPresent()) {
             throw new EntityNotFoundException("找不到幣別代碼: " + code);
         }
         
         CurrencyEntity entity = convertToEntity(currencyDto);
         entity.setCode(code);
         CurrencyEntity updatedEntity = currencyRepository.save(entity);
+        currencyDictionary.invalidate(code);
+        coindeskApiService.refreshTransformedView();
         return convertToDto(updatedEntity);
     }
 
     @Override
     public void deleteCurrency(String code) {
-        if (!currencyRepository.existsById(code)) {
+        if (!currencyDictionary.get(code).isPresent()) {
             throw new EntityNotFoundException("找不到幣別代碼: " + code);
         }
         currencyRepository.deleteById(code);
+        currencyDictionary.invalidate(code);
+        coindeskApiService.refreshTransformedView();
+    }
+    
+    @Override
+    public String getDataVersion() {
+        CoindeskSnapshot snapshot = loadSnapshot();
+        return currencyDictionary.getVersion() + "." + (snapshot != null ? snapshot.getVersion() : 0L);
+    }
+    
+    @Override
+    public CurrencyCacheStatsResponse getCacheStats() {
+        return currencyDictionary.getStats();
     }
     
     @Override
@@ -86,33 +114,47 @@ public class CurrencyServiceImpl implements CurrencyService {
     }
     
     private CurrencyDto convertToDto(CurrencyEntity entity) {
+        return convertToDto(entity, loadSnapshot());
+    }
+    
+    /**
+     * 轉換為 DTO，並以給定的匯率快照補上匯率資訊
+     * @param snapshot 匯率快照，取得失敗時為 null
+     */
+    private CurrencyDto convertToDto(CurrencyEntity entity, CoindeskSnapshot snapshot) {
         CurrencyDto dto = new CurrencyDto(
                 entity.getCode(),
                 entity.getChineseName(),
                 entity.getEnglishName()
         );
         
-        // 嘗試從 Coindesk API 獲取最新匯率數據
-        try {
-            CoindeskResponse coindeskResponse = coindeskApiService.getOriginalCoindeskData();
-            Map<String, CoindeskResponse.CurrencyInfo> bpi = coindeskResponse.getBpi();
-            if (bpi != null && bpi.containsKey(entity.getCode())) {
-                CoindeskResponse.CurrencyInfo currencyInfo = bpi.get(entity.getCode());
-                dto.setSymbol(currencyInfo.getSymbol());
-                dto.setRate(currencyInfo.getRate());
-                dto.setDescription(currencyInfo.getDescription());
-                dto.setRateFloat(currencyInfo.getRateFloat());
-                dto.setUpdateTime(coindeskResponse.getTime().getUpdatedISO());
+        if (snapshot != null) {
+            CoindeskSnapshot.Rate rate = snapshot.getRates().get(entity.getCode());
+            if (rate != null) {
+                dto.setSymbol(rate.getSymbol());
+                dto.setRate(rate.getRate());
+                dto.setDescription(rate.getDescription());
+                dto.setRateFloat(rate.getRateFloat());
+                dto.setUpdateTime(snapshot.getUpdatedIso());
             }
-        } catch (Exception e) {
-            // 如果無法從 API 獲取數據，嘗試從數據庫獲取
-            // 這裡可以選擇記錄錯誤日誌
-            System.err.println("無法從 Coindesk API 獲取匯率: " + e.getMessage());
         }
         
         return dto;
     }
     
+    /**
+     * 取得最新匯率快照，失敗時回傳 null 讓幣別資訊仍可回應
+     */
+    private CoindeskSnapshot loadSnapshot() {
+        try {
+            return coindeskApiService.getSnapshot();
+        } catch (Exception e) {
+            // 如果無法取得匯率數據，只回傳幣別基本資訊
+            log.warn("無法取得匯率快照，僅回傳幣別基本資訊", e);
+            return null;
+        }
+    }
+    
     private CurrencyEntity convertToEntity(CurrencyDto dto) {
         CurrencyEntity entity = new CurrencyEntity();
         entity.setCode(dto.getCode());
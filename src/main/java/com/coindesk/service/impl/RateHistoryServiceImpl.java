@@ -0,0 +1,345 @@
+package com.coindesk.service.impl;
+
+import com.coindesk.dto.RateCandlesResponse;
+import com.coindesk.dto.RateHistoryResponse;
+import com.coindesk.dto.RateStatsResponse;
+import com.coindesk.entity.RateCandleEntity;
+import com.coindesk.history.CandleStore;
+import com.coindesk.history.RateHistoryStore;
+import com.coindesk.history.RateSeries;
+import com.coindesk.repository.ExchangeRateRepository;
+import com.coindesk.repository.RateCandleRepository;
+import com.coindesk.repository.RatePointView;
+import com.coindesk.service.RateHistoryService;
+import com.coindesk.util.DateTimeUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+@Service
+public class RateHistoryServiceImpl implements RateHistoryService {
+
+    private static final int DEFAULT_LIMIT = 1000;
+    private static final int MAX_LIMIT = 10000;
+    // 每次向資料庫取回的原始資料筆數
+    private static final int SCAN_BATCH_SIZE = 5000;
+    // 從資料庫查詢時單次請求最多掃描的原始資料筆數，超過時以游標分頁
+    private static final int MAX_DATABASE_SCAN_ROWS = 200_000;
+
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final RateHistoryStore rateHistoryStore;
+    private final RateCandleRepository rateCandleRepository;
+    private final CandleStore candleStore;
+
+    @Autowired
+    public RateHistoryServiceImpl(ExchangeRateRepository exchangeRateRepository, RateHistoryStore rateHistoryStore,
+                                  RateCandleRepository rateCandleRepository, CandleStore candleStore) {
+        this.exchangeRateRepository = exchangeRateRepository;
+        this.rateHistoryStore = rateHistoryStore;
+        this.rateCandleRepository = rateCandleRepository;
+        this.candleStore = candleStore;
+    }
+
+    @Override
+    public RateHistoryResponse getHistory(
+            String code, String from, String to, String step, String cursor, Integer limit) {
+        String currencyCode = code.toUpperCase(Locale.ROOT);
+        Instant toTime = parseTo(to);
+        Instant fromTime = parseFrom(from, toTime);
+
+        Long stepMillis = null;
+        if (step != null) {
+            stepMillis = DateTimeUtils.parseStep(step).toMillis();
+            if (stepMillis <= 0) {
+                throw new IllegalArgumentException("時間間隔至少為 1 毫秒: " + step);
+            }
+        }
+
+        int pageLimit = parseLimit(limit);
+
+        Instant start = cursor != null ? parseCursor(cursor) : fromTime;
+        List<RateHistoryResponse.Point> points = new ArrayList<>();
+        String nextCursor;
+        if (rateHistoryStore.isEnabled()) {
+            nextCursor = scan(storeSource(currencyCode, start, toTime), stepMillis, pageLimit, Integer.MAX_VALUE, points);
+        } else {
+            nextCursor = scan(new DatabasePointSource(currencyCode, start, toTime),
+                    stepMillis, pageLimit, MAX_DATABASE_SCAN_ROWS, points);
+        }
+
+        return new RateHistoryResponse(
+                currencyCode,
+                fromTime,
+                toTime,
+                stepMillis != null ? stepMillis / 1000 : null,
+                points,
+                nextCursor);
+    }
+
+    @Override
+    public RateStatsResponse getStats(String code, String from, String to) {
+        String currencyCode = code.toUpperCase(Locale.ROOT);
+        Instant toTime = parseTo(to);
+        Instant fromTime = parseFrom(from, toTime);
+
+        PointSource source = rateHistoryStore.isEnabled()
+                ? storeSource(currencyCode, fromTime, toTime)
+                : new DatabasePointSource(currencyCode, fromTime, toTime);
+
+        RateStatsResponse stats = new RateStatsResponse();
+        stats.setCode(currencyCode);
+        stats.setFrom(fromTime);
+        stats.setTo(toTime);
+
+        long count = 0;
+        double first = 0;
+        double last = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+        while (source.next()) {
+            double rate = source.rate();
+            if (count == 0) {
+                first = rate;
+            }
+            last = rate;
+            min = Math.min(min, rate);
+            max = Math.max(max, rate);
+            sum += rate;
+            count++;
+        }
+
+        stats.setCount(count);
+        if (count > 0) {
+            stats.setFirst(first);
+            stats.setLast(last);
+            stats.setMin(min);
+            stats.setMax(max);
+            stats.setAverage(sum / count);
+        }
+        return stats;
+    }
+
+    @Override
+    public RateCandlesResponse getCandles(
+            String code, String interval, String from, String to, String cursor, Integer limit) {
+        String currencyCode = code.toUpperCase(Locale.ROOT);
+        Instant toTime = parseTo(to);
+        Instant fromTime = parseFrom(from, toTime);
+        long intervalSeconds = DateTimeUtils.parseStep(interval).getSeconds();
+        if (!CandleStore.isSupportedInterval(intervalSeconds)) {
+            throw new IllegalArgumentException("K 線週期僅支援 1m、5m、1h: " + interval);
+        }
+        int pageLimit = parseLimit(limit);
+        Instant start = cursor != null ? parseCursor(cursor) : fromTime;
+
+        // 已結束的區間由資料庫提供，多取一筆以判斷是否還有下一頁
+        List<RateCandleEntity> candles = new ArrayList<>(rateCandleRepository.findCandles(
+                currencyCode, (int) intervalSeconds, start, toTime, PageRequest.of(0, pageLimit + 1)));
+        // 開放中的區間由記憶體提供；重新啟動前寫入的同一區間一併合併
+        RateCandleEntity open = candleStore.getOpenCandle(currencyCode, (int) intervalSeconds);
+        if (open != null && !open.getBucketStart().isBefore(start) && open.getBucketStart().isBefore(toTime)) {
+            int index = 0;
+            while (index < candles.size() && candles.get(index).getBucketStart().isBefore(open.getBucketStart())) {
+                index++;
+            }
+            if (index < candles.size() && candles.get(index).getBucketStart().equals(open.getBucketStart())) {
+                CandleStore.merge(open, candles.get(index));
+                candles.set(index, open);
+            } else {
+                candles.add(index, open);
+            }
+        }
+
+        String nextCursor = null;
+        if (candles.size() > pageLimit) {
+            nextCursor = String.valueOf(candles.get(pageLimit).getBucketStart().toEpochMilli());
+            candles = candles.subList(0, pageLimit);
+        }
+        List<RateCandlesResponse.Candle> result = new ArrayList<>(candles.size());
+        for (RateCandleEntity candle : candles) {
+            result.add(new RateCandlesResponse.Candle(candle.getBucketStart(), candle.getOpenRate(),
+                    candle.getHighRate(), candle.getLowRate(), candle.getCloseRate(), candle.getSampleCount()));
+        }
+        return new RateCandlesResponse(currencyCode, fromTime, toTime, intervalSeconds, result, nextCursor);
+    }
+
+    /**
+     * 依間隔取樣 (每區間取最後一筆)；未指定間隔時相同時間的資料合併為一點
+     * @return 下一頁游標，沒有更多資料時為 null
+     */
+    private String scan(PointSource source, Long stepMillis, int pageLimit, int maxScanRows,
+                        List<RateHistoryResponse.Point> points) {
+        long bucketStart = 0L;
+        double bucketRate = 0;
+        boolean hasBucket = false;
+        int scanned = 0;
+
+        while (source.next()) {
+            long time = source.time();
+            long key = stepMillis != null ? Math.floorDiv(time, stepMillis) * stepMillis : time;
+            if (hasBucket && key != bucketStart) {
+                points.add(new RateHistoryResponse.Point(Instant.ofEpochMilli(bucketStart), bucketRate));
+                if (points.size() >= pageLimit) {
+                    return String.valueOf(key);
+                }
+                if (scanned >= maxScanRows) {
+                    // 下一頁從尚未輸出的區間開始
+                    return String.valueOf(key);
+                }
+            }
+            bucketStart = key;
+            bucketRate = source.rate();
+            hasBucket = true;
+            scanned++;
+        }
+
+        if (hasBucket) {
+            points.add(new RateHistoryResponse.Point(Instant.ofEpochMilli(bucketStart), bucketRate));
+        }
+        return null;
+    }
+
+    private PointSource storeSource(String currencyCode, Instant start, Instant toTime) {
+        return new StorePointSource(rateHistoryStore.getSeries(currencyCode), start.toEpochMilli(), toTime.toEpochMilli());
+    }
+
+    private static Instant parseTo(String to) {
+        return to != null ? DateTimeUtils.parseRequiredInstant(to, "to") : Instant.now();
+    }
+
+    private static Instant parseFrom(String from, Instant toTime) {
+        Instant fromTime = from != null
+                ? DateTimeUtils.parseRequiredInstant(from, "from")
+                : toTime.minus(Duration.ofDays(1));
+        if (!fromTime.isBefore(toTime)) {
+            throw new IllegalArgumentException("from 必須早於 to");
+        }
+        return fromTime;
+    }
+
+    private static int parseLimit(Integer limit) {
+        int pageLimit = limit != null ? limit : DEFAULT_LIMIT;
+        if (pageLimit <= 0 || pageLimit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit 必須介於 1 到 " + MAX_LIMIT);
+        }
+        return pageLimit;
+    }
+
+    private static Instant parseCursor(String cursor) {
+        try {
+            return Instant.ofEpochMilli(Long.parseLong(cursor));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("無效的游標: " + cursor);
+        }
+    }
+
+    /**
+     * 依時間遞增逐一讀取的資料點來源
+     */
+    private interface PointSource {
+
+        /**
+         * 移到下一個資料點
+         * @return 沒有更多資料時回傳 false
+         */
+        boolean next();
+
+        long time();
+
+        double rate();
+    }
+
+    /**
+     * 從記憶體儲存區讀取，以二分搜尋定位起點
+     */
+    private static final class StorePointSource implements PointSource {
+        private final RateSeries series;
+        private final int size;
+        private final long toMillis;
+        private int index;
+
+        private StorePointSource(RateSeries series, long fromMillis, long toMillis) {
+            this.series = series;
+            this.size = series.size();
+            this.toMillis = toMillis;
+            this.index = series.lowerBound(fromMillis, size) - 1;
+        }
+
+        @Override
+        public boolean next() {
+            if (index + 1 >= size || series.timeAt(index + 1) >= toMillis) {
+                return false;
+            }
+            index++;
+            return true;
+        }
+
+        @Override
+        public long time() {
+            return series.timeAt(index);
+        }
+
+        @Override
+        public double rate() {
+            return series.rateAt(index);
+        }
+    }
+
+    /**
+     * 從資料庫以 (時間, ID) 鍵集分頁讀取
+     */
+    private final class DatabasePointSource implements PointSource {
+        private final String currencyCode;
+        private final Instant toTime;
+        private Instant afterTime;
+        private long afterId = -1L;  // 起始時間本身也包含在內
+        private List<RatePointView> rows = Collections.emptyList();
+        private int index;
+        private boolean exhausted;
+
+        private DatabasePointSource(String currencyCode, Instant start, Instant toTime) {
+            this.currencyCode = currencyCode;
+            this.afterTime = start;
+            this.toTime = toTime;
+        }
+
+        @Override
+        public boolean next() {
+            if (index + 1 < rows.size()) {
+                index++;
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            if (!rows.isEmpty()) {
+                RatePointView last = rows.get(rows.size() - 1);
+                afterTime = last.getRateTime();
+                afterId = last.getId();
+            }
+            rows = exchangeRateRepository.findRatePoints(
+                    currencyCode, afterTime, afterId, toTime, PageRequest.of(0, SCAN_BATCH_SIZE));
+            exhausted = rows.size() < SCAN_BATCH_SIZE;
+            index = 0;
+            return !rows.isEmpty();
+        }
+
+        @Override
+        public long time() {
+            return rows.get(index).getRateTime().toEpochMilli();
+        }
+
+        @Override
+        public double rate() {
+            return rows.get(index).getRateFloat();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.coindesk.snapshot;
+
+import com.coindesk.dto.coindesk.CoindeskResponse;
+import com.coindesk.util.DateTimeUtils;
+import lombok.Value;
+import lombok.With;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 最新 Coindesk 數據的不可變快照
+ * 由 saveCoindeskData 透過單一 AtomicReference 發布，讀取端不需加鎖
+ */
+@Value
+public class CoindeskSnapshot {
+
+    /**
+     * 快照版本號，每次發布單調遞增
+     */
+    @With
+    long version;
+
+    String updated;
+    String updatedIso;
+
+    /**
+     * 由 updatedIso 解析出的更新時間，無法解析時為 null
+     */
+    Instant updatedAt;
+
+    String updatedUk;
+    String disclaimer;
+    String chartName;
+
+    /**
+     * 幣別匯率 (依原始 bpi 順序，不可修改)
+     */
+    Map<String, Rate> rates;
+
+    /**
+     * 單一幣別匯率
+     */
+    @Value
+    public static class Rate {
+        String code;
+        String symbol;
+        String rate;
+        String description;
+        Double rateFloat;
+    }
+
+    /**
+     * 從 CoindeskResponse 複製建立快照，之後對來源物件的修改不影響快照
+     * @param version 版本號
+     * @param source 來源數據
+     * @return 快照
+     */
+    public static CoindeskSnapshot of(long version, CoindeskResponse source) {
+        CoindeskResponse.TimeInfo time = source.getTime();
+        Map<String, Rate> rates = new LinkedHashMap<>();
+        if (source.getBpi() != null) {
+            for (Map.Entry<String, CoindeskResponse.CurrencyInfo> entry : source.getBpi().entrySet()) {
+                CoindeskResponse.CurrencyInfo info = entry.getValue();
+                rates.put(entry.getKey(), new Rate(
+                        info.getCode(),
+                        info.getSymbol(),
+                        info.getRate(),
+                        info.getDescription(),
+                        info.getRateFloat()));
+            }
+        }
+        return new CoindeskSnapshot(
+                version,
+                time != null ? time.getUpdated() : null,
+                time != null ? time.getUpdatedISO() : null,
+                time != null ? DateTimeUtils.parseIsoInstant(time.getUpdatedISO()) : null,
+                time != null ? time.getUpdateduk() : null,
+                source.getDisclaimer(),
+                source.getChartName(),
+                Collections.unmodifiableMap(rates));
+    }
+
+    /**
+     * 只保留指定幣別匯率的副本
+     * @param codes 要保留的幣別代碼
+     * @return 新快照，全部保留時回傳自身
+     */
+    public CoindeskSnapshot retainRates(Set<String> codes) {
+        if (codes.containsAll(rates.keySet())) {
+            return this;
+        }
+        Map<String, Rate> retained = new LinkedHashMap<>();
+        for (Map.Entry<String, Rate> entry : rates.entrySet()) {
+            if (codes.contains(entry.getKey())) {
+                retained.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return new CoindeskSnapshot(version, updated, updatedIso, updatedAt, updatedUk,
+                disclaimer, chartName, Collections.unmodifiableMap(retained));
+    }
+
+    /**
+     * 轉回 CoindeskResponse，每次呼叫都回傳新的物件
+     * @return CoindeskResponse
+     */
+    public CoindeskResponse toResponse() {
+        CoindeskResponse response = new CoindeskResponse();
+        response.setDisclaimer(disclaimer);
+        response.setChartName(chartName);
+
+        CoindeskResponse.TimeInfo timeInfo = new CoindeskResponse.TimeInfo();
+        timeInfo.setUpdated(updated);
+        timeInfo.setUpdatedISO(updatedIso);
+        timeInfo.setUpdateduk(updatedUk);
+        response.setTime(timeInfo);
+
+        Map<String, CoindeskResponse.CurrencyInfo> bpi = new LinkedHashMap<>();
+        for (Map.Entry<String, Rate> entry : rates.entrySet()) {
+            Rate rate = entry.getValue();
+            CoindeskResponse.CurrencyInfo info = new CoindeskResponse.CurrencyInfo();
+            info.setCode(rate.getCode());
+            info.setSymbol(rate.getSymbol());
+            info.setRate(rate.getRate());
+            info.setDescription(rate.getDescription());
+            info.setRateFloat(rate.getRateFloat());
+            bpi.put(entry.getKey(), info);
+        }
+        response.setBpi(bpi);
+        return response;
+    }
+}
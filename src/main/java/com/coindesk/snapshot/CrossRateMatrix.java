@@ -0,0 +1,143 @@
+package com.coindesk.snapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 由快照預先計算的交叉匯率矩陣 (不可變)
+ *
+ * Coindesk 匯率皆為 1 BTC 可兌換的各幣別數量，因此 1 單位 from 可兌換 rate[to] / rate[from] 單位 to。
+ * 幣別數不超過上限時預先計算 N×N 矩陣，查詢只需一次陣列讀取；超過上限時改為查詢時相除以限制記憶體用量。
+ * 以索引查詢的方法不配置任何物件，供程序內高頻呼叫使用
+ */
+public final class CrossRateMatrix {
+
+    /**
+     * 基準幣別 (比特幣)，匯率固定為 1
+     */
+    public static final String BASE_CODE = "BTC";
+
+    private final long snapshotVersion;
+    private final String updatedIso;
+    private final String[] codes;
+    private final Map<String, Integer> index;
+    // 1 BTC 可兌換的各幣別數量
+    private final double[] baseRates;
+    // 依列優先排列的 N×N 交叉匯率，幣別過多時為 null
+    private final double[] crossRates;
+
+    private CrossRateMatrix(long snapshotVersion, String updatedIso, String[] codes, double[] baseRates,
+                            boolean precompute) {
+        this.snapshotVersion = snapshotVersion;
+        this.updatedIso = updatedIso;
+        this.codes = codes;
+        this.baseRates = baseRates;
+        this.index = new HashMap<>(codes.length * 2);
+        for (int i = 0; i < codes.length; i++) {
+            index.put(codes[i], i);
+        }
+
+        if (precompute) {
+            int n = codes.length;
+            crossRates = new double[n * n];
+            for (int from = 0; from < n; from++) {
+                double fromRate = baseRates[from];
+                for (int to = 0; to < n; to++) {
+                    crossRates[from * n + to] = baseRates[to] / fromRate;
+                }
+            }
+        } else {
+            crossRates = null;
+        }
+    }
+
+    /**
+     * 由快照建立矩陣，缺少匯率或匯率非正數的幣別不納入
+     * @param snapshot 快照
+     * @param maxPrecomputed 預先計算 N×N 矩陣的幣別數上限
+     * @return 矩陣
+     */
+    public static CrossRateMatrix of(CoindeskSnapshot snapshot, int maxPrecomputed) {
+        List<String> codes = new ArrayList<>(snapshot.getRates().size() + 1);
+        double[] rates = new double[snapshot.getRates().size() + 1];
+        codes.add(BASE_CODE);
+        rates[0] = 1.0;
+        for (Map.Entry<String, CoindeskSnapshot.Rate> entry : snapshot.getRates().entrySet()) {
+            Double rateFloat = entry.getValue().getRateFloat();
+            if (BASE_CODE.equals(entry.getKey()) || rateFloat == null
+                    || !(rateFloat > 0) || Double.isInfinite(rateFloat)) {
+                continue;
+            }
+            rates[codes.size()] = rateFloat;
+            codes.add(entry.getKey());
+        }
+        return new CrossRateMatrix(
+                snapshot.getVersion(),
+                snapshot.getUpdatedIso(),
+                codes.toArray(new String[0]),
+                Arrays.copyOf(rates, codes.size()),
+                codes.size() <= maxPrecomputed);
+    }
+
+    /**
+     * @return 來源快照版本號
+     */
+    public long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    /**
+     * @return 來源快照的更新時間
+     */
+    public String getUpdatedIso() {
+        return updatedIso;
+    }
+
+    /**
+     * @return 可換算的幣別 (含基準幣別)
+     */
+    public List<String> getCodes() {
+        return Collections.unmodifiableList(Arrays.asList(codes));
+    }
+
+    /**
+     * @return 是否已預先計算 N×N 矩陣
+     */
+    public boolean isPrecomputed() {
+        return crossRates != null;
+    }
+
+    /**
+     * @return 幣別在矩陣中的索引，不支援時為 -1
+     */
+    public int indexOf(String code) {
+        Integer i = index.get(code);
+        return i != null ? i : -1;
+    }
+
+    /**
+     * @param from 來源幣別索引
+     * @param to 目標幣別索引
+     * @return 1 單位來源幣別可兌換的目標幣別數量
+     */
+    public double rate(int from, int to) {
+        if (crossRates != null) {
+            return crossRates[from * codes.length + to];
+        }
+        return baseRates[to] / baseRates[from];
+    }
+
+    /**
+     * @param from 來源幣別索引
+     * @param to 目標幣別索引
+     * @param amount 來源幣別金額
+     * @return 換算後的目標幣別金額
+     */
+    public double convert(int from, int to, double amount) {
+        return amount * rate(from, to);
+    }
+}
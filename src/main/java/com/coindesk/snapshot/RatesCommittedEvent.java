@@ -0,0 +1,18 @@
+package com.coindesk.snapshot;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * 匯率數據寫入資料庫並提交後發出的事件
+ * 包含該次交易寫入的所有數據 (不論是否成為最新快照)，其中的快照版本號未指定
+ */
+@Value
+public class RatesCommittedEvent {
+
+    /**
+     * 已提交的數據，依寫入順序排列
+     */
+    List<CoindeskSnapshot> snapshots;
+}
@@ -0,0 +1,15 @@
+package com.coindesk.snapshot;
+
+import lombok.Value;
+
+/**
+ * 新快照成為最新數據後發出的事件 (冷啟動載入不發出)
+ */
+@Value
+public class SnapshotPublishedEvent {
+
+    /**
+     * 已發布的快照 (含版本號)
+     */
+    CoindeskSnapshot snapshot;
+}
@@ -0,0 +1,27 @@
+package com.coindesk.snapshot;
+
+import com.coindesk.dto.CustomCurrencyResponse;
+import lombok.Value;
+
+/**
+ * 預先計算好的轉換視圖 (含格式化時間與幣別中文名稱)
+ * 於數據寫入或幣別異動時重建，讀取端直接共用，請勿修改其內容
+ */
+@Value
+public class TransformedView {
+
+    /**
+     * 來源快照版本號
+     */
+    long snapshotVersion;
+
+    /**
+     * 視圖修訂號，每次重建遞增 (幣別異動時快照版本不變，修訂號仍會遞增)
+     */
+    long revision;
+
+    /**
+     * 轉換後的幣別資訊
+     */
+    CustomCurrencyResponse response;
+}
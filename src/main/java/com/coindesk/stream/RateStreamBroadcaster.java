@@ -0,0 +1,224 @@
+package com.coindesk.stream;
+
+import com.coindesk.dto.RateStreamEvent;
+import com.coindesk.dto.StreamStatsResponse;
+import com.coindesk.service.CoindeskApiService;
+import com.coindesk.snapshot.CoindeskSnapshot;
+import com.coindesk.snapshot.SnapshotPublishedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 將每次發布的新快照以 SSE 推播給所有訂閱者
+ *
+ * 每次廣播只依不同的篩選條件各序列化一次，再放入各訂閱者有上限的緩衝，
+ * 由少量送出執行緒寫出；慢速訂閱者的舊訊息會被較新的訊息取代
+ */
+@Component
+public class RateStreamBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(RateStreamBroadcaster.class);
+    // 心跳訊息的版本號，不與數據版本比較
+    private static final long HEARTBEAT_VERSION = -1L;
+
+    private final CoindeskApiService coindeskApiService;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final ExecutorService sender;
+    private final Set<RateSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong broadcasts = new AtomicLong();
+    private final AtomicLong messagesSent = new AtomicLong();
+    private final AtomicLong messagesDropped = new AtomicLong();
+    private final AtomicLong sendFailures = new AtomicLong();
+
+    @Autowired
+    public RateStreamBroadcaster(
+            CoindeskApiService coindeskApiService,
+            ObjectMapper objectMapper,
+            @Value("${coindesk.stream.buffer-size:16}") int bufferSize,
+            @Value("${coindesk.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${coindesk.stream.sender-threads:2}") int senderThreads) {
+        this.coindeskApiService = coindeskApiService;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "rate-stream-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 新增訂閱者，並立即送出目前的數據
+     * @param codes 訂閱的幣別代碼，空集合表示全部
+     * @return SSE 連線
+     */
+    public SseEmitter subscribe(Set<String> codes) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        RateSubscription subscription = new RateSubscription(emitter, codes, bufferSize);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscriptions.remove(subscription));
+        subscriptions.add(subscription);
+
+        enqueue(subscription, serialize(coindeskApiService.getSnapshot(), codes));
+        return emitter;
+    }
+
+    /**
+     * 新快照發布後廣播給所有訂閱者
+     */
+    @EventListener
+    public void onSnapshotPublished(SnapshotPublishedEvent event) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        broadcasts.incrementAndGet();
+        Map<Set<String>, RateStreamMessage> messages = new HashMap<>();
+        for (RateSubscription subscription : subscriptions) {
+            RateStreamMessage message = messages.computeIfAbsent(
+                    subscription.getCodes(), codes -> serialize(event.getSnapshot(), codes));
+            enqueue(subscription, message);
+        }
+    }
+
+    /**
+     * 定期對閒置的連線送出心跳，避免被中間的代理伺服器關閉，並及早發現已中斷的連線
+     */
+    @Scheduled(fixedDelayString = "${coindesk.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (RateSubscription subscription : subscriptions) {
+            if (subscription.isEmpty() && !subscription.isDraining()) {
+                enqueue(subscription, new RateStreamMessage(HEARTBEAT_VERSION, null));
+            }
+        }
+    }
+
+    /**
+     * @return 推播統計
+     */
+    public StreamStatsResponse getStats() {
+        return new StreamStatsResponse(
+                subscriptions.size(),
+                broadcasts.get(),
+                messagesSent.get(),
+                messagesDropped.get(),
+                sendFailures.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        for (RateSubscription subscription : subscriptions) {
+            subscription.getEmitter().complete();
+        }
+        subscriptions.clear();
+    }
+
+    private void enqueue(RateSubscription subscription, RateStreamMessage message) {
+        if (subscription.offer(message)) {
+            messagesDropped.incrementAndGet();
+        }
+        scheduleDrain(subscription);
+    }
+
+    private void scheduleDrain(RateSubscription subscription) {
+        if (subscription.startDrain()) {
+            try {
+                sender.execute(() -> drain(subscription));
+            } catch (RejectedExecutionException e) {
+                subscription.finishDrain();
+            }
+        }
+    }
+
+    /**
+     * 送出訂閱者緩衝中的訊息，同一訂閱者同時只由一個執行緒送出；
+     * 任何送出失敗都移除訂閱者，送出權一律釋放
+     */
+    private void drain(RateSubscription subscription) {
+        SseEmitter emitter = subscription.getEmitter();
+        boolean failed = false;
+        try {
+            RateStreamMessage message;
+            while ((message = subscription.poll()) != null) {
+                if (message.getVersion() == HEARTBEAT_VERSION) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                    continue;
+                }
+                // 訂閱時送出的目前數據可能與廣播重複，略過不比已送出版本新的訊息
+                if (subscription.isSent(message.getVersion())) {
+                    continue;
+                }
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(message.getVersion()))
+                        .name("rates")
+                        .data(message.getJson(), MediaType.APPLICATION_JSON));
+                subscription.markSent(message.getVersion());
+                messagesSent.incrementAndGet();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // 連線已中斷，移除訂閱者且不再排程送出
+            failed = true;
+            sendFailures.incrementAndGet();
+            subscriptions.remove(subscription);
+            log.debug("推播連線中斷，移除訂閱者: {}", e.toString());
+        } catch (RuntimeException e) {
+            // 其他錯誤 (例如訊息轉換失敗) 時結束連線，讓用戶端重新訂閱
+            failed = true;
+            sendFailures.incrementAndGet();
+            subscriptions.remove(subscription);
+            emitter.completeWithError(e);
+            log.warn("推播送出失敗，移除訂閱者", e);
+        } finally {
+            subscription.finishDrain();
+        }
+        // 釋放後才加入的訊息需要再次排程
+        if (!failed && !subscription.isEmpty()) {
+            scheduleDrain(subscription);
+        }
+    }
+
+    private RateStreamMessage serialize(CoindeskSnapshot snapshot, Set<String> codes) {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        for (Map.Entry<String, CoindeskSnapshot.Rate> entry : snapshot.getRates().entrySet()) {
+            if (codes.isEmpty() || codes.contains(entry.getKey())) {
+                rates.put(entry.getKey(), entry.getValue().getRateFloat());
+            }
+        }
+        try {
+            String json = objectMapper.writeValueAsString(
+                    new RateStreamEvent(snapshot.getVersion(), snapshot.getUpdatedIso(), rates));
+            return new RateStreamMessage(snapshot.getVersion(), json);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
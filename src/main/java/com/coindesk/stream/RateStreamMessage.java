@@ -0,0 +1,12 @@
+package com.coindesk.stream;
+
+import lombok.Value;
+
+/**
+ * 已序列化的推播訊息，同一次廣播中相同篩選條件的訂閱者共用
+ */
+@Value
+class RateStreamMessage {
+    long version;
+    String json;
+}
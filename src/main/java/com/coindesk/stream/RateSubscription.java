@@ -0,0 +1,102 @@
+package com.coindesk.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 單一訂閱者的狀態：幣別篩選條件與有上限的待送訊息緩衝
+ *
+ * 緩衝已滿時捨棄最舊的訊息，慢速的訂閱者只會收到較新的數據，不會拖累其他訂閱者
+ */
+class RateSubscription {
+
+    private final SseEmitter emitter;
+    private final Set<String> codes;
+    private final int capacity;
+    private final ArrayDeque<RateStreamMessage> buffer;
+    // 是否已有執行緒負責送出此訂閱者的訊息
+    private final AtomicBoolean draining = new AtomicBoolean();
+    // 最後送出的快照版本，只由取得送出權的執行緒存取
+    private long lastVersion;
+
+    /**
+     * @param codes 訂閱的幣別代碼，空集合表示全部
+     * @param capacity 待送訊息上限
+     */
+    RateSubscription(SseEmitter emitter, Set<String> codes, int capacity) {
+        this.emitter = emitter;
+        this.codes = Collections.unmodifiableSet(codes);
+        this.capacity = Math.max(1, capacity);
+        this.buffer = new ArrayDeque<>(this.capacity);
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    Set<String> getCodes() {
+        return codes;
+    }
+
+    /**
+     * 取得送出權，同一訂閱者同時只由一個執行緒送出
+     * @return 是否取得 (已有其他執行緒負責時為 false)
+     */
+    boolean startDrain() {
+        return draining.compareAndSet(false, true);
+    }
+
+    /**
+     * 釋放送出權
+     */
+    void finishDrain() {
+        draining.set(false);
+    }
+
+    boolean isDraining() {
+        return draining.get();
+    }
+
+    /**
+     * @return 此版本是否不比已送出的版本新，只由取得送出權的執行緒呼叫
+     */
+    boolean isSent(long version) {
+        return version <= lastVersion;
+    }
+
+    /**
+     * 記錄已送出的版本，只由取得送出權的執行緒呼叫
+     */
+    void markSent(long version) {
+        lastVersion = version;
+    }
+
+    /**
+     * 加入待送訊息，緩衝已滿時捨棄最舊的一筆
+     * @return 是否捨棄了訊息
+     */
+    synchronized boolean offer(RateStreamMessage message) {
+        boolean coalesced = false;
+        if (buffer.size() >= capacity) {
+            buffer.pollFirst();
+            coalesced = true;
+        }
+        buffer.addLast(message);
+        return coalesced;
+    }
+
+    /**
+     * @return 下一筆待送訊息，沒有時為 null
+     */
+    synchronized RateStreamMessage poll() {
+        return buffer.pollFirst();
+    }
+
+    synchronized boolean isEmpty() {
+        return buffer.isEmpty();
+    }
+}
@@ -0,0 +1,106 @@
+package com.coindesk.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 日期時間工具
+ */
+public final class DateTimeUtils {
+
+    /**
+     * 對外顯示用的時間格式 (例如 2024/09/02 15:07:20)，以系統時區輸出
+     * DateTimeFormatter 為不可變且執行緒安全，可直接共用
+     */
+    private static final DateTimeFormatter DISPLAY_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private DateTimeUtils() {
+    }
+
+    /**
+     * 將時間格式化為 yyyy/MM/dd HH:mm:ss
+     * @param instant 時間
+     * @return 格式化後的字串，時間為 null 時回傳 null
+     */
+    public static String formatDisplay(Instant instant) {
+        return instant != null ? DISPLAY_FORMATTER.format(instant) : null;
+    }
+
+    /**
+     * 解析 Coindesk 的 ISO 時間 (例如 2024-09-02T07:07:20+00:00)
+     * @param isoDateTime ISO 格式時間字串
+     * @return 對應的 Instant，無法解析時回傳 null
+     */
+    public static Instant parseIsoInstant(String isoDateTime) {
+        if (isoDateTime == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(isoDateTime, DateTimeFormatter.ISO_OFFSET_DATE_TIME).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 解析時間間隔，支援簡寫 (例如 30s、1m、5m、1h、1d) 或 ISO-8601 格式 (例如 PT5M)
+     * @param step 時間間隔字串
+     * @return 時間間隔
+     * @throws IllegalArgumentException 格式錯誤或間隔不為正數時
+     */
+    public static Duration parseStep(String step) {
+        if (step == null || step.isEmpty()) {
+            throw new IllegalArgumentException("時間間隔不可為空");
+        }
+        Duration duration;
+        try {
+            if (step.startsWith("P") || step.startsWith("p")) {
+                duration = Duration.parse(step);
+            } else {
+                long amount = Long.parseLong(step.substring(0, step.length() - 1));
+                switch (step.charAt(step.length() - 1)) {
+                    case 's':
+                        duration = Duration.ofSeconds(amount);
+                        break;
+                    case 'm':
+                        duration = Duration.ofMinutes(amount);
+                        break;
+                    case 'h':
+                        duration = Duration.ofHours(amount);
+                        break;
+                    case 'd':
+                        duration = Duration.ofDays(amount);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("不支援的時間間隔: " + step);
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("不支援的時間間隔: " + step, e);
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("時間間隔必須大於 0: " + step);
+        }
+        return duration;
+    }
+
+    /**
+     * 解析查詢參數中的時間，接受 ISO-8601 格式 (例如 2024-09-02T07:07:20Z)
+     * @param value 時間字串
+     * @param name 參數名稱，用於錯誤訊息
+     * @return 對應的 Instant
+     * @throws IllegalArgumentException 格式錯誤時
+     */
+    public static Instant parseRequiredInstant(String value, String name) {
+        Instant instant = parseIsoInstant(value);
+        if (instant == null) {
+            throw new IllegalArgumentException("無效的時間參數 " + name + ": " + value);
+        }
+        return instant;
+    }
+}
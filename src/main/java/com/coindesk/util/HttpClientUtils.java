@@ -0,0 +1,47 @@
+package com.coindesk.util;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP 用戶端工具
+ */
+public final class HttpClientUtils {
+
+    private HttpClientUtils() {
+    }
+
+    /**
+     * 建立使用連線池與 keep-alive 的請求工廠
+     * @param maxConnections 連線池最大連線數
+     * @param connectTimeoutMs 連線逾時 (毫秒)
+     * @param readTimeoutMs 讀取逾時 (毫秒)
+     * @return 請求工廠
+     */
+    public static HttpComponentsClientHttpRequestFactory pooledRequestFactory(
+            int maxConnections, int connectTimeoutMs, int readTimeoutMs) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        // 重用閒置過久的連線前先檢查是否仍有效
+        connectionManager.setValidateAfterInactivity(2000);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMs)
+                .setSocketTimeout(readTimeoutMs)
+                .setConnectionRequestTimeout(connectTimeoutMs)
+                .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(30, TimeUnit.SECONDS)
+                .build();
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+}
@@ -0,0 +1,59 @@
+package com.coindesk.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 虛擬執行緒工具
+ *
+ * 專案以 Java 8 編譯，因此以反射呼叫 JDK 21 的 API；執行環境不支援時回傳 null
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return 執行環境是否支援虛擬執行緒
+     */
+    public static boolean isSupported() {
+        return threadFactory("probe-") != null;
+    }
+
+    /**
+     * 建立以虛擬執行緒執行的工廠
+     * @param namePrefix 執行緒名稱前綴，後接遞增編號
+     * @return 執行緒工廠，不支援時為 null
+     */
+    public static ThreadFactory threadFactory(String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            // JDK 21 以前沒有此 API；JDK 19、20 未開啟 preview 時會拋出 UnsupportedOperationException
+            return null;
+        }
+    }
+
+    /**
+     * 建立每個任務一條虛擬執行緒的執行器
+     * @param namePrefix 執行緒名稱前綴
+     * @return 執行器，不支援時為 null
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        ThreadFactory factory = threadFactory(namePrefix);
+        if (factory == null) {
+            return null;
+        }
+        try {
+            Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) method.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+-- 初始資料表結構
+-- 僅使用 H2 (MySQL / PostgreSQL 相容模式) 與 PostgreSQL 皆支援的語法
+
+CREATE TABLE currency (
+    code         VARCHAR(10)  NOT NULL,
+    chinese_name VARCHAR(50)  NOT NULL,
+    english_name VARCHAR(100),
+    CONSTRAINT pk_currency PRIMARY KEY (code)
+);
+
+-- Hibernate 以 pooled 最佳化配置序列值，遞增量需與實體的 allocationSize 相同
+CREATE SEQUENCE coindesk_data_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE coindesk_data (
+    id           BIGINT       NOT NULL,
+    updated_time VARCHAR(255) NOT NULL,
+    updated_iso  VARCHAR(255) NOT NULL,
+    updated_at   TIMESTAMP    NOT NULL,
+    updated_uk   VARCHAR(255),
+    disclaimer   VARCHAR(255),
+    chart_name   VARCHAR(255),
+    create_time  TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_coindesk_data PRIMARY KEY (id)
+);
+
+-- 取得最新一筆 (findLatest) 依建立時間與 ID 倒序
+CREATE INDEX idx_coindesk_data_create_time ON coindesk_data (create_time DESC, id DESC);
+-- 依數據更新時間查詢與排序
+CREATE INDEX idx_coindesk_data_updated_at ON coindesk_data (updated_at);
+
+CREATE SEQUENCE exchange_rate_seq START WITH 1 INCREMENT BY 100;
+
+CREATE TABLE exchange_rate (
+    id            BIGINT           NOT NULL,
+    coindesk_id   BIGINT           NOT NULL,
+    currency_code VARCHAR(10)      NOT NULL,
+    rate_time     TIMESTAMP        NOT NULL,
+    symbol        VARCHAR(255),
+    rate          VARCHAR(50)      NOT NULL,
+    rate_float    DOUBLE PRECISION NOT NULL,
+    CONSTRAINT pk_exchange_rate PRIMARY KEY (id),
+    CONSTRAINT fk_exchange_rate_coindesk_data FOREIGN KEY (coindesk_id) REFERENCES coindesk_data (id),
+    CONSTRAINT fk_exchange_rate_currency FOREIGN KEY (currency_code) REFERENCES currency (code)
+);
+
+-- 依數據查詢匯率 (外鍵在 PostgreSQL 不會自動建立索引)
+CREATE INDEX idx_exchange_rate_coindesk_id ON exchange_rate (coindesk_id);
+-- 單一幣別的時間序列查詢與鍵集分頁
+CREATE INDEX idx_exchange_rate_code_time ON exchange_rate (currency_code, rate_time, id);
+
+-- 各幣別目前的匯率
+CREATE TABLE latest_rate (
+    currency_code    VARCHAR(10) NOT NULL,
+    rate_time        TIMESTAMP   NOT NULL,
+    exchange_rate_id BIGINT      NOT NULL,
+    CONSTRAINT pk_latest_rate PRIMARY KEY (currency_code),
+    CONSTRAINT fk_latest_rate_exchange_rate FOREIGN KEY (exchange_rate_id) REFERENCES exchange_rate (id)
+);
+
+CREATE INDEX idx_latest_rate_exchange_rate_id ON latest_rate (exchange_rate_id);
@@ -0,0 +1,5 @@
+-- 初始化幣別表數據
+INSERT INTO currency (code, chinese_name, english_name) VALUES ('USD', '美元', 'United States Dollar');
+INSERT INTO currency (code, chinese_name, english_name) VALUES ('GBP', '英鎊', 'British Pound Sterling');
+INSERT INTO currency (code, chinese_name, english_name) VALUES ('EUR', '歐元', 'Euro');
+INSERT INTO currency (code, chinese_name, english_name) VALUES ('JPY', '日圓', 'Japanese Yen');
@@ -0,0 +1,20 @@
+-- 匯率 K 線 (OHLC) 彙總
+-- 歷史壓縮將超過保留期限的原始匯率彙總為 1 分鐘 K 線，再將較舊的 1 分鐘 K 線彙總為 1 小時 K 線
+-- 開盤與收盤時間一併保存，使合併結果與處理順序無關
+
+CREATE TABLE rate_candle (
+    currency_code    VARCHAR(10)      NOT NULL,
+    interval_seconds INTEGER          NOT NULL,
+    bucket_start     TIMESTAMP        NOT NULL,
+    open_rate        DOUBLE PRECISION NOT NULL,
+    high_rate        DOUBLE PRECISION NOT NULL,
+    low_rate         DOUBLE PRECISION NOT NULL,
+    close_rate       DOUBLE PRECISION NOT NULL,
+    open_time        TIMESTAMP        NOT NULL,
+    close_time       TIMESTAMP        NOT NULL,
+    sample_count     BIGINT           NOT NULL,
+    CONSTRAINT pk_rate_candle PRIMARY KEY (currency_code, interval_seconds, bucket_start)
+);
+
+-- 依週期與時間找出超過保留期限的 K 線
+CREATE INDEX idx_rate_candle_interval_bucket ON rate_candle (interval_seconds, bucket_start);
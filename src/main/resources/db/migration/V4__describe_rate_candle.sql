@@ -0,0 +1,5 @@
+-- 更正 V3 的說明 (已套用的遷移不可修改，否則 Flyway 校驗和不符)
+-- K 線由 CandleStore 在每次寫入提交後增量維護；歷史壓縮不再逐層彙總，
+-- 只為資料庫中尚無 K 線的區間補上彙總後刪除原始匯率，1 分鐘與 5 分鐘 K 線超過保留期限後直接刪除
+
+COMMENT ON TABLE rate_candle IS '匯率 K 線 (OHLC)，寫入時增量維護；1 小時 K 線永久保存';
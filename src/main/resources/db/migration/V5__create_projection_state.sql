@@ -0,0 +1,9 @@
+-- 快照日誌投影進度
+-- log 模式下資料庫由日誌非同步投影，每次投影在同一交易中記錄已投影的最後一筆日誌序號，
+-- 啟動時由此之後的日誌紀錄重新投影
+
+CREATE TABLE projection_state (
+    name          VARCHAR(50) NOT NULL,
+    last_sequence BIGINT      NOT NULL,
+    CONSTRAINT pk_projection_state PRIMARY KEY (name)
+);
@@ -1,36 +1,58 @@
 package com.coindesk;
 
 import com.coindesk.dto.ApiResponse;
+import com.coindesk.dto.BulkIngestResult;
+import com.coindesk.dto.ConversionRequest;
+import com.coindesk.dto.ConversionResult;
+import com.coindesk.dto.CurrencyCacheStatsResponse;
 import com.coindesk.dto.CurrencyDto;
 import com.coindesk.dto.CustomCurrencyResponse;
+import com.coindesk.dto.IngestStatsResponse;
+import com.coindesk.dto.RateCandlesResponse;
+import com.coindesk.dto.RateHistoryResponse;
+import com.coindesk.dto.RateStatsResponse;
+import com.coindesk.dto.RateStreamEvent;
+import com.coindesk.dto.StreamStatsResponse;
 import com.coindesk.dto.coindesk.CoindeskResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 import static org.junit.jupiter.api.Assertions.fail;
 
 /**
  * API 整合測試
  */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMetrics
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class CoindeskApiApplicationTests {
 
@@ -39,6 +61,9 @@ class CoindeskApiApplicationTests {
 
     @Autowired
     private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
     
     // 測試報告生成標記，用於確保僅生成一次報告
     private static boolean reportGenerated = false;
@@ -163,6 +188,27 @@ class CoindeskApiApplicationTests {
         } else {
             fail("Response body should not be null");
         }
+        
+        // 刪除後幣別字典不應再回傳已刪除的幣別
+        ResponseEntity<ApiResponse<CurrencyDto>> deletedResponse = restTemplate.exchange(
+                baseUrl + "/TWD",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ApiResponse<CurrencyDto>>() {}
+        );
+        assertThat(deletedResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        
+        ResponseEntity<ApiResponse<CurrencyCacheStatsResponse>> cacheStatsResponse = restTemplate.exchange(
+                baseUrl + "/cache/stats",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ApiResponse<CurrencyCacheStatsResponse>>() {}
+        );
+        assertThat(cacheStatsResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        CurrencyCacheStatsResponse cacheStats = cacheStatsResponse.getBody().getData();
+        assertThat(cacheStats.getHits()).isGreaterThan(0);
+        assertThat(cacheStats.getInvalidations()).isGreaterThan(0);
+        System.out.println("幣別快取統計: " + cacheStats);
     }
     
     /**
@@ -184,6 +230,7 @@ class CoindeskApiApplicationTests {
         );
         
         assertThat(transformResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(transformResponse.getHeaders().getETag()).isNotNull();
         ApiResponse<CustomCurrencyResponse> transformResult = transformResponse.getBody();
         if (transformResult != null) {
             assertThat(transformResult.getReturnCode()).isEqualTo(200);
@@ -199,6 +246,29 @@ class CoindeskApiApplicationTests {
         } else {
             fail("Response body should not be null");
         }
+        
+        // 數據未變更時帶上 ETag 應回應 304 且不含內容
+        assertNotModified(transformUrl, transformResponse.getHeaders());
+        assertNotModified("http://localhost:" + port + "/api/currencies", restTemplate.exchange(
+                "http://localhost:" + port + "/api/currencies",
+                HttpMethod.GET,
+                null,
+                String.class).getHeaders());
+    }
+    
+    private void assertNotModified(String url, HttpHeaders firstResponseHeaders) {
+        String etag = firstResponseHeaders.getETag();
+        assertThat(etag).isNotNull();
+        assertThat(firstResponseHeaders.getCacheControl()).startsWith("max-age=");
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<String> response = restTemplate.exchange(
+                url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(response.getBody()).isNull();
+        System.out.println(url + " 以 ETag " + etag + " 回應 304");
     }
     
     /**
@@ -256,6 +326,319 @@ class CoindeskApiApplicationTests {
         } else {
             fail("Response body should not be null");
         }
+        
+        // 重複輸入相同數據不再寫入，並計入去重統計
+        System.out.println("\n重複輸入相同數據...");
+        restTemplate.exchange(inputUrl, HttpMethod.POST, new HttpEntity<>(testData),
+                new ParameterizedTypeReference<ApiResponse<Void>>() {});
+        ResponseEntity<ApiResponse<IngestStatsResponse>> statsResponse = restTemplate.exchange(
+                "http://localhost:" + port + "/api/coindesk/ingest/stats",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ApiResponse<IngestStatsResponse>>() {}
+        );
+        assertThat(statsResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(statsResponse.getBody().getData().getDuplicatesSkipped()).isGreaterThanOrEqualTo(1);
+        System.out.println("寫入統計: " + statsResponse.getBody().getData());
+    }
+    
+    /**
+     * 測試以 NDJSON 批次匯入多筆 Coindesk 數據
+     */
+    @Test
+    @Order(5)
+    void testBulkInputCoindeskData() {
+        System.out.println("\n========== 測試批次匯入 Coindesk 數據 ==========");
+        
+        String bulkUrl = "http://localhost:" + port + "/api/coindesk/bulk-input?chunkSize=2";
+        String record = "{\"time\":{\"updated\":\"Jan 1, 2024 00:0%d:00 UTC\",\"updatedISO\":\"2024-01-01T00:0%d:00+00:00\"},"
+                + "\"chartName\":\"Bitcoin\",\"bpi\":{\"USD\":{\"code\":\"USD\",\"rate\":\"42,000.00\",\"rate_float\":4200%d.0}}}";
+        String body = String.format(record, 1, 1, 1) + "\n"
+                + String.format(record, 2, 2, 2) + "\n"
+                + "{\"chartName\":\"missing time\"}\n"
+                + String.format(record, 3, 3, 3) + "\n";
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        ResponseEntity<ApiResponse<BulkIngestResult>> bulkResponse = restTemplate.exchange(
+                bulkUrl,
+                HttpMethod.POST,
+                new HttpEntity<>(body, headers),
+                new ParameterizedTypeReference<ApiResponse<BulkIngestResult>>() {}
+        );
+        
+        assertThat(bulkResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        ApiResponse<BulkIngestResult> bulkResult = bulkResponse.getBody();
+        if (bulkResult != null) {
+            BulkIngestResult result = bulkResult.getData();
+            assertThat(result.getTotalRecords()).isEqualTo(4);
+            assertThat(result.getSucceededRecords()).isEqualTo(3);
+            assertThat(result.getFailedRecords()).isEqualTo(1);
+            assertThat(result.getChunks()).hasSize(2);
+            assertThat(result.getErrorMessage()).isNull();
+            System.out.println("批次匯入成功: " + result);
+        } else {
+            fail("Response body should not be null");
+        }
+    }
+    
+    /**
+     * 測試匯率歷史查詢 (依賴批次匯入的數據)
+     */
+    @Test
+    @Order(6)
+    void testRateHistory() {
+        System.out.println("\n========== 測試匯率歷史查詢 ==========");
+        
+        String historyUrl = "http://localhost:" + port + "/api/rates/USD/history"
+                + "?from=2024-01-01T00:00:00Z&to=2024-01-01T01:00:00Z";
+        
+        // 原始資料分頁
+        ResponseEntity<ApiResponse<RateHistoryResponse>> pageResponse = restTemplate.exchange(
+                historyUrl + "&limit=2",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ApiResponse<RateHistoryResponse>>() {}
+        );
+        assertThat(pageResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        RateHistoryResponse firstPage = pageResponse.getBody().getData();
+        assertThat(firstPage.getPoints()).hasSize(2);
+        assertThat(firstPage.getPoints().get(0).getRate()).isEqualTo(42001.0);
+        assertThat(firstPage.getNextCursor()).isNotNull();
+        
+        ResponseEntity<ApiResponse<RateHistoryResponse>> nextResponse = restTemplate.exchange(
+                historyUrl + "&limit=2&cursor=" + firstPage.getNextCursor(),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ApiResponse<RateHistoryResponse>>() {}
+        );
+        RateHistoryResponse secondPage = nextResponse.getBody().getData();
+        assertThat(secondPage.getPoints()).hasSize(1);
+        assertThat(secondPage.getPoints().get(0).getRate()).isEqualTo(42003.0);
+        assertThat(secondPage.getNextCursor()).isNull();
+        
+        // 以一小時取樣，只回傳區間內最後一筆
+        ResponseEntity<ApiResponse<RateHistoryResponse>> sampledResponse = restTemplate.exchange(
+                historyUrl + "&step=1h",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ApiResponse<RateHistoryResponse>>() {}
+        );
+        RateHistoryResponse sampled = sampledResponse.getBody().getData();
+        assertThat(sampled.getStepSeconds()).isEqualTo(3600L);
+        assertThat(sampled.getPoints()).hasSize(1);
+        assertThat(sampled.getPoints().get(0).getRate()).isEqualTo(42003.0);
+        System.out.println("匯率歷史: " + sampled);
+        
+        // 無效的時間間隔
+        ResponseEntity<ApiResponse<RateHistoryResponse>> invalidResponse = restTemplate.exchange(
+                historyUrl + "&step=abc",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ApiResponse<RateHistoryResponse>>() {}
+        );
+        assertThat(invalidResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        
+        // 區間統計
+        ResponseEntity<ApiResponse<RateStatsResponse>> statsResponse = restTemplate.exchange(
+                "http://localhost:" + port + "/api/rates/USD/stats?from=2024-01-01T00:00:00Z&to=2024-01-01T01:00:00Z",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ApiResponse<RateStatsResponse>>() {}
+        );
+        RateStatsResponse stats = statsResponse.getBody().getData();
+        assertThat(stats.getCount()).isEqualTo(3);
+        assertThat(stats.getFirst()).isEqualTo(42001.0);
+        assertThat(stats.getLast()).isEqualTo(42003.0);
+        assertThat(stats.getAverage()).isEqualTo(42002.0);
+        System.out.println("匯率統計: " + stats);
+    }
+    
+    /**
+     * 測試 SSE 匯率推播：訂閱後先收到目前數據，之後收到新寫入的數據 (依幣別篩選)
+     */
+    @Test
+    @Order(7)
+    void testRateStream() throws IOException {
+        System.out.println("\n========== 測試匯率推播 ==========");
+        
+        HttpURLConnection connection = (HttpURLConnection) new URL(
+                "http://localhost:" + port + "/api/stream/rates?codes=usd").openConnection();
+        connection.setRequestProperty("Accept", MediaType.TEXT_EVENT_STREAM_VALUE);
+        connection.setReadTimeout(10000);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            RateStreamEvent initial = readStreamEvent(reader);
+            assertThat(initial.getRates()).containsOnlyKeys("USD");
+            
+            CoindeskResponse testData = createTestCoindeskData();
+            testData.getTime().setUpdatedISO("2024-10-08T10:20:10+00:00");
+            testData.getBpi().get("USD").setRateFloat(61000.00);
+            restTemplate.exchange("http://localhost:" + port + "/api/coindesk/input", HttpMethod.POST,
+                    new HttpEntity<>(testData), new ParameterizedTypeReference<ApiResponse<Void>>() {});
+            
+            RateStreamEvent update = readStreamEvent(reader);
+            assertThat(update.getVersion()).isGreaterThan(initial.getVersion());
+            assertThat(update.getRates()).containsOnlyKeys("USD");
+            assertThat(update.getRates().get("USD")).isEqualTo(61000.00);
+            System.out.println("收到推播: " + update);
+            
+            ResponseEntity<ApiResponse<StreamStatsResponse>> statsResponse = restTemplate.exchange(
+                    "http://localhost:" + port + "/api/stream/stats",
+                    HttpMethod.GET,
+                    null,
+                    new ParameterizedTypeReference<ApiResponse<StreamStatsResponse>>() {}
+            );
+            StreamStatsResponse stats = statsResponse.getBody().getData();
+            assertThat(stats.getSubscribers()).isGreaterThanOrEqualTo(1);
+            assertThat(stats.getBroadcasts()).isGreaterThanOrEqualTo(1);
+            System.out.println("推播統計: " + stats);
+        } finally {
+            connection.disconnect();
+        }
+    }
+    
+    /**
+     * 測試幣別換算：單筆換算使用最新數據，批次換算中無法換算的項目不影響其他項目
+     */
+    @Test
+    @Order(8)
+    void testConvert() {
+        System.out.println("\n========== 測試幣別換算 ==========");
+        
+        CoindeskResponse testData = createTestCoindeskData();
+        testData.getTime().setUpdatedISO("2024-10-08T10:30:10+00:00");
+        testData.getBpi().get("USD").setRateFloat(70000.00);
+        testData.getBpi().get("EUR").setRateFloat(56000.00);
+        restTemplate.exchange("http://localhost:" + port + "/api/coindesk/input", HttpMethod.POST,
+                new HttpEntity<>(testData), new ParameterizedTypeReference<ApiResponse<Void>>() {});
+        
+        ResponseEntity<ApiResponse<ConversionResult>> response = restTemplate.exchange(
+                "http://localhost:" + port + "/api/convert?from=eur&to=USD&amount=2",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ApiResponse<ConversionResult>>() {}
+        );
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        ConversionResult result = response.getBody().getData();
+        assertThat(result.getRate()).isEqualTo(1.25);
+        assertThat(result.getResult()).isEqualTo(2.5);
+        assertThat(result.getUpdateTime()).isEqualTo("2024-10-08T10:30:10+00:00");
+        System.out.println("換算結果: " + result);
+        
+        ResponseEntity<ApiResponse<Void>> unsupported = restTemplate.exchange(
+                "http://localhost:" + port + "/api/convert?from=EUR&to=XXX",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ApiResponse<Void>>() {}
+        );
+        assertThat(unsupported.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        
+        List<ConversionRequest> requests = Arrays.asList(
+                new ConversionRequest("USD", "EUR", 7.0),
+                new ConversionRequest("XXX", "EUR", 1.0),
+                new ConversionRequest("BTC", "USD", null));
+        ResponseEntity<ApiResponse<List<ConversionResult>>> batchResponse = restTemplate.exchange(
+                "http://localhost:" + port + "/api/convert/batch",
+                HttpMethod.POST,
+                new HttpEntity<>(requests),
+                new ParameterizedTypeReference<ApiResponse<List<ConversionResult>>>() {}
+        );
+        assertThat(batchResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<ConversionResult> results = batchResponse.getBody().getData();
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).getResult()).isCloseTo(5.6, within(1e-9));
+        assertThat(results.get(1).getResult()).isNull();
+        assertThat(results.get(1).getError()).isNotNull();
+        assertThat(results.get(2).getResult()).isEqualTo(70000.00);
+        System.out.println("批次換算結果: " + results);
+    }
+    
+    /**
+     * 測試監控指標：Prometheus 端點包含寫入、讀取路徑與 API 端點的指標
+     */
+    @Test
+    @Order(9)
+    void testMetrics() {
+        System.out.println("\n========== 測試監控指標 ==========");
+        
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "http://localhost:" + port + "/actuator/prometheus", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String metrics = response.getBody();
+        assertThat(metrics)
+                .contains("coindesk_ingest_save_seconds_count{application=\"coindesk-api\",mode=\"sequence\",}")
+                .contains("coindesk_ingest_records_written_total")
+                .contains("coindesk_ingest_duplicates_skipped_total")
+                .contains("coindesk_snapshot_requests_total{application=\"coindesk-api\",result=\"hit\",}")
+                .contains("coindesk_read_transformed_seconds_bucket")
+                .contains("coindesk_currency_cache_requests_total")
+                .contains("http_server_requests_seconds_bucket")
+                .contains("uri=\"/api/convert\"");
+        System.out.println("Prometheus 指標長度: " + metrics.length());
+    }
+    
+    /**
+     * 測試匯率 K 線查詢 (依賴批次匯入的數據，早於目前區間而直接併入資料庫)
+     */
+    @Test
+    @Order(10)
+    void testRateCandles() {
+        System.out.println("\n========== 測試匯率 K 線查詢 ==========");
+        
+        String candlesUrl = "http://localhost:" + port + "/api/rates/USD/candles"
+                + "?from=2024-01-01T00:00:00Z&to=2024-01-01T01:00:00Z";
+        
+        ResponseEntity<ApiResponse<RateCandlesResponse>> minuteResponse = restTemplate.exchange(
+                candlesUrl + "&interval=1m",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ApiResponse<RateCandlesResponse>>() {}
+        );
+        assertThat(minuteResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        RateCandlesResponse minute = minuteResponse.getBody().getData();
+        assertThat(minute.getIntervalSeconds()).isEqualTo(60L);
+        assertThat(minute.getCandles()).extracting(RateCandlesResponse.Candle::getClose)
+                .containsExactly(42001.0, 42002.0, 42003.0);
+        
+        ResponseEntity<ApiResponse<RateCandlesResponse>> hourResponse = restTemplate.exchange(
+                candlesUrl + "&interval=1h",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ApiResponse<RateCandlesResponse>>() {}
+        );
+        RateCandlesResponse hour = hourResponse.getBody().getData();
+        assertThat(hour.getCandles()).hasSize(1);
+        RateCandlesResponse.Candle candle = hour.getCandles().get(0);
+        assertThat(candle.getOpen()).isEqualTo(42001.0);
+        assertThat(candle.getHigh()).isEqualTo(42003.0);
+        assertThat(candle.getLow()).isEqualTo(42001.0);
+        assertThat(candle.getClose()).isEqualTo(42003.0);
+        assertThat(candle.getCount()).isEqualTo(3);
+        System.out.println("匯率 K 線: " + hour);
+        
+        // 不支援的週期
+        ResponseEntity<ApiResponse<RateCandlesResponse>> invalidResponse = restTemplate.exchange(
+                candlesUrl + "&interval=2m",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ApiResponse<RateCandlesResponse>>() {}
+        );
+        assertThat(invalidResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+    
+    /**
+     * 讀取下一個 SSE 數據事件
+     */
+    private RateStreamEvent readStreamEvent(BufferedReader reader) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("data:")) {
+                return objectMapper.readValue(line.substring("data:".length()), RateStreamEvent.class);
+            }
+        }
+        fail("推播連線已關閉");
+        return null;
     }
     
     /**
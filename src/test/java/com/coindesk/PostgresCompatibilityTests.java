@@ -0,0 +1,133 @@
+package com.coindesk;
+
+import com.coindesk.dto.RateHistoryResponse;
+import com.coindesk.dto.coindesk.CoindeskResponse;
+import com.coindesk.entity.LatestRateEntity;
+import com.coindesk.history.CandleStore;
+import com.coindesk.history.CompactionResult;
+import com.coindesk.history.HistoryCompactor;
+import com.coindesk.repository.CoindeskDataRepository;
+import com.coindesk.repository.CurrencyRepository;
+import com.coindesk.repository.LatestRateRepository;
+import com.coindesk.service.CoindeskApiService;
+import com.coindesk.service.RateHistoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PostgreSQL 相容性測試
+ * 以 postgres 設定檔 (PostgreSQL 方言) 搭配 H2 的 PostgreSQL 相容模式，
+ * 驗證遷移腳本、實體結構驗證與寫入及查詢路徑；
+ * 資料庫隨測試結束時關閉的 context 一併移除，重複執行時從空資料庫開始
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:postgres-compat;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                        + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.datasource.driverClassName=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.show-sql=false",
+                "coindesk.history.store.enabled=false"
+        })
+@ActiveProfiles("postgres")
+@DirtiesContext
+class PostgresCompatibilityTests {
+
+    @Autowired
+    private CoindeskApiService coindeskApiService;
+
+    @Autowired
+    private RateHistoryService rateHistoryService;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private CoindeskDataRepository coindeskDataRepository;
+
+    @Autowired
+    private LatestRateRepository latestRateRepository;
+
+    @Autowired
+    private HistoryCompactor historyCompactor;
+
+    @Autowired
+    private CandleStore candleStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testMigrationsAndQueries() {
+        // 遷移已依序套用，且幣別初始化數據已寫入
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"version\" IS NOT NULL AND \"success\" ORDER BY \"installed_rank\"",
+                String.class);
+        assertThat(versions).containsExactly("1", "2", "3", "4", "5");
+        assertThat(currencyRepository.findById("JPY")).isPresent();
+
+        coindeskApiService.saveCoindeskData(createData("2024-09-02T07:07:20+00:00", 57756.2984));
+        coindeskApiService.saveCoindeskData(createData("2024-09-02T07:08:20+00:00", 57800.1234));
+
+        assertThat(coindeskDataRepository.findLatest()).get()
+                .extracting(data -> data.getUpdatedIso())
+                .isEqualTo("2024-09-02T07:08:20+00:00");
+        List<LatestRateEntity> latestRates = latestRateRepository.findAllWithRates();
+        assertThat(latestRates).hasSize(1);
+        assertThat(latestRates.get(0).getExchangeRate().getRateFloat()).isEqualTo(57800.1234);
+
+        // 歷史查詢直接由資料庫以鍵集分頁取得
+        RateHistoryResponse history = rateHistoryService.getHistory(
+                "USD", "2024-09-02T00:00:00Z", "2024-09-03T00:00:00Z", null, null, 1);
+        assertThat(history.getPoints()).hasSize(1);
+        assertThat(history.getNextCursor()).isNotNull();
+        RateHistoryResponse next = rateHistoryService.getHistory(
+                "USD", "2024-09-02T00:00:00Z", "2024-09-03T00:00:00Z", null, history.getNextCursor(), 1);
+        assertThat(next.getPoints()).extracting(RateHistoryResponse.Point::getRate).containsExactly(57800.1234);
+
+        // 歷史壓縮: 刪除超過保留期限且 K 線已寫入的匯率，最新匯率與最新一筆數據保留
+        candleStore.flush();
+        CompactionResult compaction = historyCompactor.compact(Instant.parse("2024-09-20T00:00:00Z"));
+        assertThat(compaction.getRatesDeleted()).isPositive();
+        assertThat(coindeskDataRepository.count()).isEqualTo(1);
+        assertThat(latestRateRepository.findAllWithRates())
+                .extracting(latestRate -> latestRate.getExchangeRate().getRateFloat())
+                .containsExactly(57800.1234);
+    }
+
+    private static CoindeskResponse createData(String updatedIso, double usdRate) {
+        CoindeskResponse response = new CoindeskResponse();
+        response.setChartName("Bitcoin");
+        response.setDisclaimer("postgres compatibility");
+
+        CoindeskResponse.TimeInfo timeInfo = new CoindeskResponse.TimeInfo();
+        timeInfo.setUpdated(updatedIso);
+        timeInfo.setUpdatedISO(updatedIso);
+        timeInfo.setUpdateduk(updatedIso);
+        response.setTime(timeInfo);
+
+        CoindeskResponse.CurrencyInfo usd = new CoindeskResponse.CurrencyInfo();
+        usd.setCode("USD");
+        usd.setSymbol("&#36;");
+        usd.setRate(String.valueOf(usdRate));
+        usd.setDescription("United States Dollar");
+        usd.setRateFloat(usdRate);
+        Map<String, CoindeskResponse.CurrencyInfo> bpi = new LinkedHashMap<>();
+        bpi.put("USD", usd);
+        response.setBpi(bpi);
+        return response;
+    }
+}
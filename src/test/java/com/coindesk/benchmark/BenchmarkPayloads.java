@@ -0,0 +1,49 @@
+package com.coindesk.benchmark;
+
+import com.coindesk.dto.coindesk.CoindeskResponse;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 基準測試用的 Coindesk 數據
+ */
+final class BenchmarkPayloads {
+
+    private static final Instant BASE_TIME = Instant.parse("2024-09-02T07:07:20Z");
+
+    private BenchmarkPayloads() {
+    }
+
+    /**
+     * 建立指定幣別數量的數據，不同序號的更新時間與匯率皆不同，避免寫入時被視為重複數據而略過
+     * @param currencyCount 幣別數量
+     * @param sequence 序號
+     */
+    static CoindeskResponse create(int currencyCount, long sequence) {
+        CoindeskResponse response = new CoindeskResponse();
+        response.setChartName("Benchmark");
+        response.setDisclaimer("benchmark payload");
+
+        Instant updatedAt = BASE_TIME.plusSeconds(sequence * 60);
+        CoindeskResponse.TimeInfo timeInfo = new CoindeskResponse.TimeInfo();
+        timeInfo.setUpdated(updatedAt.toString());
+        timeInfo.setUpdatedISO(updatedAt.toString().replace("Z", "+00:00"));
+        timeInfo.setUpdateduk(updatedAt.toString());
+        response.setTime(timeInfo);
+
+        Map<String, CoindeskResponse.CurrencyInfo> bpi = new LinkedHashMap<>();
+        for (int i = 0; i < currencyCount; i++) {
+            CoindeskResponse.CurrencyInfo info = new CoindeskResponse.CurrencyInfo();
+            info.setCode(String.format("B%05d", i));
+            info.setSymbol("&#36;");
+            info.setRate("57,756.298");
+            info.setDescription("Benchmark Currency " + i);
+            info.setRateFloat(57756.2984 + i + sequence * 0.01);
+            bpi.put(info.getCode(), info);
+        }
+        response.setBpi(bpi);
+        return response;
+    }
+}
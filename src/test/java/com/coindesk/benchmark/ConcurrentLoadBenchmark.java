@@ -0,0 +1,77 @@
+package com.coindesk.benchmark;
+
+import com.coindesk.CoindeskApiApplication;
+import com.coindesk.benchmark.HttpLoadGenerator.LoadResult;
+import com.coindesk.util.VirtualThreads;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static com.coindesk.benchmark.HttpLoadGenerator.percentile;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 高併發連線負載測試
+ * 比較 Tomcat 預設執行緒池與 virtual-threads 設定檔在大量併發連線下
+ * GET /api/currencies (每次請求皆查詢資料庫) 的延遲分布
+ *
+ * 每條連線以 HTTP/1.1 keep-alive 連續送出多個請求，所有連線建立後同時開始 (見 HttpLoadGenerator)
+ * 虛擬執行緒需以 JDK 21 以上執行，否則第二輪與預設模式相同 (僅連線上限不同)
+ *
+ * 執行方式: mvn test -Pbenchmark -Dtest=ConcurrentLoadBenchmark [-Dbenchmark.connections=10000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ConcurrentLoadBenchmark {
+
+    private static final int CONNECTIONS = Integer.getInteger("benchmark.connections", 10000);
+    private static final int REQUESTS_PER_CONNECTION = 5;
+    private static final String PATH = "/api/currencies";
+
+    @Test
+    void measureConcurrentLoad() throws Exception {
+        System.out.println("\n========== 併發連線負載 ==========");
+        System.out.printf("連線數 %d，每條連線 %d 個請求，Java %s，虛擬執行緒%s%n",
+                CONNECTIONS, REQUESTS_PER_CONNECTION, System.getProperty("java.version"),
+                VirtualThreads.isSupported() ? "可用" : "不可用");
+        System.out.printf("%16s %10s %10s %10s %10s %10s %8s%n",
+                "模式", "請求/秒", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)", "錯誤");
+
+        run("platform", "test");
+        run("virtual-threads", "test,virtual-threads");
+    }
+
+    private void run(String mode, String profiles) throws Exception {
+        try (ConfigurableApplicationContext context = start(profiles)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            // 以相同負載預熱一輪，避免先執行的模式承擔 JIT 編譯成本
+            LoadResult warmup = HttpLoadGenerator.load(port, PATH, CONNECTIONS, REQUESTS_PER_CONNECTION);
+            assertThat(warmup.count()).isPositive();
+
+            LoadResult result = HttpLoadGenerator.load(port, PATH, CONNECTIONS, REQUESTS_PER_CONNECTION);
+            long[] latencies = result.sortedLatencies();
+            System.out.printf("%16s %10.0f %10.2f %10.2f %10.2f %10.2f %8d%n",
+                    mode,
+                    result.requestsPerSecond(),
+                    percentile(latencies, 0.50),
+                    percentile(latencies, 0.99),
+                    percentile(latencies, 0.999),
+                    latencies.length > 0 ? latencies[latencies.length - 1] / 1e6 : 0,
+                    result.errors());
+        }
+    }
+
+    private ConfigurableApplicationContext start(String profiles) {
+        return new SpringApplicationBuilder(CoindeskApiApplication.class)
+                .run(
+                        "--spring.profiles.active=" + profiles,
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + profiles.replace(',', '-')
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.coindesk.config=INFO");
+    }
+}
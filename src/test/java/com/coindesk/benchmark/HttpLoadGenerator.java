@@ -0,0 +1,203 @@
+package com.coindesk.benchmark;
+
+import com.coindesk.util.VirtualThreads;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP 負載產生器
+ * 每條連線以 HTTP/1.1 keep-alive 連續送出多個 GET 請求，所有連線建立後同時開始，記錄每個請求的延遲
+ */
+final class HttpLoadGenerator {
+
+    private HttpLoadGenerator() {
+    }
+
+    /**
+     * 以每條連線一條用戶端執行緒送出請求，所有連線建立後同時開始
+     */
+    static LoadResult load(int port, String path, int connections, int requestsPerConnection)
+            throws InterruptedException {
+        LoadResult result = new LoadResult(connections * requestsPerConnection);
+        CountDownLatch connected = new CountDownLatch(connections);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(connections);
+        ThreadFactory factory = clientThreadFactory();
+
+        for (int i = 0; i < connections; i++) {
+            factory.newThread(() -> {
+                boolean ready = false;
+                try (Socket socket = new Socket()) {
+                    socket.connect(new InetSocketAddress("localhost", port), 30000);
+                    socket.setSoTimeout(60000);
+                    ready = true;
+                    connected.countDown();
+                    go.await();
+                    OutputStream out = socket.getOutputStream();
+                    InputStream in = new BufferedInputStream(socket.getInputStream());
+                    byte[] request = ("GET " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n")
+                            .getBytes(StandardCharsets.US_ASCII);
+                    for (int r = 0; r < requestsPerConnection; r++) {
+                        long start = System.nanoTime();
+                        out.write(request);
+                        out.flush();
+                        if (readResponse(in) != 200) {
+                            result.errors.incrementAndGet();
+                        }
+                        result.record(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    result.errors.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    // 連線失敗時也要讓其他連線開始
+                    if (!ready) {
+                        connected.countDown();
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        connected.await(120, TimeUnit.SECONDS);
+        long start = System.nanoTime();
+        go.countDown();
+        done.await(300, TimeUnit.SECONDS);
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * 用戶端同樣優先使用虛擬執行緒，否則使用較小堆疊的平台執行緒
+     */
+    private static ThreadFactory clientThreadFactory() {
+        ThreadFactory virtual = VirtualThreads.threadFactory("load-client-");
+        if (virtual != null) {
+            return virtual;
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(null, runnable, "load-client-" + counter.incrementAndGet(), 256 * 1024);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 讀取一個回應 (依 Content-Length 或 chunked 編碼讀完內容)
+     * @return HTTP 狀態碼
+     */
+    private static int readResponse(InputStream in) throws IOException {
+        String statusLine = readLine(in);
+        int status = Integer.parseInt(statusLine.split(" ")[1]);
+        long contentLength = -1;
+        boolean chunked = false;
+        String line;
+        while (!(line = readLine(in)).isEmpty()) {
+            String lower = line.toLowerCase();
+            if (lower.startsWith("content-length:")) {
+                contentLength = Long.parseLong(line.substring(15).trim());
+            } else if (lower.startsWith("transfer-encoding:") && lower.contains("chunked")) {
+                chunked = true;
+            }
+        }
+        if (chunked) {
+            long size;
+            while ((size = Long.parseLong(readLine(in).trim(), 16)) > 0) {
+                skip(in, size);
+                readLine(in);
+            }
+            readLine(in);
+        } else if (contentLength > 0) {
+            skip(in, contentLength);
+        }
+        return status;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\n') {
+            if (c < 0) {
+                throw new IOException("連線已關閉");
+            }
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+
+    private static void skip(InputStream in, long bytes) throws IOException {
+        while (bytes > 0) {
+            long skipped = in.skip(bytes);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new IOException("連線已關閉");
+                }
+                skipped = 1;
+            }
+            bytes -= skipped;
+        }
+    }
+
+    static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    /**
+     * 一輪負載的結果
+     */
+    static final class LoadResult {
+        private final long[] latencies;
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicLong errors = new AtomicLong();
+        private long elapsedNanos;
+
+        private LoadResult(int capacity) {
+            this.latencies = new long[capacity];
+        }
+
+        private void record(long nanos) {
+            int index = count.getAndIncrement();
+            if (index < latencies.length) {
+                latencies[index] = nanos;
+            }
+        }
+
+        long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, Math.min(count.get(), latencies.length));
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        int count() {
+            return count.get();
+        }
+
+        long errors() {
+            return errors.get();
+        }
+
+        double requestsPerSecond() {
+            return Math.min(count.get(), latencies.length) / (elapsedNanos / 1e9);
+        }
+    }
+}
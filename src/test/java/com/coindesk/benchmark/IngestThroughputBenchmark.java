@@ -0,0 +1,72 @@
+package com.coindesk.benchmark;
+
+import com.coindesk.dto.IngestStatsResponse;
+import com.coindesk.dto.coindesk.CoindeskResponse;
+import com.coindesk.service.CoindeskApiService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 數據寫入吞吐量基準測試
+ * 量測不同幣別數量下 saveCoindeskData 每秒可寫入的資料列數；
+ * 資料列數取自寫入統計，任何一次寫入被去重略過時基準測試失敗
+ *
+ * 執行方式: mvn test -Pbenchmark -Dtest=IngestThroughputBenchmark
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.show-sql=false")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class IngestThroughputBenchmark {
+
+    private static final int[] CURRENCY_COUNTS = {3, 100, 1000, 10000};
+
+    @Autowired
+    private CoindeskApiService coindeskApiService;
+
+    @Test
+    void measureIngestThroughput() {
+        System.out.println("\n========== 數據寫入吞吐量 ==========");
+        System.out.printf("%10s %10s %12s %14s%n", "幣別數量", "寫入次數", "耗時(ms)", "資料列/秒");
+
+        // 每次寫入的更新時間與匯率皆不同，避免被去重略過
+        long sequence = 0;
+        for (int currencyCount : CURRENCY_COUNTS) {
+            // 預熱 (第一次寫入同時新增幣別)
+            for (int i = 0; i < 2; i++) {
+                coindeskApiService.saveCoindeskData(BenchmarkPayloads.create(currencyCount, sequence++));
+            }
+
+            int iterations = Math.max(5, 50000 / currencyCount);
+            List<CoindeskResponse> payloads = new ArrayList<>(iterations);
+            for (int i = 0; i < iterations; i++) {
+                payloads.add(BenchmarkPayloads.create(currencyCount, sequence++));
+            }
+            IngestStatsResponse before = coindeskApiService.getIngestStats();
+            long start = System.nanoTime();
+            for (CoindeskResponse payload : payloads) {
+                coindeskApiService.saveCoindeskData(payload);
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            IngestStatsResponse after = coindeskApiService.getIngestStats();
+
+            // 每次寫入一筆 CoindeskData 加上每個幣別一筆匯率
+            long records = after.getRecordsWritten() - before.getRecordsWritten();
+            long rates = after.getRatesWritten() - before.getRatesWritten();
+            assertThat(after.getDuplicatesSkipped() - before.getDuplicatesSkipped()).isZero();
+            assertThat(records).isEqualTo(iterations);
+            assertThat(rates).isEqualTo((long) iterations * currencyCount);
+            long rows = records + rates;
+            double rowsPerSecond = rows / (elapsedNanos / 1_000_000_000.0);
+            System.out.printf("%10d %10d %12d %14.0f%n",
+                    currencyCount, iterations, elapsedNanos / 1_000_000, rowsPerSecond);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.coindesk.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.File;
+import java.util.Collection;
+
+/**
+ * 在 JUnit 中啟動 JMH 微基準測試
+ * 可透過 -Djmh.forks、-Djmh.iterations、-Djmh.time-ms 調整執行參數，
+ * 以 -Djmh.param.&lt;名稱&gt;=值1,值2 覆寫 @Param 的取值；
+ * 結果以 JSON 格式寫入 target/jmh-results/&lt;類別名稱&gt;.json，供追蹤效能回歸
+ *
+ * 呼叫此類別的 JUnit 方法需自行標註 @EnabledIfSystemProperty(named = "benchmark", matches = "true")：
+ * JMH 產生的子類別會繼承測試方法，但不會繼承類別上的條件，標註在類別上時一般測試階段也會執行 JMH
+ */
+final class JmhRunner {
+
+    private static final String PARAM_PREFIX = "jmh.param.";
+
+    private JmhRunner() {
+    }
+
+    static Collection<RunResult> run(Class<?> benchmarkClass) throws RunnerException {
+        // surefire 以獨立的 ClassLoader 執行測試，需將測試 classpath 傳給 JMH 分叉出的 JVM
+        String testClassPath = System.getProperty("surefire.test.class.path");
+        if (testClassPath != null) {
+            System.setProperty("java.class.path", testClassPath);
+        }
+        File resultDirectory = new File(System.getProperty("jmh.result-dir", "target/jmh-results"));
+        if (!resultDirectory.isDirectory() && !resultDirectory.mkdirs()) {
+            throw new IllegalStateException("無法建立結果目錄: " + resultDirectory);
+        }
+        int iterations = Integer.getInteger("jmh.iterations", 5);
+        TimeValue time = TimeValue.milliseconds(Long.getLong("jmh.time-ms", 1000L));
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(benchmarkClass.getName() + "\\.")
+                .forks(Integer.getInteger("jmh.forks", 1))
+                .warmupIterations(iterations)
+                .warmupTime(time)
+                .measurementIterations(iterations)
+                .measurementTime(time)
+                .jvmArgsAppend("-Dfile.encoding=UTF-8")
+                .resultFormat(ResultFormatType.JSON)
+                .result(new File(resultDirectory, benchmarkClass.getSimpleName() + ".json").getPath())
+                .shouldFailOnError(true);
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(PARAM_PREFIX)) {
+                options.param(name.substring(PARAM_PREFIX.length()), System.getProperty(name).split(","));
+            }
+        }
+        return new Runner(options.build()).run();
+    }
+}
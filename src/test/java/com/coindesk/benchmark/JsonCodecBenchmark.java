@@ -0,0 +1,65 @@
+package com.coindesk.benchmark;
+
+import com.coindesk.dto.coindesk.CoindeskResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CoindeskResponse 的 Jackson 序列化與反序列化 JMH 微基準測試
+ * ObjectMapper 以 Spring Boot 預設的 Jackson2ObjectMapperBuilder 建立，與 HTTP 訊息轉換器的設定一致
+ *
+ * 執行方式: mvn test -Pbenchmark -Dtest=JsonCodecBenchmark [-Djmh.param.currencyCount=3,1000]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonCodecBenchmark {
+
+    @Param({"3", "100", "1000"})
+    public int currencyCount;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private CoindeskResponse response;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(CoindeskResponse.class);
+        reader = objectMapper.readerFor(CoindeskResponse.class);
+        response = BenchmarkPayloads.create(currencyCount, 0);
+        json = writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public CoindeskResponse deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void measureJsonCodec() throws Exception {
+        JmhRunner.run(JsonCodecBenchmark.class);
+    }
+}
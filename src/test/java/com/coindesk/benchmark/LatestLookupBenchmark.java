@@ -0,0 +1,87 @@
+package com.coindesk.benchmark;
+
+import com.coindesk.entity.CoindeskDataEntity;
+import com.coindesk.repository.CoindeskDataRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 最新數據查詢的回歸基準測試
+ * 在 COINDESK_DATA 累積大量資料時，findLatest 的耗時應維持固定
+ *
+ * 執行方式: mvn test -Pbenchmark -Dtest=LatestLookupBenchmark -Dbenchmark.rows=10000000
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.show-sql=false")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LatestLookupBenchmark {
+
+    private static final int LOOKUPS = 1000;
+
+    @Autowired
+    private CoindeskDataRepository coindeskDataRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void measureFindLatest() {
+        long targetRows = Long.getLong("benchmark.rows", 1_000_000L);
+        System.out.println("\n========== findLatest 回歸基準 ==========");
+        System.out.printf("%12s %16s%n", "資料筆數", "平均耗時(µs)");
+
+        long inserted = 0;
+        for (long rows = 1_000; rows <= targetRows; rows *= 10) {
+            insertRows(inserted + 1, rows);
+            inserted = rows;
+
+            // 預熱
+            for (int i = 0; i < 100; i++) {
+                coindeskDataRepository.findLatest();
+            }
+            long start = System.nanoTime();
+            Optional<CoindeskDataEntity> latest = Optional.empty();
+            for (int i = 0; i < LOOKUPS; i++) {
+                latest = coindeskDataRepository.findLatest();
+            }
+            long elapsedNanos = System.nanoTime() - start;
+
+            assertThat(latest).isPresent();
+            assertThat(latest.get().getId()).isEqualTo(idOf(rows));
+            System.out.printf("%12d %16.1f%n", rows, elapsedNanos / 1000.0 / LOOKUPS);
+        }
+
+        // 查詢計畫必須使用索引，而不是全表排序
+        List<String> plan = jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM COINDESK_DATA ORDER BY CREATE_TIME DESC, ID DESC LIMIT 1", String.class);
+        System.out.println("查詢計畫: " + plan);
+        assertThat(plan.get(0)).containsIgnoringCase("IDX_COINDESK_DATA_CREATE_TIME");
+        assertThat(plan.get(0)).containsIgnoringCase("index sorted");
+    }
+
+    /**
+     * 以 SQL 直接產生資料列，ID 遠離序列範圍避免衝突
+     */
+    private void insertRows(long fromRow, long toRow) {
+        jdbcTemplate.update(
+                "INSERT INTO COINDESK_DATA (ID, UPDATED_TIME, UPDATED_ISO, UPDATED_AT, CHART_NAME, CREATE_TIME) "
+                        + "SELECT X + 1000000000, 'benchmark', 'benchmark', "
+                        + "DATEADD('SECOND', X, TIMESTAMP '2020-01-01 00:00:00'), 'Benchmark', "
+                        + "DATEADD('SECOND', X, TIMESTAMP '2030-01-01 00:00:00') "
+                        + "FROM SYSTEM_RANGE(?, ?)",
+                fromRow, toRow);
+    }
+
+    private static long idOf(long row) {
+        return row + 1_000_000_000L;
+    }
+}
@@ -0,0 +1,85 @@
+package com.coindesk.benchmark;
+
+import com.coindesk.CoindeskApiApplication;
+import com.coindesk.benchmark.HttpLoadGenerator.LoadResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+
+import static com.coindesk.benchmark.HttpLoadGenerator.percentile;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 正式環境設定檔負載測試
+ * 比較預設設定 (記憶體資料庫、預設連線池、每個查詢輸出格式化 SQL) 與 prod 設定檔
+ * (檔案型資料庫、依核心數設定的固定連線池、SQL 取樣記錄) 下 GET /api/currencies 的吞吐量
+ *
+ * 執行方式: mvn test -Pbenchmark -Dtest=ProductionProfileLoadBenchmark [-Dbenchmark.connections=256]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductionProfileLoadBenchmark {
+
+    private static final int CONNECTIONS = Integer.getInteger("benchmark.connections", 256);
+    private static final int REQUESTS_PER_CONNECTION = 40;
+    private static final String PATH = "/api/currencies";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void measureProductionProfile() throws Exception {
+        System.out.println("\n========== 正式環境設定檔負載 ==========");
+        System.out.printf("連線數 %d，每條連線 %d 個請求，CPU 核心數 %d%n",
+                CONNECTIONS, REQUESTS_PER_CONNECTION, Runtime.getRuntime().availableProcessors());
+
+        LoadResult baseline = run(start(
+                "--spring.datasource.url=jdbc:h2:mem:load-default"
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE"));
+        LoadResult production = run(start(
+                "--spring.profiles.active=prod",
+                "--coindesk.db.path=" + directory.resolve("coindesk")));
+
+        System.out.printf("%10s %10s %10s %10s %8s%n", "設定", "請求/秒", "p50(ms)", "p99(ms)", "錯誤");
+        print("default", baseline);
+        print("prod", production);
+        assertThat(production.errors()).isZero();
+    }
+
+    private ConfigurableApplicationContext start(String... args) {
+        String[] common = {
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.com.coindesk.config=INFO"
+        };
+        String[] all = new String[common.length + args.length];
+        System.arraycopy(common, 0, all, 0, common.length);
+        System.arraycopy(args, 0, all, common.length, args.length);
+        return new SpringApplicationBuilder(CoindeskApiApplication.class).run(all);
+    }
+
+    private LoadResult run(ConfigurableApplicationContext context) throws InterruptedException {
+        try (ConfigurableApplicationContext running = context) {
+            int port = ((WebServerApplicationContext) running).getWebServer().getPort();
+            // 以相同負載預熱一輪，避免先執行的設定承擔 JIT 編譯成本
+            LoadResult warmup = HttpLoadGenerator.load(port, PATH, CONNECTIONS, REQUESTS_PER_CONNECTION);
+            assertThat(warmup.count()).isPositive();
+            return HttpLoadGenerator.load(port, PATH, CONNECTIONS, REQUESTS_PER_CONNECTION);
+        }
+    }
+
+    private static void print(String name, LoadResult result) {
+        long[] latencies = result.sortedLatencies();
+        System.out.printf("%10s %10.0f %10.2f %10.2f %8d%n",
+                name,
+                result.requestsPerSecond(),
+                percentile(latencies, 0.50),
+                percentile(latencies, 0.99),
+                result.errors());
+    }
+}
@@ -0,0 +1,134 @@
+package com.coindesk.benchmark;
+
+import com.coindesk.CoindeskApiApplication;
+import com.coindesk.dto.CurrencyDto;
+import com.coindesk.dto.CustomCurrencyResponse;
+import com.coindesk.dto.coindesk.CoindeskResponse;
+import com.coindesk.service.CoindeskApiService;
+import com.coindesk.service.CurrencyService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服務熱路徑的 JMH 微基準測試
+ * 每組參數在獨立的 JVM 中啟動應用程序 (不含 Web 伺服器)，先寫入 historySize 筆歷史數據後再量測
+ * convertToCoindeskResponse 僅在冷啟動時執行，讀取路徑改由快照轉換 (getOriginalCoindeskData)，冷啟動成本由 StartupBenchmark 量測
+ *
+ * 執行方式: mvn test -Pbenchmark -Dtest=ServiceHotPathBenchmark [-Djmh.param.currencyCount=3,1000 -Djmh.param.historySize=0]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceHotPathBenchmark {
+
+    private static final int SEED_CHUNK_SIZE = 100;
+
+    @Param({"3", "100", "1000"})
+    public int currencyCount;
+
+    @Param({"0", "1000"})
+    public int historySize;
+
+    private ConfigurableApplicationContext context;
+    private CoindeskApiService coindeskApiService;
+    private CurrencyService currencyService;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(CoindeskApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--spring.output.ansi.enabled=never",
+                        "--logging.level.root=WARN");
+        coindeskApiService = context.getBean(CoindeskApiService.class);
+        currencyService = context.getBean(CurrencyService.class);
+
+        // 寫入歷史數據，最後一筆另外以單筆寫入，作為之後寫入去重比較的基準
+        List<CoindeskResponse> chunk = new ArrayList<>(SEED_CHUNK_SIZE);
+        for (int sequence = 0; sequence < historySize; sequence++) {
+            chunk.add(BenchmarkPayloads.create(currencyCount, sequence));
+            if (chunk.size() == SEED_CHUNK_SIZE) {
+                coindeskApiService.saveCoindeskDataBatch(chunk);
+                chunk.clear();
+            }
+        }
+        coindeskApiService.saveCoindeskDataBatch(chunk);
+        coindeskApiService.saveCoindeskData(BenchmarkPayloads.create(currencyCount, historySize));
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    /**
+     * 每次寫入使用下一筆不同的數據，避免被去重略過；序號接續歷史數據，更新時間緊接在最後一筆之後
+     */
+    @State(Scope.Thread)
+    public static class IngestState {
+
+        private long sequence;
+        CoindeskResponse payload;
+
+        @Setup(Level.Trial)
+        public void startSequence(ServiceHotPathBenchmark benchmark) {
+            sequence = benchmark.historySize + 1L;
+        }
+
+        @Setup(Level.Invocation)
+        public void nextPayload(ServiceHotPathBenchmark benchmark) {
+            payload = BenchmarkPayloads.create(benchmark.currencyCount, sequence++);
+        }
+    }
+
+    @Benchmark
+    public CustomCurrencyResponse getTransformedCoindeskData() {
+        return coindeskApiService.getTransformedCoindeskData();
+    }
+
+    @Benchmark
+    public CustomCurrencyResponse rebuildTransformedView() {
+        coindeskApiService.refreshTransformedView();
+        return coindeskApiService.getTransformedCoindeskData();
+    }
+
+    @Benchmark
+    public CoindeskResponse getOriginalCoindeskData() {
+        return coindeskApiService.getOriginalCoindeskData();
+    }
+
+    @Benchmark
+    public void saveCoindeskData(IngestState state) {
+        coindeskApiService.saveCoindeskData(state.payload);
+    }
+
+    @Benchmark
+    public List<CurrencyDto> getAllCurrencies() {
+        return currencyService.getAllCurrencies();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void measureServiceHotPaths() throws Exception {
+        JmhRunner.run(ServiceHotPathBenchmark.class);
+    }
+}
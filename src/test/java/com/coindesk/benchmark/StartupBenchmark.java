@@ -0,0 +1,135 @@
+package com.coindesk.benchmark;
+
+import com.coindesk.CoindeskApiApplication;
+import com.coindesk.dto.coindesk.CoindeskResponse;
+import com.coindesk.service.CoindeskApiService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 啟動時間基準測試
+ * 比較一般啟動流程 (首次請求才載入數據) 與由檢查點還原的啟動流程，
+ * 量測應用程序啟動時間與第一個 /api/coindesk/transform 請求的耗時
+ *
+ * 執行方式: mvn test -Pbenchmark -Dtest=StartupBenchmark
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StartupBenchmark {
+
+    private static final int ROUNDS = 5;
+    private static final int CURRENCY_COUNT = 200;
+
+    @TempDir
+    Path directory;
+
+    private int databaseCounter;
+
+    @Test
+    void measureStartup() throws Exception {
+        Path checkpoint = directory.resolve("checkpoint.bin");
+
+        // 先寫入數據並正常關閉，產生檢查點
+        try (ConfigurableApplicationContext context = start(true, checkpoint)) {
+            context.getBean(CoindeskApiService.class).saveCoindeskData(createPayload());
+        }
+        assertThat(Files.exists(checkpoint)).isTrue();
+
+        // 預熱 JVM，避免第一輪量測包含類別載入成本
+        start(false, checkpoint).close();
+
+        long[] baseline = new long[3];
+        long[] restored = new long[3];
+        for (int round = 0; round < ROUNDS; round++) {
+            accumulate(baseline, measure(false, checkpoint));
+            accumulate(restored, measure(true, checkpoint));
+        }
+
+        System.out.println("\n========== 啟動時間基準 ==========");
+        System.out.printf("%12s %16s %20s %20s%n", "模式", "啟動耗時(ms)", "首次 transform(ms)", "第二次 transform(ms)");
+        print("一般啟動", baseline);
+        print("檢查點還原", restored);
+    }
+
+    /**
+     * @return [啟動耗時, 首次請求耗時, 第二次請求耗時] (ns)
+     */
+    private long[] measure(boolean checkpointEnabled, Path checkpoint) {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = start(checkpointEnabled, checkpoint)) {
+            long started = System.nanoTime();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            RestTemplate client = new RestTemplate();
+            String url = "http://localhost:" + port + "/api/coindesk/transform";
+            String body = client.getForObject(url, String.class);
+            long firstResponse = System.nanoTime();
+            client.getForObject(url, String.class);
+            long secondResponse = System.nanoTime();
+
+            assertThat(body).isNotEmpty();
+            return new long[]{started - start, firstResponse - started, secondResponse - firstResponse};
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean checkpointEnabled, Path checkpoint) {
+        // 每次啟動使用獨立的內存資料庫，模擬重新部署
+        // 以命令列參數覆寫設定 (預設屬性的優先順序低於 application.properties)
+        return new SpringApplicationBuilder(CoindeskApiApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:startup" + (databaseCounter++)
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--coindesk.checkpoint.enabled=" + checkpointEnabled,
+                        "--coindesk.checkpoint.path=" + checkpoint);
+    }
+
+    private static void accumulate(long[] total, long[] sample) {
+        for (int i = 0; i < total.length; i++) {
+            total[i] += sample[i];
+        }
+    }
+
+    private static void print(String mode, long[] total) {
+        System.out.printf("%12s %16.1f %20.2f %20.2f%n", mode,
+                total[0] / 1e6 / ROUNDS, total[1] / 1e6 / ROUNDS, total[2] / 1e6 / ROUNDS);
+    }
+
+    private CoindeskResponse createPayload() {
+        CoindeskResponse response = new CoindeskResponse();
+        response.setChartName("Bitcoin");
+        response.setDisclaimer("startup benchmark");
+
+        CoindeskResponse.TimeInfo timeInfo = new CoindeskResponse.TimeInfo();
+        timeInfo.setUpdated("Sep 3, 2024 07:07:20 UTC");
+        timeInfo.setUpdatedISO("2024-09-03T07:07:20+00:00");
+        timeInfo.setUpdateduk("Sep 3, 2024 at 08:07 BST");
+        response.setTime(timeInfo);
+
+        Map<String, CoindeskResponse.CurrencyInfo> bpi = new LinkedHashMap<>();
+        for (int i = 0; i < CURRENCY_COUNT; i++) {
+            CoindeskResponse.CurrencyInfo info = new CoindeskResponse.CurrencyInfo();
+            info.setCode(String.format("S%04d", i));
+            info.setSymbol("&#36;");
+            info.setRate("57,756.298");
+            info.setDescription("Startup Currency " + i);
+            info.setRateFloat(57756.2984 + i);
+            bpi.put(info.getCode(), info);
+        }
+        response.setBpi(bpi);
+        return response;
+    }
+}
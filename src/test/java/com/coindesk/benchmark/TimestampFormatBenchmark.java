@@ -0,0 +1,73 @@
+package com.coindesk.benchmark;
+
+import com.coindesk.util.DateTimeUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 時間格式化的 JMH 微基準測試
+ * 比較舊版每次呼叫建立 SimpleDateFormat 的做法與寫入時預先解析 Instant、輸出時共用 DateTimeFormatter 的做法
+ * 建議搭配 -prof gc 觀察每次呼叫的配置量
+ *
+ * 執行方式: mvn test -Pbenchmark -Dtest=TimestampFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TimestampFormatBenchmark {
+
+    private static final String UPDATED_ISO = "2024-09-02T07:07:20+00:00";
+
+    private final Instant updatedAt = DateTimeUtils.parseIsoInstant(UPDATED_ISO);
+
+    /**
+     * 舊版做法: 每次呼叫都解析 ISO 字串並建立兩個 SimpleDateFormat
+     */
+    @Benchmark
+    public String legacySimpleDateFormat() throws ParseException {
+        SimpleDateFormat isoFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX", Locale.US);
+        isoFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        Date date = isoFormat.parse(UPDATED_ISO);
+        SimpleDateFormat outputFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss", Locale.US);
+        return outputFormat.format(date);
+    }
+
+    /**
+     * 以 java.time 解析後格式化 (未預先解析時的路徑)
+     */
+    @Benchmark
+    public String parseAndFormat() {
+        return DateTimeUtils.formatDisplay(DateTimeUtils.parseIsoInstant(UPDATED_ISO));
+    }
+
+    /**
+     * 新版做法: 寫入時已解析為 Instant，僅格式化輸出
+     */
+    @Benchmark
+    public String formatPreParsed() {
+        return DateTimeUtils.formatDisplay(updatedAt);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void compareTimestampFormatting() throws Exception {
+        assertThat(formatPreParsed()).isEqualTo(legacySimpleDateFormat());
+        JmhRunner.run(TimestampFormatBenchmark.class);
+    }
+}
@@ -0,0 +1,123 @@
+package com.coindesk.cache;
+
+import com.coindesk.dto.CurrencyCacheStatsResponse;
+import com.coindesk.entity.CurrencyEntity;
+import com.coindesk.repository.CurrencyRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * 幣別字典快取單元測試
+ * 測試讀取穿透、精準失效、容量淘汰與存活時間
+ */
+@ExtendWith(MockitoExtension.class)
+public class CurrencyDictionaryTest {
+
+    @Mock
+    private CurrencyRepository currencyRepository;
+
+    /**
+     * 已知代碼 (含不存在的代碼) 只查詢資料庫一次，失效後重新載入
+     */
+    @Test
+    void testReadThroughAndInvalidate() {
+        CurrencyDictionary dictionary = new CurrencyDictionary(currencyRepository, 100, 60000);
+        when(currencyRepository.findAllById(anyCollection())).thenAnswer(invocation -> find(invocation.getArgument(0)));
+
+        Map<String, CurrencyEntity> first = dictionary.getAll(Arrays.asList("USD", "EUR", "XXX"));
+        Map<String, CurrencyEntity> second = dictionary.getAll(Arrays.asList("USD", "EUR", "XXX"));
+
+        assertThat(first).containsOnlyKeys("USD", "EUR");
+        assertThat(second.get("USD").getChineseName()).isEqualTo("USD 名稱");
+        assertThat(dictionary.get("XXX")).isEmpty();
+        verify(currencyRepository, times(1)).findAllById(anyCollection());
+
+        dictionary.invalidate("USD");
+        dictionary.get("USD");
+        dictionary.get("EUR");
+        verify(currencyRepository, times(2)).findAllById(anyCollection());
+        verify(currencyRepository).findAllById(Collections.singletonList("USD"));
+
+        CurrencyCacheStatsResponse stats = dictionary.getStats();
+        assertThat(stats.getSize()).isEqualTo(3);
+        assertThat(stats.getMisses()).isEqualTo(4L);
+        assertThat(stats.getHits()).isEqualTo(5L);
+        assertThat(stats.getLoads()).isEqualTo(2L);
+        assertThat(stats.getInvalidations()).isEqualTo(1L);
+        assertThat(stats.getVersion()).isEqualTo(1L);
+    }
+
+    /**
+     * 查詢期間發生失效時，查詢結果不寫回快取
+     */
+    @Test
+    void testLoadRacingWithInvalidationIsNotCached() {
+        CurrencyDictionary dictionary = new CurrencyDictionary(currencyRepository, 100, 60000);
+        when(currencyRepository.findAllById(anyCollection())).thenAnswer(invocation -> {
+            // 模擬查詢期間另一個執行緒修改了幣別
+            dictionary.invalidate("USD");
+            return find(invocation.getArgument(0));
+        });
+
+        assertThat(dictionary.get("USD")).isPresent();
+        assertThat(dictionary.get("USD")).isPresent();
+
+        verify(currencyRepository, times(2)).findAllById(anyCollection());
+        assertThat(dictionary.getStats().getSize()).isZero();
+    }
+
+    /**
+     * 超過容量時淘汰最久未使用的項目，超過存活時間的項目重新載入
+     */
+    @Test
+    void testEvictionAndExpiration() throws InterruptedException {
+        when(currencyRepository.findAllById(anyCollection())).thenAnswer(invocation -> find(invocation.getArgument(0)));
+
+        CurrencyDictionary bounded = new CurrencyDictionary(currencyRepository, 2, 60000);
+        bounded.get("USD");
+        bounded.get("EUR");
+        bounded.get("USD");
+        bounded.get("GBP");
+        CurrencyCacheStatsResponse stats = bounded.getStats();
+        assertThat(stats.getSize()).isEqualTo(2);
+        assertThat(stats.getEvictions()).isEqualTo(1L);
+        // EUR 最久未使用而被淘汰，USD 仍在快取中
+        bounded.get("USD");
+        assertThat(bounded.getStats().getLoads()).isEqualTo(3L);
+        bounded.get("EUR");
+        assertThat(bounded.getStats().getLoads()).isEqualTo(4L);
+
+        CurrencyDictionary expiring = new CurrencyDictionary(currencyRepository, 100, 1);
+        expiring.get("USD");
+        Thread.sleep(5);
+        expiring.get("USD");
+        assertThat(expiring.getStats().getLoads()).isEqualTo(2L);
+        assertThat(expiring.getStats().getExpirations()).isEqualTo(1L);
+    }
+
+    /**
+     * 模擬資料庫：XXX 以外的代碼皆存在
+     */
+    private static List<CurrencyEntity> find(Collection<String> codes) {
+        List<CurrencyEntity> found = new ArrayList<>();
+        for (String code : codes) {
+            if (!"XXX".equals(code)) {
+                found.add(new CurrencyEntity(code, code + " 名稱", code + " name"));
+            }
+        }
+        return found;
+    }
+}
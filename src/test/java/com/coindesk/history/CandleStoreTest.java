@@ -0,0 +1,172 @@
+package com.coindesk.history;
+
+import com.coindesk.entity.RateCandleEntity;
+import com.coindesk.repository.RateCandleRepository;
+import com.coindesk.snapshot.CoindeskSnapshot;
+import com.coindesk.snapshot.RatesCommittedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * K 線增量維護單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+public class CandleStoreTest {
+
+    @Mock
+    private RateCandleRepository rateCandleRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private CandleStore candleStore;
+
+    /**
+     * 測試同一區間的數據 (含亂序) 併入記憶體中的 K 線，進入新區間時前一個區間寫入資料庫
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOpenBucketRollsOver() {
+        commit(sample("2024-09-02T07:00:10Z", 1.0),
+                sample("2024-09-02T07:00:50Z", 3.0),
+                sample("2024-09-02T07:00:30Z", 2.0));
+
+        assertCandle(candleStore.getOpenCandle("USD", CandleStore.MINUTE_SECONDS), "2024-09-02T07:00:00Z",
+                1.0, 3.0, 1.0, 3.0, 3);
+        verify(rateCandleRepository, never()).persistAll(any());
+
+        commit(sample("2024-09-02T07:01:05Z", 4.0));
+
+        ArgumentCaptor<Collection<RateCandleEntity>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(rateCandleRepository).persistAll(captor.capture());
+        List<RateCandleEntity> closed = new ArrayList<>(captor.getValue());
+        assertThat(closed).hasSize(1);
+        assertCandle(closed.get(0), "2024-09-02T07:00:00Z", 1.0, 3.0, 1.0, 3.0, 3);
+        assertCandle(candleStore.getOpenCandle("USD", CandleStore.MINUTE_SECONDS), "2024-09-02T07:01:00Z",
+                4.0, 4.0, 4.0, 4.0, 1);
+        // 5 分鐘與 1 小時的區間仍在進行中
+        assertCandle(candleStore.getOpenCandle("USD", CandleStore.FIVE_MINUTES_SECONDS), "2024-09-02T07:00:00Z",
+                1.0, 4.0, 1.0, 4.0, 4);
+        assertCandle(candleStore.getOpenCandle("USD", CandleStore.HOUR_SECONDS), "2024-09-02T07:00:00Z",
+                1.0, 4.0, 1.0, 4.0, 4);
+        assertThat(candleStore.getOpenCandle("GBP", CandleStore.MINUTE_SECONDS)).isNull();
+    }
+
+    /**
+     * 測試早於目前區間的數據直接併入資料庫，不影響開放中的 K 線
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testLateSamplePersistedDirectly() {
+        commit(sample("2024-09-02T07:00:10Z", 1.0));
+        commit(sample("2024-09-01T23:59:00Z", 0.5));
+
+        ArgumentCaptor<Collection<RateCandleEntity>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(rateCandleRepository, times(3)).persistAll(captor.capture());
+        List<Integer> intervals = new ArrayList<>();
+        for (Collection<RateCandleEntity> persisted : captor.getAllValues()) {
+            for (RateCandleEntity candle : persisted) {
+                assertThat(candle.getSampleCount()).isEqualTo(1);
+                assertThat(candle.getOpenRate()).isEqualTo(0.5);
+                intervals.add(candle.getIntervalSeconds());
+            }
+        }
+        assertThat(intervals).containsExactlyInAnyOrder(
+                CandleStore.MINUTE_SECONDS, CandleStore.FIVE_MINUTES_SECONDS, CandleStore.HOUR_SECONDS);
+        assertCandle(candleStore.getOpenCandle("USD", CandleStore.HOUR_SECONDS), "2024-09-02T07:00:00Z",
+                1.0, 1.0, 1.0, 1.0, 1);
+    }
+
+    /**
+     * 測試寫入失敗的 K 線保留在記憶體並於下次寫入時重試，重試成功前不視為已寫入
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFailedWriteRetried() {
+        doThrow(new IllegalStateException("database unavailable")).doNothing()
+                .when(rateCandleRepository).persistAll(any());
+        commit(sample("2024-09-02T07:59:10Z", 1.0));
+        commit(sample("2024-09-02T08:00:05Z", 2.0));
+
+        verify(rateCandleRepository, times(1)).persistAll(any());
+        assertThat(candleStore.getUnpersistedFrom("USD")).isEqualTo(Instant.parse("2024-09-02T07:00:00Z"));
+
+        commit(sample("2024-09-02T08:00:30Z", 3.0));
+
+        ArgumentCaptor<Collection<RateCandleEntity>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(rateCandleRepository, times(4)).persistAll(captor.capture());
+        List<RateCandleEntity> retried = new ArrayList<>();
+        for (Collection<RateCandleEntity> persisted : captor.getAllValues().subList(1, 4)) {
+            retried.addAll(persisted);
+        }
+        assertThat(retried).extracting(RateCandleEntity::getBucketStart).containsExactlyInAnyOrder(
+                Instant.parse("2024-09-02T07:59:00Z"), Instant.parse("2024-09-02T07:55:00Z"),
+                Instant.parse("2024-09-02T07:00:00Z"));
+        assertThat(retried).extracting(RateCandleEntity::getSampleCount).containsOnly(1L);
+        assertThat(candleStore.getUnpersistedFrom("USD")).isEqualTo(Instant.parse("2024-09-02T08:00:00Z"));
+    }
+
+    /**
+     * 測試 K 線合併結果與合併順序無關
+     */
+    @Test
+    void testMergeIsOrderIndependent() {
+        RateCandleEntity early = candle("2024-08-01T10:00:00Z", 1.0, 5.0, 1.0, 3.0, 2);
+        RateCandleEntity late = candle("2024-08-01T10:00:30Z", 4.0, 4.0, 0.5, 2.0, 3);
+
+        RateCandleEntity forward = candle("2024-08-01T10:00:00Z", 1.0, 5.0, 1.0, 3.0, 2);
+        CandleStore.merge(forward, late);
+        RateCandleEntity backward = candle("2024-08-01T10:00:30Z", 4.0, 4.0, 0.5, 2.0, 3);
+        CandleStore.merge(backward, early);
+
+        assertThat(backward).isEqualTo(forward);
+        assertCandle(forward, "2024-08-01T10:00:00Z", 1.0, 5.0, 0.5, 2.0, 5);
+    }
+
+    private void commit(CoindeskSnapshot... snapshots) {
+        candleStore.onRatesCommitted(new RatesCommittedEvent(Arrays.asList(snapshots)));
+    }
+
+    private static CoindeskSnapshot sample(String time, double usdRate) {
+        return new CoindeskSnapshot(0L, time, time, Instant.parse(time), time, "candle", "Bitcoin",
+                Collections.singletonMap("USD",
+                        new CoindeskSnapshot.Rate("USD", "&#36;", String.valueOf(usdRate), "United States Dollar", usdRate)));
+    }
+
+    private static RateCandleEntity candle(String time, double open, double high, double low, double close, long count) {
+        Instant instant = Instant.parse(time);
+        return new RateCandleEntity("USD", CandleStore.HOUR_SECONDS, Instant.parse("2024-08-01T10:00:00Z"),
+                open, high, low, close, instant, instant.plusSeconds(10), count);
+    }
+
+    private static void assertCandle(RateCandleEntity candle, String bucketStart,
+                                     double open, double high, double low, double close, long count) {
+        assertThat(candle).isNotNull();
+        assertThat(candle.getBucketStart()).isEqualTo(Instant.parse(bucketStart));
+        assertThat(candle.getOpenRate()).isEqualTo(open);
+        assertThat(candle.getHighRate()).isEqualTo(high);
+        assertThat(candle.getLowRate()).isEqualTo(low);
+        assertThat(candle.getCloseRate()).isEqualTo(close);
+        assertThat(candle.getSampleCount()).isEqualTo(count);
+    }
+}
@@ -0,0 +1,180 @@
+package com.coindesk.history;
+
+import com.coindesk.dto.RateCandlesResponse;
+import com.coindesk.dto.coindesk.CoindeskResponse;
+import com.coindesk.entity.CoindeskDataEntity;
+import com.coindesk.entity.ExchangeRateEntity;
+import com.coindesk.entity.RateCandleEntity;
+import com.coindesk.entity.RateCandleId;
+import com.coindesk.repository.CoindeskDataRepository;
+import com.coindesk.repository.ExchangeRateRepository;
+import com.coindesk.repository.RateCandleRepository;
+import com.coindesk.service.CoindeskApiService;
+import com.coindesk.service.RateHistoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 匯率歷史壓縮測試
+ * 資料庫隨測試結束時關閉的 context 一併移除，重複執行時從空資料庫開始
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:compaction;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                        + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.jpa.show-sql=false",
+                "coindesk.compaction.raw-retention=7d",
+                "coindesk.compaction.minute-retention=90d",
+                "coindesk.compaction.batch-size=2"
+        })
+@DirtiesContext
+class HistoryCompactorTest {
+
+    private static final Instant NOW = Instant.parse("2024-12-01T00:00:00Z");
+
+    @Autowired
+    private HistoryCompactor historyCompactor;
+
+    @Autowired
+    private CoindeskApiService coindeskApiService;
+
+    @Autowired
+    private RateHistoryService rateHistoryService;
+
+    @Autowired
+    private CoindeskDataRepository coindeskDataRepository;
+
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Autowired
+    private RateCandleRepository rateCandleRepository;
+
+    /**
+     * 測試依保留期限刪除原始匯率與較細的 K 線，寫入時彙總的 1 小時 K 線保留；
+     * 資料庫中缺少 K 線的區間在刪除前補上彙總；最新匯率指標引用的匯率待不再被引用時才刪除
+     */
+    @Test
+    void testRetentionTiers() {
+        // 超過 90 天: 只保留 1 小時 K 線；GBP 仍為最新匯率，暫不刪除
+        save("2024-08-01T10:00:10Z", 100.0, 50.0);
+        save("2024-08-01T10:00:40Z", 110.0, null);
+        save("2024-08-01T10:01:30Z", 90.0, null);
+        // 超過 7 天: 只保留 K 線
+        save("2024-11-01T08:00:05Z", 200.0, null);
+        save("2024-11-01T08:00:50Z", 210.0, null);
+        // 保留期限內的原始匯率
+        save("2024-11-30T00:00:00Z", 300.0, null);
+
+        // 模擬未能寫入的 K 線: 刪除前補上彙總，已有的 5 分鐘 K 線不重複併入
+        rateCandleRepository.deleteById(new RateCandleId("USD", CandleStore.MINUTE_SECONDS,
+                Instant.parse("2024-11-01T08:00:00Z")));
+        rateCandleRepository.deleteById(new RateCandleId("USD", CandleStore.HOUR_SECONDS,
+                Instant.parse("2024-11-01T08:00:00Z")));
+
+        CompactionResult result = historyCompactor.compact(NOW);
+
+        assertThat(result.getRatesDeleted()).isEqualTo(5);
+        assertThat(result.getRatesRolledUp()).isEqualTo(2);
+        assertThat(result.getRecordsDeleted()).isEqualTo(4);
+        // USD 2024-08-01 的 1 分鐘 K 線 2 根與 5 分鐘 K 線 1 根
+        assertThat(result.getCandlesDeleted()).isEqualTo(3);
+        assertThat(exchangeRateRepository.findAll()).extracting(ExchangeRateEntity::getRateFloat)
+                .containsExactlyInAnyOrder(50.0, 300.0);
+        assertThat(coindeskDataRepository.findAll()).extracting(CoindeskDataEntity::getUpdatedIso)
+                .containsExactlyInAnyOrder("2024-08-01T10:00:10Z", "2024-11-30T00:00:00Z");
+
+        assertCandle("USD", CandleStore.HOUR_SECONDS, "2024-08-01T10:00:00Z", 100.0, 110.0, 90.0, 90.0, 3);
+        assertCandle("USD", CandleStore.HOUR_SECONDS, "2024-11-01T08:00:00Z", 200.0, 210.0, 200.0, 210.0, 2);
+        assertCandle("USD", CandleStore.MINUTE_SECONDS, "2024-11-01T08:00:00Z", 200.0, 210.0, 200.0, 210.0, 2);
+        assertCandle("USD", CandleStore.FIVE_MINUTES_SECONDS, "2024-11-01T08:00:00Z", 200.0, 210.0, 200.0, 210.0, 2);
+        assertThat(rateCandleRepository.count()).isEqualTo(4);
+
+        // GBP 有新匯率後，舊匯率不再被引用，下次壓縮時刪除其數據
+        save("2024-11-30T00:01:00Z", 301.0, 51.0);
+        result = historyCompactor.compact(NOW);
+
+        assertThat(result.getRatesDeleted()).isEqualTo(1);
+        assertThat(result.getRatesRolledUp()).isZero();
+        assertThat(result.getRecordsDeleted()).isEqualTo(1);
+        assertThat(result.getCandlesDeleted()).isEqualTo(2);
+        assertCandle("GBP", CandleStore.HOUR_SECONDS, "2024-08-01T10:00:00Z", 50.0, 50.0, 50.0, 50.0, 1);
+        assertThat(coindeskDataRepository.count()).isEqualTo(2);
+        assertThat(exchangeRateRepository.count()).isEqualTo(3);
+
+        // 沒有新的過期資料時不做任何事
+        result = historyCompactor.compact(NOW);
+        assertThat(result.getRatesDeleted() + result.getRecordsDeleted() + result.getCandlesDeleted()).isZero();
+
+        // K 線查詢: 已結束的區間來自資料庫，開放中的區間來自記憶體
+        RateCandlesResponse hourly = rateHistoryService.getCandles(
+                "usd", "1h", "2024-08-01T00:00:00Z", "2024-12-01T00:00:00Z", null, null);
+        assertThat(hourly.getIntervalSeconds()).isEqualTo(3600L);
+        assertThat(hourly.getCandles()).extracting(RateCandlesResponse.Candle::getTime).containsExactly(
+                Instant.parse("2024-08-01T10:00:00Z"), Instant.parse("2024-11-01T08:00:00Z"),
+                Instant.parse("2024-11-30T00:00:00Z"));
+        RateCandlesResponse.Candle open = hourly.getCandles().get(2);
+        assertThat(open.getOpen()).isEqualTo(300.0);
+        assertThat(open.getClose()).isEqualTo(301.0);
+        assertThat(open.getCount()).isEqualTo(2);
+
+        RateCandlesResponse page = rateHistoryService.getCandles(
+                "USD", "1h", "2024-08-01T00:00:00Z", "2024-12-01T00:00:00Z", null, 2);
+        assertThat(page.getCandles()).hasSize(2);
+        assertThat(page.getNextCursor()).isEqualTo(String.valueOf(Instant.parse("2024-11-30T00:00:00Z").toEpochMilli()));
+        RateCandlesResponse next = rateHistoryService.getCandles(
+                "USD", "1h", "2024-08-01T00:00:00Z", "2024-12-01T00:00:00Z", page.getNextCursor(), 2);
+        assertThat(next.getCandles()).hasSize(1);
+        assertThat(next.getNextCursor()).isNull();
+    }
+
+    private void assertCandle(String code, int intervalSeconds, String bucketStart,
+                              double open, double high, double low, double close, long count) {
+        RateCandleEntity candle = rateCandleRepository.findById(
+                new RateCandleId(code, intervalSeconds, Instant.parse(bucketStart))).orElse(null);
+        assertThat(candle).isNotNull();
+        assertThat(candle.getOpenRate()).isEqualTo(open);
+        assertThat(candle.getHighRate()).isEqualTo(high);
+        assertThat(candle.getLowRate()).isEqualTo(low);
+        assertThat(candle.getCloseRate()).isEqualTo(close);
+        assertThat(candle.getSampleCount()).isEqualTo(count);
+    }
+
+    private void save(String updatedIso, double usdRate, Double gbpRate) {
+        CoindeskResponse response = new CoindeskResponse();
+        response.setChartName("Bitcoin");
+        response.setDisclaimer("compaction");
+
+        CoindeskResponse.TimeInfo timeInfo = new CoindeskResponse.TimeInfo();
+        timeInfo.setUpdated(updatedIso);
+        timeInfo.setUpdatedISO(updatedIso);
+        timeInfo.setUpdateduk(updatedIso);
+        response.setTime(timeInfo);
+
+        Map<String, CoindeskResponse.CurrencyInfo> bpi = new LinkedHashMap<>();
+        bpi.put("USD", rate("USD", usdRate));
+        if (gbpRate != null) {
+            bpi.put("GBP", rate("GBP", gbpRate));
+        }
+        response.setBpi(bpi);
+        coindeskApiService.saveCoindeskData(response);
+    }
+
+    private static CoindeskResponse.CurrencyInfo rate(String code, double value) {
+        CoindeskResponse.CurrencyInfo info = new CoindeskResponse.CurrencyInfo();
+        info.setCode(code);
+        info.setRate(String.valueOf(value));
+        info.setDescription(code);
+        info.setRateFloat(value);
+        return info;
+    }
+}
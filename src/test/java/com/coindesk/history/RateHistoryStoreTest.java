@@ -0,0 +1,71 @@
+package com.coindesk.history;
+
+import com.coindesk.repository.ExchangeRateRepository;
+import com.coindesk.repository.RatePointView;
+import com.coindesk.snapshot.CoindeskSnapshot;
+import com.coindesk.snapshot.RatesCommittedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 記憶體匯率歷史儲存區單元測試
+ */
+public class RateHistoryStoreTest {
+
+    /**
+     * 測試載入時已讀到的資料點不會因提交事件重複附加
+     */
+    @Test
+    void testCommittedPointAlreadyLoadedIsNotDuplicated() {
+        ExchangeRateRepository repository = mock(ExchangeRateRepository.class);
+        when(repository.findRatePoints(eq("USD"), any(), any(), any(), any())).thenReturn(Arrays.asList(
+                point(1L, "2024-09-02T07:00:00Z", 1.0),
+                point(2L, "2024-09-02T07:01:00Z", 2.0)));
+        RateHistoryStore store = new RateHistoryStore(repository, true);
+        assertThat(store.getSeries("USD").size()).isEqualTo(2);
+
+        // 已載入的點 (含較早的點) 再次送達時略過，新的點附加
+        commit(store, "2024-09-02T07:00:00Z", 1.0);
+        commit(store, "2024-09-02T07:01:00Z", 2.0);
+        commit(store, "2024-09-02T07:02:00Z", 3.0);
+
+        RateSeries series = store.getSeries("USD");
+        assertThat(series.size()).isEqualTo(3);
+        assertThat(series.rateAt(2)).isEqualTo(3.0);
+    }
+
+    private static void commit(RateHistoryStore store, String time, double rate) {
+        store.onRatesCommitted(new RatesCommittedEvent(Collections.singletonList(
+                new CoindeskSnapshot(0L, time, time, Instant.parse(time), time, null, "Bitcoin",
+                        Collections.singletonMap("USD",
+                                new CoindeskSnapshot.Rate("USD", "&#36;", String.valueOf(rate), "USD", rate))))));
+    }
+
+    private static RatePointView point(long id, String time, double rate) {
+        return new RatePointView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Instant getRateTime() {
+                return Instant.parse(time);
+            }
+
+            @Override
+            public Double getRateFloat() {
+                return rate;
+            }
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.coindesk.history;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 匯率時間序列單元測試
+ */
+public class RateSeriesTest {
+
+    /**
+     * 測試跨越多個分段的附加與讀取
+     */
+    @Test
+    void testAppendAcrossChunks() {
+        RateSeries series = new RateSeries();
+        int count = 100_000;
+        for (int i = 0; i < count; i++) {
+            assertThat(series.append(i * 1000L, i + 0.5)).isTrue();
+        }
+
+        assertThat(series.size()).isEqualTo(count);
+        assertThat(series.timeAt(0)).isEqualTo(0L);
+        assertThat(series.timeAt(8192)).isEqualTo(8192_000L);
+        assertThat(series.rateAt(count - 1)).isEqualTo(count - 0.5);
+    }
+
+    /**
+     * 測試相同時間覆寫與亂序拒絕
+     */
+    @Test
+    void testDuplicateAndOutOfOrder() {
+        RateSeries series = new RateSeries();
+        series.append(1000L, 1.0);
+        series.append(2000L, 2.0);
+
+        assertThat(series.append(2000L, 2.5)).isTrue();
+        assertThat(series.size()).isEqualTo(2);
+        assertThat(series.rateAt(1)).isEqualTo(2.5);
+
+        assertThat(series.append(1500L, 1.5)).isFalse();
+        assertThat(series.size()).isEqualTo(2);
+    }
+
+    /**
+     * 測試二分搜尋起點
+     */
+    @Test
+    void testLowerBound() {
+        RateSeries series = new RateSeries();
+        for (int i = 0; i < 10; i++) {
+            series.append(i * 10L, i);
+        }
+
+        assertThat(series.lowerBound(-5L, series.size())).isEqualTo(0);
+        assertThat(series.lowerBound(30L, series.size())).isEqualTo(3);
+        assertThat(series.lowerBound(31L, series.size())).isEqualTo(4);
+        assertThat(series.lowerBound(1000L, series.size())).isEqualTo(10);
+    }
+}
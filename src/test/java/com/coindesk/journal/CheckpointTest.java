@@ -0,0 +1,64 @@
+package com.coindesk.journal;
+
+import com.coindesk.snapshot.CoindeskSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 啟動檢查點單元測試
+ */
+public class CheckpointTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * 測試寫入後讀回相同內容，且不留下暫存檔
+     */
+    @Test
+    void testWriteAndRead() throws IOException {
+        Path path = directory.resolve("checkpoint.bin");
+        Checkpoint checkpoint = createCheckpoint();
+
+        checkpoint.writeTo(path);
+
+        assertThat(Checkpoint.readFrom(path)).isEqualTo(checkpoint);
+        assertThat(Files.list(directory).count()).isEqualTo(1);
+        assertThat(Checkpoint.readFrom(directory.resolve("missing.bin"))).isNull();
+    }
+
+    /**
+     * 測試內容損毀時讀取失敗
+     */
+    @Test
+    void testCorruptCheckpointRejected() throws IOException {
+        Path path = directory.resolve("checkpoint.bin");
+        createCheckpoint().writeTo(path);
+
+        byte[] data = Files.readAllBytes(path);
+        data[data.length / 2] ^= 0x7F;
+        Files.write(path, data);
+
+        assertThatThrownBy(() -> Checkpoint.readFrom(path)).isInstanceOf(IOException.class);
+    }
+
+    private static Checkpoint createCheckpoint() {
+        CoindeskSnapshot snapshot = new CoindeskSnapshot(0L, "Sep 2, 2024 07:07:20 UTC", "2024-09-02T07:07:20+00:00",
+                Instant.parse("2024-09-02T07:07:20Z"), "Sep 2, 2024 at 08:07 BST", "just for test", "Bitcoin",
+                Collections.singletonMap("USD",
+                        new CoindeskSnapshot.Rate("USD", "&#36;", "57,756.298", "United States Dollar", 57756.2984)));
+        return new Checkpoint(snapshot, Arrays.asList(
+                new Checkpoint.CurrencyName("USD", "美元", "United States Dollar"),
+                new Checkpoint.CurrencyName("TWD", "新台幣", null)));
+    }
+}
@@ -0,0 +1,132 @@
+package com.coindesk.journal;
+
+import com.coindesk.CoindeskApiApplication;
+import com.coindesk.dto.RateCandlesResponse;
+import com.coindesk.dto.RateHistoryResponse;
+import com.coindesk.dto.coindesk.CoindeskResponse;
+import com.coindesk.entity.LatestRateEntity;
+import com.coindesk.repository.LatestRateRepository;
+import com.coindesk.repository.ProjectionStateRepository;
+import com.coindesk.service.CoindeskApiService;
+import com.coindesk.service.RateHistoryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 快照日誌模式的重新啟動測試
+ * 以同一個日誌目錄重新啟動，驗證資料庫由日誌重新投影
+ */
+public class SnapshotLogReplayTest {
+
+    private static final String FROM = "2024-09-02T00:00:00Z";
+    private static final String TO = "2024-09-03T00:00:00Z";
+
+    @TempDir
+    Path directory;
+
+    /**
+     * 測試內存資料庫重新啟動後，歷史、最新匯率與 K 線由日誌重建；
+     * 資料庫保留時只投影尚未投影的紀錄，不重複寫入
+     */
+    @Test
+    void testRestartReplaysLogIntoDatabase() {
+        try (ConfigurableApplicationContext context = start(database(false))) {
+            CoindeskApiService coindeskApiService = context.getBean(CoindeskApiService.class);
+            coindeskApiService.saveCoindeskData(create("2024-09-02T07:07:20Z", 100.0, 50.0));
+            coindeskApiService.saveCoindeskData(create("2024-09-02T07:08:20Z", 110.0, 50.0));
+            coindeskApiService.saveCoindeskData(create("2024-09-02T07:09:20Z", 120.0, 51.0));
+        }
+
+        // 新的內存資料庫：全部由日誌重新投影，未變動的匯率同樣不重複寫入
+        String durable = database(true);
+        try (ConfigurableApplicationContext context = start(durable)) {
+            assertReplayed(context);
+            RateCandlesResponse candles = context.getBean(RateHistoryService.class)
+                    .getCandles("USD", "1m", FROM, TO, null, null);
+            assertThat(candles.getCandles()).extracting(RateCandlesResponse.Candle::getClose)
+                    .containsExactly(100.0, 110.0, 120.0);
+        }
+
+        // 同一個資料庫：投影進度已是最後一筆，不再寫入
+        try (ConfigurableApplicationContext context = start(durable)) {
+            assertReplayed(context);
+        }
+    }
+
+    private static void assertReplayed(ConfigurableApplicationContext context) {
+        RateHistoryService rateHistoryService = context.getBean(RateHistoryService.class);
+        assertThat(rateHistoryService.getHistory("USD", FROM, TO, null, null, null).getPoints())
+                .extracting(RateHistoryResponse.Point::getRate).containsExactly(100.0, 110.0, 120.0);
+        assertThat(rateHistoryService.getHistory("GBP", FROM, TO, null, null, null).getPoints())
+                .extracting(RateHistoryResponse.Point::getRate).containsExactly(50.0, 51.0);
+
+        Map<String, Double> latest = new HashMap<>();
+        for (LatestRateEntity latestRate : context.getBean(LatestRateRepository.class).findAllWithRates()) {
+            latest.put(latestRate.getCurrencyCode(), latestRate.getExchangeRate().getRateFloat());
+        }
+        assertThat(latest).containsEntry("USD", 120.0).containsEntry("GBP", 51.0);
+        assertThat(context.getBean(ProjectionStateRepository.class).findAll())
+                .extracting(state -> state.getLastSequence()).containsExactly(3L);
+        assertThat(context.getBean(CoindeskApiService.class).getSnapshot().getUpdatedIso())
+                .isEqualTo("2024-09-02T07:09:20Z");
+    }
+
+    private ConfigurableApplicationContext start(String datasourceUrl) {
+        // 以命令列參數覆寫設定 (預設屬性的優先順序低於 application.properties)
+        return new SpringApplicationBuilder(CoindeskApiApplication.class)
+                .run(
+                        "--spring.main.web-application-type=none",
+                        "--spring.datasource.url=" + datasourceUrl,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--coindesk.persistence.mode=log",
+                        "--coindesk.snapshot-log.dir=" + directory,
+                        "--coindesk.snapshot-log.segment-size=1048576");
+    }
+
+    /**
+     * @param keep 是否在 context 關閉後保留資料庫 (模擬可持久保存的資料庫)
+     */
+    private static String database(boolean keep) {
+        return "jdbc:h2:mem:replay-" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_ON_EXIT=FALSE"
+                + (keep ? ";DB_CLOSE_DELAY=-1" : "");
+    }
+
+    private static CoindeskResponse create(String updatedIso, double usdRate, double gbpRate) {
+        CoindeskResponse response = new CoindeskResponse();
+        response.setChartName("Bitcoin");
+        response.setDisclaimer("snapshot log replay");
+
+        CoindeskResponse.TimeInfo timeInfo = new CoindeskResponse.TimeInfo();
+        timeInfo.setUpdated(updatedIso);
+        timeInfo.setUpdatedISO(updatedIso);
+        timeInfo.setUpdateduk(updatedIso);
+        response.setTime(timeInfo);
+
+        Map<String, CoindeskResponse.CurrencyInfo> bpi = new LinkedHashMap<>();
+        bpi.put("USD", rate("USD", usdRate));
+        bpi.put("GBP", rate("GBP", gbpRate));
+        response.setBpi(bpi);
+        return response;
+    }
+
+    private static CoindeskResponse.CurrencyInfo rate(String code, double value) {
+        CoindeskResponse.CurrencyInfo info = new CoindeskResponse.CurrencyInfo();
+        info.setCode(code);
+        info.setRate(String.valueOf(value));
+        info.setDescription(code);
+        info.setRateFloat(value);
+        return info;
+    }
+}
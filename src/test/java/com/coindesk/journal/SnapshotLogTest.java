@@ -0,0 +1,116 @@
+package com.coindesk.journal;
+
+import com.coindesk.snapshot.CoindeskSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 快照日誌單元測試
+ */
+public class SnapshotLogTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * 測試重新開啟後可讀回所有紀錄並接續序號
+     */
+    @Test
+    void testReopenContinuesSequence() throws IOException {
+        try (SnapshotLog log = new SnapshotLog(directory, 4096, false)) {
+            assertThat(log.readLast()).isNull();
+            assertThat(log.append(bytes("first"))).isEqualTo(1L);
+            assertThat(log.append(bytes("second"))).isEqualTo(2L);
+        }
+
+        try (SnapshotLog log = new SnapshotLog(directory, 4096, false)) {
+            assertThat(log.readLast().getSequence()).isEqualTo(2L);
+            assertThat(new String(log.readLast().getPayload(), StandardCharsets.UTF_8)).isEqualTo("second");
+            assertThat(log.append(bytes("third"))).isEqualTo(3L);
+            assertThat(log.readAll()).hasSize(3);
+        }
+    }
+
+    /**
+     * 測試區段空間不足時換到新的區段
+     */
+    @Test
+    void testSegmentRolling() throws IOException {
+        byte[] payload = new byte[100];
+        try (SnapshotLog log = new SnapshotLog(directory, 256, false)) {
+            for (int i = 0; i < 5; i++) {
+                log.append(payload);
+            }
+            List<SnapshotLog.Record> records = log.readAll();
+            assertThat(records).hasSize(5);
+            assertThat(records.get(4).getSequence()).isEqualTo(5L);
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count()).isEqualTo(3);
+        }
+        try (SnapshotLog log = new SnapshotLog(directory, 256, false)) {
+            assertThat(log.getNextSequence()).isEqualTo(6L);
+        }
+    }
+
+    /**
+     * 測試 CRC 錯誤的尾端紀錄於重新開啟時被捨棄並覆蓋
+     */
+    @Test
+    void testCorruptTailIsTruncated() throws IOException {
+        try (SnapshotLog log = new SnapshotLog(directory, 4096, false)) {
+            log.append(bytes("good"));
+            log.append(bytes("torn"));
+        }
+
+        // 破壞第二筆紀錄的內容 (第一筆佔 16 + 4 bytes)
+        Path segment = directory.resolve(String.format("%020d.log", 1L));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes("XX")), 20 + 16);
+        }
+
+        try (SnapshotLog log = new SnapshotLog(directory, 4096, false)) {
+            assertThat(log.readLast().getSequence()).isEqualTo(1L);
+            assertThat(log.append(bytes("again"))).isEqualTo(2L);
+            assertThat(log.readAll()).extracting(SnapshotLog.Record::getSequence).containsExactly(1L, 2L);
+        }
+    }
+
+    /**
+     * 測試快照編碼與解碼
+     */
+    @Test
+    void testCodecRoundTrip() throws IOException {
+        Map<String, CoindeskSnapshot.Rate> rates = new LinkedHashMap<>();
+        rates.put("USD", new CoindeskSnapshot.Rate("USD", "&#36;", "57,756.298", "United States Dollar", 57756.2984));
+        rates.put("EUR", new CoindeskSnapshot.Rate("EUR", null, "52,243.287", "Euro", null));
+        CoindeskSnapshot snapshot = new CoindeskSnapshot(7L, "Sep 2, 2024 07:07:20 UTC", "2024-09-02T07:07:20+00:00",
+                Instant.parse("2024-09-02T07:07:20Z"), null, "disclaimer", "Bitcoin", Collections.unmodifiableMap(rates));
+
+        CoindeskSnapshot decoded = SnapshotCodec.decode(SnapshotCodec.encode(snapshot), 7L);
+
+        assertThat(decoded).isEqualTo(snapshot);
+        assertThat(decoded.getRates().keySet()).containsExactly("USD", "EUR");
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
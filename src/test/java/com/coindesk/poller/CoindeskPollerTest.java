@@ -0,0 +1,153 @@
+package com.coindesk.poller;
+
+import com.coindesk.dto.coindesk.CoindeskResponse;
+import com.coindesk.service.CoindeskApiService;
+import com.coindesk.snapshot.CoindeskSnapshot;
+import com.coindesk.util.HttpClientUtils;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 上游輪詢單元測試，以本機 HTTP 伺服器模擬 Coindesk API
+ */
+public class CoindeskPollerTest {
+
+    private static final String BODY_TEMPLATE = "{\"time\":{\"updated\":\"Sep 2, 2024 07:07:20 UTC\","
+            + "\"updatedISO\":\"%s\",\"updateduk\":\"Sep 2, 2024 at 08:07 BST\"},"
+            + "\"disclaimer\":\"stub\",\"chartName\":\"Bitcoin\",\"bpi\":{\"USD\":{\"code\":\"USD\","
+            + "\"symbol\":\"&#36;\",\"rate\":\"57,756.298\",\"description\":\"United States Dollar\","
+            + "\"rate_float\":57756.2984}}}";
+
+    private HttpServer server;
+    private CoindeskApiService coindeskApiService;
+    private CoindeskPoller poller;
+
+    // 伺服器下一次回應的狀態與內容
+    private volatile int status;
+    private volatile String updatedIso;
+    private volatile String etag;
+    private final List<String> receivedIfNoneMatch = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/currentprice.json", exchange -> {
+            receivedIfNoneMatch.add(exchange.getRequestHeaders().getFirst("If-None-Match"));
+            if (etag != null && etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = String.format(BODY_TEMPLATE, updatedIso).getBytes(StandardCharsets.UTF_8);
+            // 上游以 application/javascript 回應
+            exchange.getResponseHeaders().set("Content-Type", "application/javascript");
+            if (etag != null) {
+                exchange.getResponseHeaders().set("ETag", etag);
+            }
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        coindeskApiService = mock(CoindeskApiService.class);
+        when(coindeskApiService.getSnapshot()).thenReturn(new CoindeskSnapshot(
+                1L, null, "2024-09-01T00:00:00+00:00", null, null, null, null, Collections.emptyMap()));
+
+        RestTemplate restTemplate = new RestTemplate(HttpClientUtils.pooledRequestFactory(2, 1000, 1000));
+        String url = "http://localhost:" + server.getAddress().getPort() + "/currentprice.json";
+        poller = new CoindeskPoller(restTemplate, coindeskApiService, url, 1000, 8000);
+        status = 200;
+        updatedIso = "2024-09-02T07:07:20+00:00";
+    }
+
+    @AfterEach
+    void tearDown() {
+        poller.stop();
+        server.stop(0);
+    }
+
+    /**
+     * 測試新數據寫入，更新時間未變更時略過
+     */
+    @Test
+    void testSkipWhenUpdatedIsoUnchanged() {
+        assertThat(poller.pollOnce()).isEqualTo(CoindeskPoller.PollResult.SAVED);
+        assertThat(poller.pollOnce()).isEqualTo(CoindeskPoller.PollResult.UNCHANGED);
+
+        updatedIso = "2024-09-02T07:08:20+00:00";
+        assertThat(poller.pollOnce()).isEqualTo(CoindeskPoller.PollResult.SAVED);
+
+        ArgumentCaptor<CoindeskResponse> captor = ArgumentCaptor.forClass(CoindeskResponse.class);
+        verify(coindeskApiService, times(2)).saveCoindeskData(captor.capture());
+        assertThat(captor.getValue().getBpi().get("USD").getRateFloat()).isEqualTo(57756.2984);
+        assertThat(poller.getUnchanged()).isEqualTo(1);
+    }
+
+    /**
+     * 測試以 ETag 進行條件式請求
+     */
+    @Test
+    void testConditionalFetchWithEtag() {
+        etag = "\"v1\"";
+        assertThat(poller.pollOnce()).isEqualTo(CoindeskPoller.PollResult.SAVED);
+        assertThat(poller.pollOnce()).isEqualTo(CoindeskPoller.PollResult.NOT_MODIFIED);
+
+        assertThat(receivedIfNoneMatch).containsExactly(null, "\"v1\"");
+        verify(coindeskApiService, times(1)).saveCoindeskData(any());
+        assertThat(poller.getNotModified()).isEqualTo(1);
+    }
+
+    /**
+     * 測試寫入失敗時不保存 ETag，下次輪詢不帶條件重新取得並寫入
+     */
+    @Test
+    void testFailedSaveRefetchesWithoutConditionalHeaders() {
+        etag = "\"v1\"";
+        doThrow(new IllegalStateException("database unavailable"))
+                .doNothing()
+                .when(coindeskApiService).saveCoindeskData(any());
+
+        assertThat(poller.pollOnce()).isEqualTo(CoindeskPoller.PollResult.FAILED);
+        assertThat(poller.pollOnce()).isEqualTo(CoindeskPoller.PollResult.SAVED);
+
+        assertThat(receivedIfNoneMatch).containsExactly(null, null);
+        verify(coindeskApiService, times(2)).saveCoindeskData(any());
+        assertThat(poller.getNotModified()).isZero();
+    }
+
+    /**
+     * 測試錯誤時失敗計數與退避時間
+     */
+    @Test
+    void testFailureAndBackoff() {
+        status = 503;
+        assertThat(poller.pollOnce()).isEqualTo(CoindeskPoller.PollResult.FAILED);
+        verify(coindeskApiService, never()).saveCoindeskData(any());
+        assertThat(poller.getFailures()).isEqualTo(1);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(poller.backoffDelay(1)).isBetween(500L, 1000L);
+            assertThat(poller.backoffDelay(3)).isBetween(2000L, 4000L);
+            // 超過上限後固定於上限範圍
+            assertThat(poller.backoffDelay(20)).isBetween(4000L, 8000L);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.coindesk.service;
+
+import com.coindesk.dto.IngestQueueStatus;
+import com.coindesk.dto.coindesk.CoindeskResponse;
+import com.coindesk.exception.IngestQueueFullException;
+import com.coindesk.service.impl.AsyncIngestServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * 非同步寫入服務單元測試
+ * 測試背壓、分批寫入與逐筆重試
+ */
+@ExtendWith(MockitoExtension.class)
+public class AsyncIngestServiceTest {
+
+    @Mock
+    private CoindeskApiService coindeskApiService;
+
+    private AsyncIngestServiceImpl asyncIngestService;
+
+    @BeforeEach
+    void setUp() {
+        // 容量 2，寫入執行緒由各測試自行啟動
+        asyncIngestService = new AsyncIngestServiceImpl(coindeskApiService, "async", 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        asyncIngestService.stop();
+    }
+
+    /**
+     * 佇列已滿時拒絕，啟動寫入執行緒後以單一批次寫入
+     */
+    @Test
+    void testBackpressureAndBatchedDrain() throws InterruptedException {
+        assertThat(asyncIngestService.submit(createRecord("2024-01-01T00:00:00+00:00", 100.0))).isEqualTo(1L);
+        assertThat(asyncIngestService.submit(createRecord("2024-01-01T00:01:00+00:00", 101.0))).isEqualTo(2L);
+        assertThatThrownBy(() -> asyncIngestService.submit(createRecord("2024-01-01T00:02:00+00:00", 102.0)))
+                .isInstanceOf(IngestQueueFullException.class);
+        assertThatThrownBy(() -> asyncIngestService.submit(new CoindeskResponse()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        IngestQueueStatus status = asyncIngestService.getStatus();
+        assertThat(status.getQueueDepth()).isEqualTo(2);
+        assertThat(status.getCommitLagRecords()).isEqualTo(2L);
+        assertThat(status.getRejected()).isEqualTo(1L);
+
+        asyncIngestService.start();
+        status = awaitCommitted(2L);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CoindeskResponse>> captor = ArgumentCaptor.forClass(List.class);
+        verify(coindeskApiService).saveCoindeskDataSequence(captor.capture());
+        assertThat(captor.getValue()).hasSize(2);
+        assertThat(status.getQueueDepth()).isZero();
+        assertThat(status.getCommitLagRecords()).isZero();
+        assertThat(status.getBatches()).isEqualTo(1L);
+    }
+
+    /**
+     * 整批寫入失敗時改為逐筆寫入，只有失敗的那筆計為失敗
+     */
+    @Test
+    void testFailedBatchRetriedPerRecord() throws InterruptedException {
+        CoindeskResponse good = createRecord("2024-01-01T00:00:00+00:00", 100.0);
+        CoindeskResponse bad = createRecord("2024-01-01T00:01:00+00:00", 101.0);
+        doThrow(new IllegalStateException("batch")).when(coindeskApiService).saveCoindeskDataSequence(anyList());
+        doNothing().when(coindeskApiService).saveCoindeskDataSequence(Collections.singletonList(good));
+
+        asyncIngestService.submit(good);
+        asyncIngestService.submit(bad);
+        asyncIngestService.start();
+        IngestQueueStatus status = awaitCommitted(2L);
+
+        verify(coindeskApiService).saveCoindeskDataSequence(Collections.singletonList(good));
+        verify(coindeskApiService).saveCoindeskDataSequence(Collections.singletonList(bad));
+        assertThat(status.getFailed()).isEqualTo(1L);
+        assertThat(status.getBatches()).isZero();
+    }
+
+    private IngestQueueStatus awaitCommitted(long sequence) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        IngestQueueStatus status = asyncIngestService.getStatus();
+        while (status.getLastCommittedSequence() < sequence && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = asyncIngestService.getStatus();
+        }
+        assertThat(status.getLastCommittedSequence()).isEqualTo(sequence);
+        return status;
+    }
+
+    private static CoindeskResponse createRecord(String updatedIso, double usd) {
+        CoindeskResponse response = new CoindeskResponse();
+        CoindeskResponse.TimeInfo timeInfo = new CoindeskResponse.TimeInfo();
+        timeInfo.setUpdated(updatedIso);
+        timeInfo.setUpdatedISO(updatedIso);
+        response.setTime(timeInfo);
+
+        CoindeskResponse.CurrencyInfo info = new CoindeskResponse.CurrencyInfo();
+        info.setCode("USD");
+        info.setRate(String.valueOf(usd));
+        info.setRateFloat(usd);
+        response.setBpi(Collections.singletonMap("USD", info));
+        return response;
+    }
+}
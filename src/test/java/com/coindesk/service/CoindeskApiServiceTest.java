@@ -1,25 +1,43 @@
 package com.coindesk.service;
 
+import com.coindesk.cache.CurrencyDictionary;
 import com.coindesk.dto.CustomCurrencyResponse;
+import com.coindesk.dto.IngestStatsResponse;
 import com.coindesk.dto.coindesk.CoindeskResponse;
 import com.coindesk.entity.CurrencyEntity;
 import com.coindesk.entity.CoindeskDataEntity;
+import com.coindesk.entity.ExchangeRateEntity;
+import com.coindesk.entity.LatestRateEntity;
+import com.coindesk.journal.SnapshotLog;
 import com.coindesk.repository.CoindeskDataRepository;
 import com.coindesk.repository.CurrencyRepository;
 import com.coindesk.repository.ExchangeRateRepository;
+import com.coindesk.repository.LatestRateRepository;
+import com.coindesk.repository.ProjectionStateRepository;
 import com.coindesk.service.impl.CoindeskApiServiceImpl;
+import com.coindesk.snapshot.CoindeskSnapshot;
+import com.coindesk.snapshot.RatesCommittedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -32,9 +50,6 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class CoindeskApiServiceTest {
 
-    @Mock
-    private RestTemplate restTemplate;
-
     @Mock
     private CurrencyRepository currencyRepository;
 
@@ -44,6 +59,27 @@ public class CoindeskApiServiceTest {
     @Mock
     private ExchangeRateRepository exchangeRateRepository;
 
+    @Mock
+    private LatestRateRepository latestRateRepository;
+
+    @Mock
+    private ProjectionStateRepository projectionStateRepository;
+
+    @Mock
+    private CurrencyDictionary currencyDictionary;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<SnapshotLog> snapshotLogProvider;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Spy
     @InjectMocks
     private CoindeskApiServiceImpl coindeskApiService;
@@ -61,7 +97,7 @@ public class CoindeskApiServiceTest {
      */
     @Test
     void testTransformedCoindeskData() {
-        // 模擬 currencyRepository 行為 - 只在此測試中需要的模擬
+        // 模擬幣別字典行為 - 只在此測試中需要的模擬
         CurrencyEntity usdEntity = new CurrencyEntity();
         usdEntity.setCode("USD");
         usdEntity.setChineseName("美元");
@@ -77,12 +113,14 @@ public class CoindeskApiServiceTest {
         eurEntity.setChineseName("歐元");
         eurEntity.setEnglishName("Euro");
 
-        when(currencyRepository.findById("USD")).thenReturn(Optional.of(usdEntity));
-        when(currencyRepository.findById("GBP")).thenReturn(Optional.of(gbpEntity));
-        when(currencyRepository.findById("EUR")).thenReturn(Optional.of(eurEntity));
+        Map<String, CurrencyEntity> currencies = new HashMap<>();
+        for (CurrencyEntity entity : Arrays.asList(usdEntity, gbpEntity, eurEntity)) {
+            currencies.put(entity.getCode(), entity);
+        }
+        when(currencyDictionary.getAll(any())).thenReturn(currencies);
         
         // 使用 doReturn 而不是 when 來避免 WrongTypeOfReturnValue 錯誤
-        doReturn(sampleResponse).when(coindeskApiService).getOriginalCoindeskData();
+        doReturn(CoindeskSnapshot.of(1L, sampleResponse)).when(coindeskApiService).getSnapshot();
 
         // 呼叫服務方法
         CustomCurrencyResponse transformedData = coindeskApiService.getTransformedCoindeskData();
@@ -120,6 +158,12 @@ public class CoindeskApiServiceTest {
                 assertThat(currency.getChineseName()).isEqualTo("歐元");
             }
         });
+        
+        // 轉換視圖只計算一次，之後的讀取不再查詢幣別；幣別名稱一律由字典取得
+        assertThat(coindeskApiService.getTransformedCoindeskData()).isSameAs(transformedData);
+        verify(currencyDictionary, times(1)).getAll(any());
+        verify(currencyRepository, never()).findAllById(any());
+        verify(currencyRepository, never()).findById(any());
     }
     
     /**
@@ -145,6 +189,138 @@ public class CoindeskApiServiceTest {
         System.out.println("數據保存成功");
     }
 
+    /**
+     * 測試快照發布：版本遞增且讀取不再查詢資料庫
+     */
+    @Test
+    void testSnapshotPublishedOnSave() {
+        when(coindeskDataRepository.save(any(CoindeskDataEntity.class))).thenReturn(new CoindeskDataEntity());
+
+        coindeskApiService.saveCoindeskData(sampleResponse);
+        CoindeskSnapshot first = coindeskApiService.getSnapshot();
+
+        sampleResponse.getBpi().get("USD").setRateFloat(29000.00);
+        coindeskApiService.saveCoindeskData(sampleResponse);
+        CoindeskSnapshot second = coindeskApiService.getSnapshot();
+
+        assertThat(second.getVersion()).isGreaterThan(first.getVersion());
+        assertThat(first.getRates().get("USD").getRateFloat()).isEqualTo(28000.00);
+        assertThat(second.getRates().get("USD").getRateFloat()).isEqualTo(29000.00);
+
+        // 修改回傳物件不影響已發布的快照
+        coindeskApiService.getOriginalCoindeskData().getBpi().clear();
+        assertThat(coindeskApiService.getSnapshot().getRates()).hasSize(3);
+
+        verify(coindeskDataRepository, never()).findLatest();
+        verify(exchangeRateRepository, never()).findByCoindeskData(any());
+    }
+
+    /**
+     * 測試去重：相同數據不寫入，匯率未變動的幣別不寫入
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDuplicateAndUnchangedRatesSkipped() {
+        when(coindeskDataRepository.save(any(CoindeskDataEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        coindeskApiService.saveCoindeskData(sampleResponse);
+        coindeskApiService.saveCoindeskData(sampleResponse);
+        sampleResponse.getBpi().get("USD").setRateFloat(29000.00);
+        coindeskApiService.saveCoindeskData(sampleResponse);
+
+        verify(coindeskDataRepository, times(2)).save(any(CoindeskDataEntity.class));
+        ArgumentCaptor<List<ExchangeRateEntity>> rates = ArgumentCaptor.forClass(List.class);
+        verify(exchangeRateRepository, times(2)).saveAll(rates.capture());
+        assertThat(rates.getAllValues().get(0)).hasSize(3);
+        assertThat(rates.getAllValues().get(1))
+                .extracting(rate -> rate.getCurrency().getCode())
+                .containsExactly("USD");
+
+        // 事件只帶有實際寫入的匯率，快照仍為完整數據
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(events.capture());
+        List<RatesCommittedEvent> committed = events.getAllValues().stream()
+                .filter(RatesCommittedEvent.class::isInstance)
+                .map(RatesCommittedEvent.class::cast)
+                .collect(Collectors.toList());
+        assertThat(committed).hasSize(2);
+        assertThat(committed.get(1).getSnapshots().get(0).getRates()).containsOnlyKeys("USD");
+        assertThat(coindeskApiService.getSnapshot().getRates()).hasSize(3);
+
+        IngestStatsResponse stats = coindeskApiService.getIngestStats();
+        assertThat(stats.getReceived()).isEqualTo(3);
+        assertThat(stats.getDuplicatesSkipped()).isEqualTo(1);
+        assertThat(stats.getRecordsWritten()).isEqualTo(2);
+        assertThat(stats.getRatesWritten()).isEqualTo(4);
+        assertThat(stats.getRatesSkipped()).isEqualTo(2);
+    }
+
+    /**
+     * 測試讀取路徑指標：冷啟動依來源記錄，之後的讀取記為命中快取
+     */
+    @Test
+    void testOriginalReadMetricsBySource() {
+        coindeskApiService.getOriginalCoindeskData();
+        coindeskApiService.getOriginalCoindeskData();
+
+        // 資料庫沒有數據，冷啟動改由範例數據文件載入
+        assertThat(meterRegistry.get("coindesk.snapshot.load").tag("source", "classpath").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("coindesk.snapshot.load").tag("source", "database").timer().count())
+                .isZero();
+        assertThat(meterRegistry.get("coindesk.read.original").tag("source", "classpath").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("coindesk.read.original").tag("source", "cache").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("coindesk.snapshot.requests").tag("result", "miss").counter().count())
+                .isEqualTo(1);
+    }
+
+    /**
+     * 測試檢查點還原：資料庫較新時以資料庫為準並作為去重基準；資料庫沒有數據時使用檢查點，但不作為基準
+     */
+    @Test
+    void testRestoreSnapshotComparesWithDatabase() {
+        CoindeskDataEntity latest = new CoindeskDataEntity();
+        latest.setUpdatedTime("May 9, 2023 00:00:00 UTC");
+        latest.setUpdatedIso("2023-05-09T00:00:00+00:00");
+        latest.setUpdatedUk("May 9, 2023 at 01:00 BST");
+        latest.setDisclaimer("Sample disclaimer");
+        latest.setChartName("Bitcoin Chart");
+        CurrencyEntity usd = new CurrencyEntity("USD", "美元", "United States Dollar");
+        ExchangeRateEntity rate = new ExchangeRateEntity();
+        rate.setCurrency(usd);
+        rate.setSymbol("&#36;");
+        rate.setRate("28,000.00");
+        rate.setRateFloat(28000.00);
+        LatestRateEntity latestRate = new LatestRateEntity();
+        latestRate.setCurrencyCode("USD");
+        latestRate.setExchangeRate(rate);
+        when(coindeskDataRepository.findLatest()).thenReturn(Optional.of(latest));
+        when(latestRateRepository.findAllWithRates()).thenReturn(Collections.singletonList(latestRate));
+
+        // 檢查點早於資料庫最新記錄 (寫入後、下一次檢查點前中止)
+        sampleResponse.getTime().setUpdatedISO("2023-05-08T00:00:00+00:00");
+        coindeskApiService.restoreSnapshot(CoindeskSnapshot.of(0L, sampleResponse));
+        assertThat(coindeskApiService.getSnapshot().getUpdatedIso()).isEqualTo("2023-05-09T00:00:00+00:00");
+
+        // 與資料庫最新記錄相同的數據不再寫入
+        CoindeskResponse persisted = coindeskApiService.getOriginalCoindeskData();
+        coindeskApiService.saveCoindeskData(persisted);
+        verify(coindeskDataRepository, never()).save(any(CoindeskDataEntity.class));
+
+        // 資料庫沒有數據時使用檢查點，相同的數據仍會寫入
+        CoindeskApiServiceImpl restarted = new CoindeskApiServiceImpl(currencyRepository, coindeskDataRepository,
+                exchangeRateRepository, latestRateRepository, projectionStateRepository, currencyDictionary,
+                eventPublisher, transactionManager, snapshotLogProvider, new SimpleMeterRegistry());
+        when(coindeskDataRepository.findLatest()).thenReturn(Optional.empty());
+        when(coindeskDataRepository.save(any(CoindeskDataEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        restarted.restoreSnapshot(CoindeskSnapshot.of(0L, sampleResponse));
+        assertThat(restarted.getSnapshot().getUpdatedIso()).isEqualTo("2023-05-08T00:00:00+00:00");
+        restarted.saveCoindeskData(sampleResponse);
+        verify(coindeskDataRepository).save(any(CoindeskDataEntity.class));
+    }
+
     /**
      * 創建測試用的 Coindesk 響應
      */
@@ -0,0 +1,117 @@
+package com.coindesk.service;
+
+import com.coindesk.dto.coindesk.CoindeskResponse;
+import com.coindesk.entity.LatestRateEntity;
+import com.coindesk.repository.LatestRateRepository;
+import com.coindesk.snapshot.CoindeskSnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 併發寫入測試
+ * 資料庫隨測試結束時關閉的 context 一併移除，重複執行時從空資料庫開始
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:concurrent-ingest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                        + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.jpa.show-sql=false"
+        })
+@DirtiesContext
+class ConcurrentIngestTest {
+
+    private static final Instant BASE_TIME = Instant.parse("2024-10-01T00:00:00Z");
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private CoindeskApiService coindeskApiService;
+
+    @Autowired
+    private LatestRateRepository latestRateRepository;
+
+    /**
+     * 測試兩筆數據同時寫入後，LATEST_RATE 與發布的快照一致：
+     * 基準 USD=1，一筆改為 2、另一筆 (較新) 改回 1，不論提交順序都不能只留下 USD=2
+     */
+    @Test
+    void testConcurrentSavesKeepLatestRateInSync() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Instant start = BASE_TIME.plusSeconds(round * 10L);
+                coindeskApiService.saveCoindeskData(create(start, 1.0, 10.0));
+
+                CountDownLatch ready = new CountDownLatch(2);
+                CountDownLatch go = new CountDownLatch(1);
+                Future<?> first = executor.submit(() -> save(ready, go, create(start.plusSeconds(1), 2.0, 10.0)));
+                Future<?> second = executor.submit(() -> save(ready, go, create(start.plusSeconds(2), 1.0, 11.0)));
+                ready.await();
+                go.countDown();
+                first.get(30, TimeUnit.SECONDS);
+                second.get(30, TimeUnit.SECONDS);
+
+                Map<String, Double> published = new HashMap<>();
+                for (Map.Entry<String, CoindeskSnapshot.Rate> entry : coindeskApiService.getSnapshot().getRates().entrySet()) {
+                    published.put(entry.getKey(), entry.getValue().getRateFloat());
+                }
+                Map<String, Double> latest = new HashMap<>();
+                for (LatestRateEntity latestRate : latestRateRepository.findAllWithRates()) {
+                    latest.put(latestRate.getCurrencyCode(), latestRate.getExchangeRate().getRateFloat());
+                }
+                assertThat(latest).as("第 %d 輪", round).isEqualTo(published);
+                assertThat(coindeskApiService.getSnapshot().getUpdatedAt()).isEqualTo(start.plusSeconds(2));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Void save(CountDownLatch ready, CountDownLatch go, CoindeskResponse response) throws InterruptedException {
+        ready.countDown();
+        go.await();
+        coindeskApiService.saveCoindeskData(response);
+        return null;
+    }
+
+    private static CoindeskResponse create(Instant updatedAt, double usdRate, double gbpRate) {
+        CoindeskResponse response = new CoindeskResponse();
+        response.setChartName("Bitcoin");
+        response.setDisclaimer("concurrent");
+
+        CoindeskResponse.TimeInfo timeInfo = new CoindeskResponse.TimeInfo();
+        timeInfo.setUpdated(updatedAt.toString());
+        timeInfo.setUpdatedISO(updatedAt.toString());
+        timeInfo.setUpdateduk(updatedAt.toString());
+        response.setTime(timeInfo);
+
+        Map<String, CoindeskResponse.CurrencyInfo> bpi = new LinkedHashMap<>();
+        bpi.put("USD", rate("USD", usdRate));
+        bpi.put("GBP", rate("GBP", gbpRate));
+        response.setBpi(bpi);
+        return response;
+    }
+
+    private static CoindeskResponse.CurrencyInfo rate(String code, double value) {
+        CoindeskResponse.CurrencyInfo info = new CoindeskResponse.CurrencyInfo();
+        info.setCode(code);
+        info.setRate(String.valueOf(value));
+        info.setDescription(code);
+        info.setRateFloat(value);
+        return info;
+    }
+}
@@ -0,0 +1,106 @@
+package com.coindesk.service;
+
+import com.coindesk.cache.CurrencyDictionary;
+import com.coindesk.dto.CurrencyDto;
+import com.coindesk.dto.coindesk.CoindeskResponse;
+import com.coindesk.entity.CurrencyEntity;
+import com.coindesk.repository.CurrencyRepository;
+import com.coindesk.service.impl.CurrencyServiceImpl;
+import com.coindesk.snapshot.CoindeskSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * 幣別服務單元測試
+ * 專注於測試幣別列表與匯率快照的合併邏輯
+ */
+@ExtendWith(MockitoExtension.class)
+public class CurrencyServiceTest {
+
+    @Mock
+    private CurrencyRepository currencyRepository;
+
+    @Mock
+    private CoindeskApiService coindeskApiService;
+
+    @Mock
+    private CurrencyDictionary currencyDictionary;
+
+    @InjectMocks
+    private CurrencyServiceImpl currencyService;
+
+    /**
+     * 測試幣別數量增加時，查詢次數維持固定
+     */
+    @Test
+    void testGetAllCurrenciesQueryCountIsBounded() {
+        for (int currencyCount : new int[]{10, 1000, 5000}) {
+            reset(currencyRepository, coindeskApiService);
+            when(currencyRepository.findAll()).thenReturn(createCurrencies(currencyCount));
+            when(coindeskApiService.getSnapshot()).thenReturn(createSnapshot(currencyCount));
+
+            List<CurrencyDto> currencies = currencyService.getAllCurrencies();
+
+            assertThat(currencies).hasSize(currencyCount);
+            assertThat(currencies.get(currencyCount - 1).getRateFloat()).isEqualTo(currencyCount - 1.0);
+            assertThat(currencies.get(0).getUpdateTime()).isEqualTo("2024-09-02T07:07:20+00:00");
+
+            // 無論幣別多少，都只查詢一次幣別表與一次匯率快照
+            verify(currencyRepository, times(1)).findAll();
+            verify(coindeskApiService, times(1)).getSnapshot();
+            verifyNoMoreInteractions(currencyRepository, coindeskApiService);
+        }
+    }
+
+    /**
+     * 測試無法取得匯率快照時仍回傳幣別基本資訊
+     */
+    @Test
+    void testGetAllCurrenciesWithoutSnapshot() {
+        when(currencyRepository.findAll()).thenReturn(createCurrencies(3));
+        when(coindeskApiService.getSnapshot()).thenThrow(new RuntimeException("無法讀取範例數據文件"));
+
+        List<CurrencyDto> currencies = currencyService.getAllCurrencies();
+
+        assertThat(currencies).hasSize(3);
+        assertThat(currencies.get(0).getChineseName()).isEqualTo("幣別0");
+        assertThat(currencies.get(0).getRateFloat()).isNull();
+        verify(coindeskApiService, times(1)).getSnapshot();
+    }
+
+    private List<CurrencyEntity> createCurrencies(int count) {
+        List<CurrencyEntity> currencies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            currencies.add(new CurrencyEntity("C" + i, "幣別" + i, "Currency " + i));
+        }
+        return currencies;
+    }
+
+    private CoindeskSnapshot createSnapshot(int count) {
+        CoindeskResponse response = new CoindeskResponse();
+        CoindeskResponse.TimeInfo timeInfo = new CoindeskResponse.TimeInfo();
+        timeInfo.setUpdatedISO("2024-09-02T07:07:20+00:00");
+        response.setTime(timeInfo);
+
+        Map<String, CoindeskResponse.CurrencyInfo> bpi = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            CoindeskResponse.CurrencyInfo info = new CoindeskResponse.CurrencyInfo();
+            info.setCode("C" + i);
+            info.setRateFloat((double) i);
+            bpi.put(info.getCode(), info);
+        }
+        response.setBpi(bpi);
+        return CoindeskSnapshot.of(1L, response);
+    }
+}
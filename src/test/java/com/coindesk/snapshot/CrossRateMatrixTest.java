@@ -0,0 +1,96 @@
+package com.coindesk.snapshot;
+
+import com.coindesk.dto.coindesk.CoindeskResponse;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 交叉匯率矩陣單元測試
+ */
+public class CrossRateMatrixTest {
+
+    /**
+     * 預先計算與查詢時相除的結果相同，無效匯率不納入
+     */
+    @Test
+    void testCrossRates() {
+        CoindeskSnapshot snapshot = createSnapshot();
+        CrossRateMatrix precomputed = CrossRateMatrix.of(snapshot, 16);
+        CrossRateMatrix computed = CrossRateMatrix.of(snapshot, 2);
+
+        assertThat(precomputed.isPrecomputed()).isTrue();
+        assertThat(computed.isPrecomputed()).isFalse();
+        assertThat(precomputed.getCodes()).containsExactly("BTC", "USD", "EUR", "JPY");
+        assertThat(precomputed.indexOf("XXX")).isEqualTo(-1);
+
+        int usd = precomputed.indexOf("USD");
+        int eur = precomputed.indexOf("EUR");
+        int jpy = precomputed.indexOf("JPY");
+        int btc = precomputed.indexOf(CrossRateMatrix.BASE_CODE);
+        assertThat(precomputed.rate(eur, jpy)).isCloseTo(9_000_000.0 / 50_000.0, within(1e-9));
+        assertThat(precomputed.convert(usd, eur, 2.0)).isCloseTo(2.0 * 50_000.0 / 60_000.0, within(1e-9));
+        assertThat(precomputed.convert(btc, usd, 0.5)).isEqualTo(30_000.0);
+        assertThat(precomputed.rate(jpy, jpy)).isEqualTo(1.0);
+        for (int from = 0; from < 4; from++) {
+            for (int to = 0; to < 4; to++) {
+                assertThat(computed.rate(from, to)).isEqualTo(precomputed.rate(from, to));
+            }
+        }
+    }
+
+    /**
+     * 以代碼查詢索引並換算不配置任何物件
+     */
+    @Test
+    void testLookupIsAllocationFree() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        CrossRateMatrix matrix = CrossRateMatrix.of(createSnapshot(), 16);
+        String[] codes = {"USD", "EUR", "JPY", "BTC"};
+
+        double sum = 0;
+        // 預熱後量測
+        for (int i = 0; i < 200_000; i++) {
+            sum += matrix.convert(matrix.indexOf(codes[i & 3]), matrix.indexOf(codes[(i + 1) & 3]), i);
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 1_000_000; i++) {
+            sum += matrix.convert(matrix.indexOf(codes[i & 3]), matrix.indexOf(codes[(i + 1) & 3]), i);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(sum).isPositive();
+        // 只容許量測本身的少量配置
+        assertThat(allocated).isLessThan(1024);
+    }
+
+    private static CoindeskSnapshot createSnapshot() {
+        CoindeskResponse response = new CoindeskResponse();
+        CoindeskResponse.TimeInfo time = new CoindeskResponse.TimeInfo();
+        time.setUpdatedISO("2024-09-02T07:07:20+00:00");
+        response.setTime(time);
+
+        Map<String, CoindeskResponse.CurrencyInfo> bpi = new LinkedHashMap<>();
+        bpi.put("USD", rate("USD", 60_000.0));
+        bpi.put("EUR", rate("EUR", 50_000.0));
+        bpi.put("BAD", rate("BAD", 0.0));
+        bpi.put("JPY", rate("JPY", 9_000_000.0));
+        bpi.put("NUL", rate("NUL", null));
+        response.setBpi(bpi);
+        return CoindeskSnapshot.of(3L, response);
+    }
+
+    private static CoindeskResponse.CurrencyInfo rate(String code, Double rateFloat) {
+        CoindeskResponse.CurrencyInfo info = new CoindeskResponse.CurrencyInfo();
+        info.setCode(code);
+        info.setRateFloat(rateFloat);
+        return info;
+    }
+}
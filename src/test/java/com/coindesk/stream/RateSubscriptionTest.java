@@ -0,0 +1,55 @@
+package com.coindesk.stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 訂閱者緩衝單元測試
+ */
+public class RateSubscriptionTest {
+
+    /**
+     * 測試緩衝已滿時捨棄最舊的訊息，只保留較新的數據
+     */
+    @Test
+    void testBufferCoalescesOldestWhenFull() {
+        RateSubscription subscription = new RateSubscription(new SseEmitter(), Collections.emptySet(), 3);
+
+        for (long version = 1; version <= 5; version++) {
+            boolean dropped = subscription.offer(new RateStreamMessage(version, "{}"));
+            assertThat(dropped).isEqualTo(version > 3);
+        }
+
+        assertThat(subscription.poll().getVersion()).isEqualTo(3);
+        assertThat(subscription.poll().getVersion()).isEqualTo(4);
+        assertThat(subscription.poll().getVersion()).isEqualTo(5);
+        assertThat(subscription.poll()).isNull();
+        assertThat(subscription.isEmpty()).isTrue();
+    }
+
+    /**
+     * 測試送出權同時只由一個執行緒取得，並記錄已送出的版本
+     */
+    @Test
+    void testDrainOwnershipAndSentVersion() {
+        RateSubscription subscription = new RateSubscription(new SseEmitter(), Collections.emptySet(), 3);
+
+        assertThat(subscription.startDrain()).isTrue();
+        assertThat(subscription.startDrain()).isFalse();
+        assertThat(subscription.isDraining()).isTrue();
+
+        assertThat(subscription.isSent(1)).isFalse();
+        subscription.markSent(2);
+        assertThat(subscription.isSent(1)).isTrue();
+        assertThat(subscription.isSent(2)).isTrue();
+        assertThat(subscription.isSent(3)).isFalse();
+
+        subscription.finishDrain();
+        assertThat(subscription.isDraining()).isFalse();
+        assertThat(subscription.startDrain()).isTrue();
+    }
+}